@@ -0,0 +1,530 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The CityCatalogue class loads every city shown on the MapScreen world from a text file where each line holds the name, latitude and
+ * longitude of a city separated by commas. The file is read into memory in one go and parsed byte by byte, so large files with hundreds
+ * of thousands of cities can be parsed without creating a String for every line or splitting it into parts. Lines that cannot be read,
+ * such as lines with missing coordinates or coordinates outside the range of the Earth, are skipped and counted, and the number of them
+ * and the line numbers of the first few are reported on the terminal. Nothing is printed when every line could be read. Blank lines and lines starting with '#' are ignored. After the text file has been parsed
+ * the cities are written to a compact binary snapshot in the "weather-cache" folder, which is read instead of the text file on later
+ * starts for as long as the text file has not changed. The catalogue also finds cities by name and provides a CityIndex for finding the
+ * nearest city to a point and a CityGrid for finding the cities inside an area.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class CityCatalogue implements Iterable<City> {
+    // Identifies the snapshot files written by this class
+    private static final int MAGIC_NUMBER = 0x43545931;    // "CTY1"
+    private static final short FORMAT_VERSION = 1;
+    private static final String SNAPSHOT_DIRECTORY = "weather-cache";
+
+    // Powers of 10 that can be represented exactly as a double, used when parsing coordinates
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    // Number of skipped line numbers reported on the terminal
+    private static final int MAX_REPORTED_LINES = 10;
+
+    // Cities in the order of the file, and the same cities by name
+    private final List<City> cities;
+    private final Map<String, City> citiesByName;
+    private CityIndex index;    // Built the first time it is needed
+    private CityGrid grid;      // Built the first time it is needed
+
+    // Coordinates of the cities in the order of the file, so they can be converted to the screen without following references
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Lines that could not be read
+    private final int skippedRowCount;
+
+    /**
+     * Constructor for objects of class CityCatalogue.
+     *
+     * @param   cities              the cities in the catalogue
+     * @param   skippedRowCount     the number of lines of the file that could not be read
+     */
+    public CityCatalogue(List<City> cities, int skippedRowCount) {
+        this.cities = Collections.unmodifiableList(new ArrayList<>(cities));
+        this.citiesByName = new HashMap<>(cities.size() * 2);
+        this.skippedRowCount = skippedRowCount;
+        this.latitudes = new double[cities.size()];
+        this.longitudes = new double[cities.size()];
+
+        for (int i = 0; i < cities.size(); i++) {
+            City city = cities.get(i);
+            citiesByName.putIfAbsent(getNameKey(city.getName()), city);     // The first city with a name is kept if names repeat
+            latitudes[i] = city.getLatitude();
+            longitudes[i] = city.getLongitude();
+        }
+    }
+
+    /**
+     * Loads the cities from a text file, using the binary snapshot in the "weather-cache" folder if it is up to date.
+     * An empty catalogue is returned if the file cannot be read.
+     *
+     * @param   filename    the name of the .txt file
+     * @return              a CityCatalogue containing every city that could be read
+     */
+    public static CityCatalogue load(String filename) {
+        Path source = Paths.get(filename);
+        return load(source, Paths.get(SNAPSHOT_DIRECTORY).resolve(source.getFileName() + ".bin"));
+    }
+
+    /**
+     * Loads the cities from a text file, using a binary snapshot if it was made from the current version of the text file.
+     * A new snapshot is written whenever the text file has to be parsed.
+     * An empty catalogue is returned if the file cannot be read.
+     *
+     * @param   source      the path of the text file
+     * @param   snapshot    the path of the binary snapshot
+     * @return              a CityCatalogue containing every city that could be read
+     */
+    public static CityCatalogue load(Path source, Path snapshot) {
+        long startTime = PerformanceMonitor.start();
+        try {
+            // The size and modification time identify the version of the text file the snapshot was made from
+            long sourceSize = Files.size(source);
+            long sourceModified = Files.getLastModifiedTime(source).toMillis();
+
+            CityCatalogue catalogue = readSnapshot(snapshot, sourceSize, sourceModified);
+            boolean fromSnapshot = catalogue != null;
+            List<Integer> skippedLines = new ArrayList<>();
+            if (!fromSnapshot) {
+                catalogue = parse(source, skippedLines);
+                writeSnapshot(snapshot, catalogue, sourceSize, sourceModified);
+            }
+
+            PerformanceMonitor.record("CityCatalogue.load", startTime);
+            if (catalogue.skippedRowCount > 0) {
+                printReport(source, catalogue, fromSnapshot, skippedLines, System.nanoTime() - startTime);
+            }
+            return catalogue;
+        } catch (IOException e) {   // Outputs a message if the file cannot be found or if the file cannot be read
+            System.out.println("Error reading cities file: " + e.getMessage());
+            return new CityCatalogue(new ArrayList<>(), 0);
+        }
+    }
+
+    /**
+     * Returns the number of cities in the catalogue.
+     *
+     * @return  the number of cities
+     */
+    public int size() {
+        return cities.size();
+    }
+
+    /**
+     * Returns the city at a position in the catalogue.
+     *
+     * @param   i   the position of the city, in the order of the file
+     * @return      the City object
+     */
+    public City getCity(int i) {
+        return cities.get(i);
+    }
+
+    /**
+     * Returns every city in the catalogue.
+     *
+     * @return  an unmodifiable List of the cities, in the order of the file
+     */
+    public List<City> getCities() {
+        return cities;
+    }
+
+    /**
+     * Returns the latitudes of every city in the catalogue. The array is shared and must not be changed.
+     *
+     * @return  an array of the latitudes, in the order of the file
+     */
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    /**
+     * Returns the longitudes of every city in the catalogue. The array is shared and must not be changed.
+     *
+     * @return  an array of the longitudes, in the order of the file
+     */
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+
+    /**
+     * Returns an Iterator over every city in the catalogue, so the catalogue can be used in a for-each loop.
+     *
+     * @return  an Iterator over the cities, in the order of the file
+     */
+    @Override
+    public Iterator<City> iterator() {
+        return cities.iterator();
+    }
+
+    /**
+     * Finds a city by its name, ignoring upper and lower case and spaces at either end.
+     *
+     * @param   name    the name of the city
+     * @return          the City object, or null if no city has that name
+     */
+    public City findByName(String name) {
+        return name == null ? null : citiesByName.get(getNameKey(name));
+    }
+
+    /**
+     * Returns the spatial index of the cities, building it the first time it is needed.
+     *
+     * @return  a CityIndex containing every city in the catalogue
+     */
+    public synchronized CityIndex getIndex() {
+        if (index == null) {
+            index = new CityIndex(cities);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the grid of the cities used to find the cities inside an area, building it the first time it is needed.
+     *
+     * @return  a CityGrid containing every city in the catalogue
+     */
+    public synchronized CityGrid getGrid() {
+        if (grid == null) {
+            grid = new CityGrid(latitudes, longitudes);
+        }
+        return grid;
+    }
+
+    /**
+     * Returns the number of lines of the file that could not be read.
+     *
+     * @return  the number of skipped lines
+     */
+    public int getSkippedRowCount() {
+        return skippedRowCount;
+    }
+
+    /**
+     * Returns the key a city is stored under when it is found by name.
+     *
+     * @param   name    the name of the city
+     * @return          the name without spaces at either end in lower case
+     */
+    private static String getNameKey(String name) {
+        return name.trim().toLowerCase();
+    }
+
+    /**
+     * Parses the text file by reading it into memory and going through it one line at a time.
+     *
+     * @param   source          the path of the text file
+     * @param   skippedLines    a List that the line numbers of the first few skipped lines are added to
+     * @return                  a CityCatalogue containing every city that could be read
+     */
+    private static CityCatalogue parse(Path source, List<Integer> skippedLines) throws IOException {
+        List<City> cities = new ArrayList<>();
+        int skippedRowCount = 0;
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(source));    // Kept on the heap, so nothing holds the file once parsed
+        int limit = buffer.limit();
+        byte[] nameBytes = new byte[64];    // Reused for the name on every line and grown if a name is longer
+
+        // Skips the byte order mark some editors add to the start of UTF-8 files
+        int lineStart = 0;
+        if (limit >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB && (buffer.get(2) & 0xFF) == 0xBF) {
+            lineStart = 3;
+        }
+
+        int lineNumber = 0;
+        while (lineStart < limit) {
+            lineNumber++;
+
+            // Finds the end of the line
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int nextLineStart = lineEnd + 1;
+
+            // Removes spaces and the carriage return of Windows line endings from both ends
+            int start = skipSpaces(buffer, lineStart, lineEnd);
+            int end = trimSpaces(buffer, start, lineEnd);
+
+            // Blank lines and comments are ignored
+            if (start == end || buffer.get(start) == '#') {
+                lineStart = nextLineStart;
+                continue;
+            }
+
+            // The coordinates are after the last two commas, so names may contain commas
+            int secondComma = lastIndexOf(buffer, start, end, ',');
+            int firstComma = secondComma < 0 ? -1 : lastIndexOf(buffer, start, secondComma, ',');
+            City city = null;
+            if (firstComma >= 0) {
+                double latitude = parseCoordinate(buffer, firstComma + 1, secondComma);
+                double longitude = parseCoordinate(buffer, secondComma + 1, end);
+                int nameEnd = trimSpaces(buffer, start, firstComma);
+
+                // NaN fails both comparisons, so coordinates that could not be parsed are rejected here too
+                if (nameEnd > start && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180) {
+                    int length = nameEnd - start;
+                    if (length > nameBytes.length) {
+                        nameBytes = new byte[length * 2];
+                    }
+                    buffer.get(start, nameBytes, 0, length);
+                    city = new City(new String(nameBytes, 0, length, StandardCharsets.UTF_8), latitude, longitude);
+                }
+            }
+
+            if (city != null) {
+                cities.add(city);
+            } else {
+                skippedRowCount++;
+                if (skippedLines.size() < MAX_REPORTED_LINES) {
+                    skippedLines.add(lineNumber);
+                }
+            }
+            lineStart = nextLineStart;
+        }
+
+        return new CityCatalogue(cities, skippedRowCount);
+    }
+
+    /**
+     * Parses a latitude or longitude coordinate written as a decimal number, such as "-2.3591".
+     * Numbers with an exponent or too many digits to be held exactly are passed to Double.parseDouble() instead.
+     *
+     * @param   buffer  the contents of the file
+     * @param   start   the position of the first character of the number
+     * @param   end     the position after the last character of the number
+     * @return          the value of the number, or NaN if it is not a number
+     */
+    private static double parseCoordinate(ByteBuffer buffer, int start, int end) {
+        start = skipSpaces(buffer, start, end);
+        end = trimSpaces(buffer, start, end);
+
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+
+        long digits = 0;
+        int digitCount = 0;
+        int fractionDigits = -1;    // The number of digits after the decimal point, or -1 before the decimal point is reached
+        for (; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                digits = digits * 10 + (b - '0');
+                digitCount++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+
+        if (i < end || digitCount > 15) {
+            return parseCoordinateSlowly(buffer, start, end);
+        }
+        if (digitCount == 0) {
+            return Double.NaN;
+        }
+
+        // Dividing a whole number of at most 15 digits by an exact power of ten gives the correctly rounded result
+        double value = fractionDigits > 0 ? digits / POWERS_OF_TEN[fractionDigits] : digits;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a number that parseCoordinate() cannot read itself using Double.parseDouble().
+     *
+     * @param   buffer  the contents of the file
+     * @param   start   the position of the first character of the number
+     * @param   end     the position after the last character of the number
+     * @return          the value of the number, or NaN if it is not a number
+     */
+    private static double parseCoordinateSlowly(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        try {
+            return Double.parseDouble(new String(bytes, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Returns the position of the first character in a range that is not a space, tab or carriage return.
+     *
+     * @param   buffer  the contents of the file
+     * @param   start   the first position of the range
+     * @param   end     the position after the last position of the range
+     * @return          the position of the first other character, or end if there is none
+     */
+    private static int skipSpaces(ByteBuffer buffer, int start, int end) {
+        while (start < end && isSpace(buffer.get(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * Returns the position after the last character in a range that is not a space, tab or carriage return.
+     *
+     * @param   buffer  the contents of the file
+     * @param   start   the first position of the range
+     * @param   end     the position after the last position of the range
+     * @return          the position after the last other character, or start if there is none
+     */
+    private static int trimSpaces(ByteBuffer buffer, int start, int end) {
+        while (end > start && isSpace(buffer.get(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Returns whether or not a character is a space, tab or carriage return.
+     *
+     * @param   b   the character
+     * @return      a boolean value determining whether or not the character is ignored at the ends of a value
+     */
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Returns the position of the last occurrence of a character in a range.
+     *
+     * @param   buffer  the contents of the file
+     * @param   start   the first position of the range
+     * @param   end     the position after the last position of the range
+     * @param   target  the character to be found
+     * @return          the position of the character, or -1 if it is not in the range
+     */
+    private static int lastIndexOf(ByteBuffer buffer, int start, int end, char target) {
+        for (int i = end - 1; i >= start; i--) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the binary snapshot if it was made from the current version of the text file.
+     *
+     * @param   snapshot        the path of the binary snapshot
+     * @param   sourceSize      the size of the text file in bytes
+     * @param   sourceModified  the time the text file was last modified
+     * @return                  a CityCatalogue containing the cities in the snapshot, or null if the snapshot is missing or out of date
+     */
+    private static CityCatalogue readSnapshot(Path snapshot, long sourceSize, long sourceModified) {
+        if (!Files.exists(snapshot)) {
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            if (in.readInt() != MAGIC_NUMBER || in.readShort() != FORMAT_VERSION
+                    || in.readLong() != sourceSize || in.readLong() != sourceModified) {
+                return null;
+            }
+
+            int skippedRowCount = in.readInt();
+            int size = in.readInt();
+            List<City> cities = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                cities.add(new City(in.readUTF(), in.readDouble(), in.readDouble()));
+            }
+            return new CityCatalogue(cities, skippedRowCount);
+        } catch (IOException e) {   // A damaged snapshot is replaced by parsing the text file again
+            System.out.println("Error reading cities snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the binary snapshot of a catalogue, first to a temporary file which is then moved into place.
+     *
+     * @param   snapshot        the path of the binary snapshot
+     * @param   catalogue       the CityCatalogue to be written
+     * @param   sourceSize      the size of the text file in bytes
+     * @param   sourceModified  the time the text file was last modified
+     */
+    private static void writeSnapshot(Path snapshot, CityCatalogue catalogue, long sourceSize, long sourceModified) {
+        try {
+            Path directory = snapshot.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                out.writeInt(MAGIC_NUMBER);
+                out.writeShort(FORMAT_VERSION);
+                out.writeLong(sourceSize);
+                out.writeLong(sourceModified);
+                out.writeInt(catalogue.skippedRowCount);
+                out.writeInt(catalogue.size());
+                for (City city : catalogue) {
+                    out.writeUTF(city.getName());
+                    out.writeDouble(city.getLatitude());
+                    out.writeDouble(city.getLongitude());
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temporaryFile);
+                throw e;
+            }
+
+            try {
+                Files.move(temporaryFile, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {   // The catalogue can still be used without a snapshot
+            System.out.println("Error writing cities snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Prints the number of cities loaded, where they were loaded from and the lines that were skipped onto the terminal.
+     * Only called when some lines were skipped, so a file without problems loads silently.
+     *
+     * @param   source          the path of the text file
+     * @param   catalogue       the CityCatalogue that was loaded
+     * @param   fromSnapshot    a boolean value determining whether or not the cities were read from the binary snapshot
+     * @param   skippedLines    the line numbers of the first few skipped lines, which are only known when the text file is parsed
+     * @param   loadTime        the number of nanoseconds taken to load the cities
+     */
+    private static void printReport(Path source, CityCatalogue catalogue, boolean fromSnapshot, List<Integer> skippedLines, long loadTime) {
+        System.out.printf("Loaded %d cities from %s%s in %.1f ms (%d rows skipped)\n",
+                catalogue.size(), source.getFileName(), fromSnapshot ? " snapshot" : "", loadTime / 1e6, catalogue.skippedRowCount);
+
+        if (!skippedLines.isEmpty()) {
+            System.out.println("Skipped lines: " + skippedLines + (catalogue.skippedRowCount > skippedLines.size() ? " ..." : ""));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * The CityGrid class finds the cities inside a rectangle of latitude and longitude coordinates, such as the part of the map that is
+ * visible on the screen, without checking every city. The area covered by the cities is divided into a grid of equally sized cells, and
+ * the positions of the cities in each cell are stored next to each other, so a search only looks at the cells that overlap the rectangle
+ * and the time it takes grows with the number of cities found rather than with the number of cities loaded. Cities are identified by
+ * their position in the CityCatalogue, and the grid is stored in arrays of ints so no objects are created while searching.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class CityGrid {
+    // Average number of cities in each cell, and the largest number of cells along each side
+    private static final int CITIES_PER_CELL = 8;
+    private static final int MAX_CELLS_PER_SIDE = 1024;
+
+    // Coordinates of the cities, shared with the CityCatalogue
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    // Area covered by the grid and the size of each cell
+    private final double minLat, minLon;
+    private final double cellHeight, cellWidth;
+    private final int rows, columns;
+
+    // The cities of cell c are cityOrder[cellStarts[c]] up to but not including cityOrder[cellStarts[c + 1]]
+    private final int[] cellStarts;
+    private final int[] cityOrder;
+
+    /**
+     * Constructor for objects of class CityGrid.
+     * The grid is built once and does not change if the arrays change afterwards.
+     *
+     * @param   latitudes   the latitude coordinates of the cities
+     * @param   longitudes  the longitude coordinates of the cities, in the same order as the latitudes
+     */
+    public CityGrid(double[] latitudes, double[] longitudes) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        int size = latitudes.length;
+
+        // Finds the area covered by the cities
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLon = Math.min(minLon, longitudes[i]);
+            maxLon = Math.max(maxLon, longitudes[i]);
+        }
+        if (size == 0) {
+            minLat = maxLat = minLon = maxLon = 0;
+        }
+
+        // Chooses enough cells for a few cities in each one
+        int cellsPerSide = (int) Math.ceil(Math.sqrt(size / (double) CITIES_PER_CELL));
+        cellsPerSide = Math.max(1, Math.min(MAX_CELLS_PER_SIDE, cellsPerSide));
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.rows = cellsPerSide;
+        this.columns = cellsPerSide;
+        this.cellHeight = Math.max(maxLat - minLat, 1e-9) / rows;  // Keeps the cells a usable size if every city is in one place
+        this.cellWidth = Math.max(maxLon - minLon, 1e-9) / columns;
+
+        // Counts the cities in each cell, then turns the counts into the position each cell starts at
+        int[] cells = new int[size];
+        cellStarts = new int[rows * columns + 1];
+        for (int i = 0; i < size; i++) {
+            cells[i] = getRow(latitudes[i]) * columns + getColumn(longitudes[i]);
+            cellStarts[cells[i] + 1]++;
+        }
+        for (int c = 0; c < rows * columns; c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+
+        // Places each city in its cell, keeping the order of the catalogue within each cell
+        cityOrder = new int[size];
+        int[] nextPositions = cellStarts.clone();
+        for (int i = 0; i < size; i++) {
+            cityOrder[nextPositions[cells[i]]++] = i;
+        }
+    }
+
+    /**
+     * Returns the number of cities in the grid.
+     *
+     * @return  the number of cities
+     */
+    public int size() {
+        return cityOrder.length;
+    }
+
+    /**
+     * Finds the cities inside a rectangle of coordinates and stores their positions in the catalogue in an array.
+     * The array is filled in place so it can be reused for every search.
+     *
+     * @param   minLat      the latitude of the bottom edge of the rectangle
+     * @param   maxLat      the latitude of the top edge of the rectangle
+     * @param   minLon      the longitude of the left edge of the rectangle
+     * @param   maxLon      the longitude of the right edge of the rectangle
+     * @param   results     the array the positions are stored in, with room for every city in the grid
+     * @return              the number of cities found
+     */
+    public int findInside(double minLat, double maxLat, double minLon, double maxLon, int[] results) {
+        if (cityOrder.length == 0 || minLat > maxLat || minLon > maxLon) {
+            return 0;
+        }
+
+        // Only the cells overlapping the rectangle are searched
+        int firstRow = getRow(minLat), lastRow = getRow(maxLat);
+        int firstColumn = getColumn(minLon), lastColumn = getColumn(maxLon);
+
+        int count = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            boolean isRowInside = row > firstRow && row < lastRow;  // Cells away from the edges lie wholly inside the rectangle
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                int end = cellStarts[cell + 1];
+
+                if (isRowInside && column > firstColumn && column < lastColumn) {
+                    for (int j = cellStarts[cell]; j < end; j++) {
+                        results[count++] = cityOrder[j];
+                    }
+                } else {    // Cells on the edges are only partly inside, so each city is checked
+                    for (int j = cellStarts[cell]; j < end; j++) {
+                        int i = cityOrder[j];
+                        if (latitudes[i] >= minLat && latitudes[i] <= maxLat && longitudes[i] >= minLon && longitudes[i] <= maxLon) {
+                            results[count++] = i;
+                        }
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the row of the grid containing a latitude, using the nearest row for latitudes outside the grid.
+     *
+     * @param   lat     the latitude coordinate
+     * @return          the row, from 0 at the bottom of the grid
+     */
+    private int getRow(double lat) {
+        int row = (int) Math.floor((lat - minLat) / cellHeight);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    /**
+     * Returns the column of the grid containing a longitude, using the nearest column for longitudes outside the grid.
+     *
+     * @param   lon     the longitude coordinate
+     * @return          the column, from 0 at the left of the grid
+     */
+    private int getColumn(double lon) {
+        int column = (int) Math.floor((lon - minLon) / cellWidth);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+}
@@ -0,0 +1,344 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CityIndex class finds the cities closest to a pair of latitude and longitude coordinates without measuring the distance to every
+ * city. Each city is converted once into a point on a sphere of radius 1 and the points are arranged into a k-d tree, which splits the
+ * cities in half again and again along whichever direction they are most spread out in. A search only visits the parts of the tree that
+ * could hold a closer city than the closest one found so far, so the number of cities checked grows far more slowly than the number of
+ * cities loaded. Points are compared by the straight-line distance between them through the sphere, which always puts cities in the same
+ * order as the distance across the surface of the Earth but needs no trigonometry. The cities that are found are then ranked by their
+ * exact distance from the haversine formula. The tree is stored in arrays in the order it was built, so no node objects are created.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class CityIndex {
+    private static final double EARTH_RADIUS_KM = 6371;
+
+    // Cities and their points on the unit sphere, stored in the order of the tree
+    // The city in the middle of any range of the arrays splits the rest of that range in half
+    private final City[] cities;
+    private final double[][] points;    // points[axis][i] holds the x, y or z coordinate of city i
+    private final byte[] splitAxes;     // The axis each city splits its range along
+
+    /**
+     * Constructor for objects of class CityIndex.
+     * The tree is built once and does not change if the list changes afterwards.
+     *
+     * @param   cityList    the cities to be indexed
+     */
+    public CityIndex(List<City> cityList) {
+        int size = cityList.size();
+        cities = cityList.toArray(new City[0]);
+        points = new double[3][size];
+        splitAxes = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            setPoint(i, cities[i].getLatitude(), cities[i].getLongitude());
+        }
+
+        build(0, size);
+    }
+
+    /**
+     * Returns the number of cities in the index.
+     *
+     * @return  the number of cities
+     */
+    public int size() {
+        return cities.length;
+    }
+
+    /**
+     * Finds the nearest city to a pair of latitude and longitude coordinates.
+     *
+     * @param   lat     the latitude coordinate to search from
+     * @param   lon     the longitude coordinate to search from
+     * @return          the nearest city as a City object, or null if the index is empty
+     */
+    public City findNearest(double lat, double lon) {
+        List<City> nearest = findNearest(lat, lon, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Finds the given number of cities that are nearest to a pair of latitude and longitude coordinates.
+     *
+     * @param   lat     the latitude coordinate to search from
+     * @param   lon     the longitude coordinate to search from
+     * @param   count   the number of cities to be found
+     * @return          a List of the nearest cities, starting with the closest
+     */
+    public List<City> findNearest(double lat, double lon, int count) {
+        count = Math.min(count, cities.length);
+        List<City> result = new ArrayList<>(Math.max(0, count));
+        if (count <= 0) {
+            return result;
+        }
+
+        // Converts the search coordinates into a point on the unit sphere
+        double latRadians = Math.toRadians(lat);
+        double lonRadians = Math.toRadians(lon);
+        double cosLat = Math.cos(latRadians);
+        double[] query = {cosLat * Math.cos(lonRadians), cosLat * Math.sin(lonRadians), Math.sin(latRadians)};
+
+        // Finds the closest points in the tree
+        Neighbours neighbours = new Neighbours(count);
+        search(0, cities.length, query, neighbours);
+
+        // Ranks the cities that were found by their exact distance across the surface of the Earth
+        double[] distances = new double[neighbours.size];
+        for (int i = 0; i < neighbours.size; i++) {
+            City city = cities[neighbours.indices[i]];
+            distances[i] = haversine(lat, lon, city.getLatitude(), city.getLongitude());
+        }
+        for (int i = 1; i < neighbours.size; i++) {     // Insertion sort since the list is short and already nearly in order
+            double distance = distances[i];
+            int index = neighbours.indices[i];
+            int j = i - 1;
+            while (j >= 0 && distances[j] > distance) {
+                distances[j + 1] = distances[j];
+                neighbours.indices[j + 1] = neighbours.indices[j];
+                j--;
+            }
+            distances[j + 1] = distance;
+            neighbours.indices[j + 1] = index;
+        }
+
+        for (int i = 0; i < neighbours.size; i++) {
+            result.add(cities[neighbours.indices[i]]);
+        }
+        return result;
+    }
+
+    /**
+     * The haversine formula calculates the distance between two points on a large sphere.
+     *
+     * @param   lat1    the latitude coordinate of the first pair of points
+     * @param   lon1    the longitude coordinate of the first pair of points
+     * @param   lat2    the latitude coordinate of the second pair of points
+     * @param   lon2    the longitude coordinate of the second pair of points
+     * @return          the kilometre distance between two pairs of latitude and longitude coordinates
+     */
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        // Calculates the difference in latitude and longitude
+        double sinHalfDLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+        double sinHalfDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+
+        // a = sin^2(dLat/2) + cos(lat1) * cos(lat2) * sin^2(dLon/2)
+        double a = sinHalfDLat * sinHalfDLat +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinHalfDLon * sinHalfDLon;
+
+        // c = 2 * atan2(sqrt(a), sqrt(1 - a))
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c; // Distance is returned in kilometres
+    }
+
+    /**
+     * Stores the point on the unit sphere for a pair of latitude and longitude coordinates.
+     *
+     * @param   i       the position of the city in the arrays
+     * @param   lat     the latitude coordinate of the city
+     * @param   lon     the longitude coordinate of the city
+     */
+    private void setPoint(int i, double lat, double lon) {
+        double latRadians = Math.toRadians(lat);
+        double lonRadians = Math.toRadians(lon);
+        double cosLat = Math.cos(latRadians);
+        points[0][i] = cosLat * Math.cos(lonRadians);
+        points[1][i] = cosLat * Math.sin(lonRadians);
+        points[2][i] = Math.sin(latRadians);
+    }
+
+    /**
+     * Arranges a range of the arrays into a k-d tree.
+     * The city at the middle of the range splits the range along the axis the cities are most spread out in.
+     *
+     * @param   start   the first position of the range
+     * @param   end     the position after the last position of the range
+     */
+    private void build(int start, int end) {
+        if (end - start <= 0) {
+            return;
+        }
+
+        int axis = widestAxis(start, end);
+        int middle = (start + end) >>> 1;
+        select(start, end - 1, middle, points[axis]);
+        splitAxes[middle] = (byte) axis;
+
+        build(start, middle);
+        build(middle + 1, end);
+    }
+
+    /**
+     * Returns the axis along which the points in a range are the most spread out.
+     *
+     * @param   start   the first position of the range
+     * @param   end     the position after the last position of the range
+     * @return          0, 1 or 2 for the x, y or z axis
+     */
+    private int widestAxis(int start, int end) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                min = Math.min(min, points[axis][i]);
+                max = Math.max(max, points[axis][i]);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /**
+     * Reorders a range of the arrays so that the city at the target position has the value it would have if the range were sorted
+     * along one axis, with smaller values before it and larger values after it.
+     *
+     * @param   left    the first position of the range
+     * @param   right   the last position of the range
+     * @param   target  the position to be filled
+     * @param   values  the coordinates along the axis being sorted
+     */
+    private void select(int left, int right, int target, double[] values) {
+        while (left < right) {
+            // Partitions the range around the value in the middle of it
+            double pivot = values[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            // Continues with the part of the range containing the target
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swaps two cities and their points in the arrays.
+     *
+     * @param   i   the position of the first city
+     * @param   j   the position of the second city
+     */
+    private void swap(int i, int j) {
+        City city = cities[i];
+        cities[i] = cities[j];
+        cities[j] = city;
+
+        for (double[] axis : points) {
+            double value = axis[i];
+            axis[i] = axis[j];
+            axis[j] = value;
+        }
+    }
+
+    /**
+     * Searches a range of the tree for points closer to the query point than the ones found so far.
+     * The half of the range on the same side of the split as the query point is searched first, and the other half is only searched
+     * if the split is closer than the furthest point found so far.
+     *
+     * @param   start       the first position of the range
+     * @param   end         the position after the last position of the range
+     * @param   query       the x, y and z coordinates of the query point
+     * @param   neighbours  the closest points found so far
+     */
+    private void search(int start, int end, double[] query, Neighbours neighbours) {
+        if (end - start <= 0) {
+            return;
+        }
+
+        int middle = (start + end) >>> 1;
+        double dx = points[0][middle] - query[0];
+        double dy = points[1][middle] - query[1];
+        double dz = points[2][middle] - query[2];
+        neighbours.offer(middle, dx * dx + dy * dy + dz * dz);  // Squared straight-line distance
+
+        int axis = splitAxes[middle];
+        double difference = query[axis] - points[axis][middle];
+        if (difference < 0) {
+            search(start, middle, query, neighbours);
+            if (difference * difference < neighbours.furthestDistance()) {
+                search(middle + 1, end, query, neighbours);
+            }
+        } else {
+            search(middle + 1, end, query, neighbours);
+            if (difference * difference < neighbours.furthestDistance()) {
+                search(start, middle, query, neighbours);
+            }
+        }
+    }
+
+    /**
+     * The Neighbours class holds the closest points found so far in a search, in order of distance.
+     */
+    private static class Neighbours {
+        private final int[] indices;
+        private final double[] distances;
+        private int size = 0;
+
+        /**
+         * Constructor for objects of class Neighbours.
+         *
+         * @param   capacity    the number of points to be kept
+         */
+        Neighbours(int capacity) {
+            indices = new int[capacity];
+            distances = new double[capacity];
+        }
+
+        /**
+         * Returns the distance of the furthest point kept, or infinity if fewer points than the capacity have been found.
+         *
+         * @return  the squared distance a new point must be closer than to be kept
+         */
+        double furthestDistance() {
+            return size < indices.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+        }
+
+        /**
+         * Keeps a point if it is closer than the furthest point kept, removing the furthest point if there is no room.
+         *
+         * @param   index       the position of the point in the arrays of the index
+         * @param   distance    the squared distance of the point from the query point
+         */
+        void offer(int index, double distance) {
+            if (distance >= furthestDistance()) {
+                return;
+            }
+
+            int i = Math.min(size, indices.length - 1);
+            while (i > 0 && distances[i - 1] > distance) {
+                indices[i] = indices[i - 1];
+                distances[i] = distances[i - 1];
+                i--;
+            }
+            indices[i] = index;
+            distances[i] = distance;
+            size = Math.min(size + 1, indices.length);
+        }
+    }
+}
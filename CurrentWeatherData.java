@@ -1,3 +1,5 @@
+import java.util.Objects;
+
 /**
  * The CurrentWeatherData class stores a variety of weather-related information retrieved from the CurrentWeatherFetcher class. 
  * The data held in CurrentWeatherData objects can be accessed via numerous get methods for each field. The data in this class 
@@ -170,4 +172,33 @@ public class CurrentWeatherData {
     public int getSystemID() { return systemID; }
     public String getMessage() { return message; }
     public int getStatusCode() { return statusCode; }
+    
+    /**
+     * Returns whether or not another CurrentWeatherData object holds the same weather as this one.
+     * Every field that can be shown on the CurrentWeatherDisplay is compared, while the internal parameters are ignored.
+     * 
+     * @param   other   the CurrentWeatherData object to be compared
+     * @return          a boolean value determining whether or not the weather in both objects is the same
+     */
+    public boolean hasSameWeather(CurrentWeatherData other) {
+        if (other == this) {
+            return true;
+        }
+        return other != null
+                // Time of Data
+                && timestamp == other.timestamp && sunrise == other.sunrise && sunset == other.sunset
+                && timezoneShift == other.timezoneShift
+                // Weather Conditions
+                && weatherID == other.weatherID && Objects.equals(weatherDescription, other.weatherDescription)
+                // Main Data
+                && temperature == other.temperature && feelsLike == other.feelsLike
+                && tempMin == other.tempMin && tempMax == other.tempMax
+                && pressure == other.pressure && humidity == other.humidity
+                && seaLevelPressure == other.seaLevelPressure && groundLevelPressure == other.groundLevelPressure
+                // Visibility, Wind and Clouds
+                && visibility == other.visibility && windSpeed == other.windSpeed
+                && windDirection == other.windDirection && windGust == other.windGust && cloudiness == other.cloudiness
+                // Rain and Snow
+                && rainVolume == other.rainVolume && snowVolume == other.snowVolume;
+    }
 }
\ No newline at end of file
@@ -3,12 +3,15 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The CurrentWeatherDisplay class is responsible for displaying current weather information from the OpenWeatherMap API onto the screen.
  * It contains methods to update the information on the display from clicking the mouse on the MapScreen world and clicking on the toggle
  * buttons. The vertical dimensions of CurrentWeatherDisplay objects are updated dynamically based on the number of active toggles. 
- * Objects of this class can be dragged around the screen during runtime.
+ * While the scenario is running, the weather for the selected city is fetched again in the background at a fixed interval, and the 
+ * display is only redrawn when the refreshed weather is different from the weather being shown. Objects of this class can be dragged 
+ * around the screen during runtime.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -18,9 +21,15 @@ public class CurrentWeatherDisplay extends Actor {
     private final CurrentWeatherFetcher fetcher;
     private final ToggleManager toggleManager;
     
-    private City selectedCity;
+    private volatile City selectedCity;     // Read by the refresh thread
     private CurrentWeatherData currentWeather;
     
+    // Weather data that is still being fetched for the selected city
+    private CompletableFuture<CurrentWeatherData> pendingWeather;
+    
+    // Fetches the weather for the selected city again at a fixed interval
+    private final WeatherRefreshScheduler refreshScheduler;
+    
     // Width of the display
     private static final int WIDTH = 280;
     
@@ -39,6 +48,7 @@ public class CurrentWeatherDisplay extends Actor {
     public CurrentWeatherDisplay(CurrentWeatherFetcher fetcher, ToggleManager toggleManager) {
         this.fetcher = fetcher;
         this.toggleManager = toggleManager;
+        this.refreshScheduler = new WeatherRefreshScheduler(fetcher, this::getSelectedCity, WeatherRefreshScheduler.DEFAULT_INTERVAL_MILLIS);
         updateDisplay();
     }
     
@@ -60,12 +70,75 @@ public class CurrentWeatherDisplay extends Actor {
         return selectedCity;
     }
     
+    /**
+     * Returns whether or not weather data for the selected city is still being fetched.
+     * 
+     * @return  true if the display is waiting for a response from the API
+     */
+    public boolean isLoading() {
+        return pendingWeather != null;
+    }
+    
+    /**
+     * Starts fetching the weather for the selected city again at a fixed interval.
+     * Called when the scenario starts running.
+     * 
+     * @param   intervalMillis  the number of milliseconds between the end of one refresh and the start of the next
+     */
+    public void startRefreshing(long intervalMillis) {
+        if (refreshScheduler.getInterval() != intervalMillis) {
+            refreshScheduler.setInterval(intervalMillis);
+        }
+        refreshScheduler.start();
+    }
+    
+    /**
+     * Stops fetching the weather for the selected city again.
+     * Called when the scenario is paused.
+     */
+    public void stopRefreshing() {
+        refreshScheduler.stop();
+    }
+    
     /**
      * Allows for the user to drag the display around the screen whenever the 'Act' or 'Run' button gets pressed or executed in
-     * the environment.
+     * the environment. Weather data that has finished being fetched is shown on the display.
      */
     public void act () {
         checkMouseDrag();
+        checkPendingWeather();
+        checkRefreshedWeather();
+    }
+    
+    /**
+     * Checks if the weather for the selected city has been refreshed in the background.
+     * The display is only redrawn if the refreshed weather is different from the weather being shown.
+     */
+    private void checkRefreshedWeather() {
+        CurrentWeatherData refreshedWeather = refreshScheduler.collectRefresh(selectedCity);
+        if (refreshedWeather == null || pendingWeather != null) {  // A newer request started by a click takes priority
+            return;
+        }
+        
+        if (!refreshedWeather.hasSameWeather(currentWeather)) {
+            currentWeather = refreshedWeather;
+            updateDisplay();
+        }
+    }
+    
+    /**
+     * Checks if the weather data for the selected city has finished being fetched.
+     * If it has then the data is shown on the display. The act thread never waits for the data to arrive.
+     */
+    private void checkPendingWeather() {
+        if (pendingWeather != null && pendingWeather.isDone()) {
+            CurrentWeatherData newWeather = pendingWeather.handle((data, error) -> data).join();   // Does not block since the future is complete
+            if (newWeather != null) {   // Keeps showing the last known weather if the request failed
+                currentWeather = newWeather;
+            }
+            pendingWeather = null;
+            updateDisplay();
+        }
     }
     
     /**
@@ -80,15 +153,23 @@ public class CurrentWeatherDisplay extends Actor {
     }
     
     /**
-     * Updates the most recent city selected, retrieves data from that city and showcases the retrieved data on the display.
+     * Updates the most recent city selected and starts retrieving data from that city in the background.
+     * The data saved from the last time the city was fetched is shown until the new data arrives on a later act() call. If no data
+     * has been saved for the city then the display shows a loading message instead.
      * Called after clicking anywhere on the map.
      * 
      * @param   city    the city that the data will be retrieved from
      */
     public void displayWeatherFor(City city) {
         selectedCity = city;    // The given city becomes the new city
-        currentWeather = fetcher.getWeatherData(selectedCity.getName());
-        updateDisplay();
+        pendingWeather = fetcher.getWeatherDataAsync(selectedCity.getName());   // Replaces any request for a previous city
+        
+        if (pendingWeather.isDone()) {  // Cached data can be shown straight away
+            checkPendingWeather();
+        } else {
+            currentWeather = fetcher.getSavedWeatherData(selectedCity.getName());   // Shows the last known weather in the meantime
+            updateDisplay();
+        }
     }
     
     /**
@@ -132,6 +213,9 @@ public class CurrentWeatherDisplay extends Actor {
             display.drawString("Nearest City:", 10, 15);
             display.setFont(NORMAL_FONT);
             display.drawString(selectedCity.getName(), 125, 15);
+            if (isLoading() && currentWeather != null) {
+                display.drawString("...", WIDTH - 25, 15);    // Shows that the saved data is being updated
+            }
             
             // Draws weather info for active keys
             int y = 40;
@@ -156,14 +240,19 @@ public class CurrentWeatherDisplay extends Actor {
      * @return          a human-readable String which holds some information from the API
      */
     private String getWeatherValue(String key) {
+        if (currentWeather == null) {   // The data has not arrived yet or could not be fetched
+            return isLoading() ? "Loading..." : "No data";
+        }
+        
+        // Numeric values are read and formatted by their WeatherMetric
+        WeatherMetric metric = WeatherMetric.fromName(key);
+        if (metric != null && metric.hasCurrentValue()) {
+            return metric.formatCurrent(currentWeather);
+        }
+        
         switch (key) {
             case "Timestamp":   return convertUnixTimeToString(currentWeather.getTimestamp(), true, true);
             case "Description": return currentWeather.getWeatherDescription();
-            case "Temperature": return currentWeather.getTemperature() + " °C";
-            case "Feels Like":  return currentWeather.getFeelsLike() + " °C";
-            case "Humidity":    return currentWeather.getHumidity() + "%";
-            case "Wind Speed":  return currentWeather.getWindSpeed() + " m/s";
-            case "Rain Volume": return currentWeather.getRainVolume() == 0.0 ? "No data" : currentWeather.getRainVolume() + "mm/h";
             case "Sunrise":     return convertUnixTimeToString(currentWeather.getSunrise(), false, true);
             case "Sunset":      return convertUnixTimeToString(currentWeather.getSunset(), false, true);
             
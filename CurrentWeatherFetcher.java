@@ -1,14 +1,28 @@
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.net.URLEncoder;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * The CurrentWeatherFetcher class retrieves current weather data from the OpenWeatherMap API's "current weather forecast" for a given city. 
  * The API returns a JSON response in the form of a JSONObject object, which gets processed and then encapsulated into objects of the class 
- * CurrentWeatherData.
+ * CurrentWeatherData. Requests are sent through a WeatherTransport, which is shared with the ForecastWeatherFetcher so connections to the
+ * API are reused. When the API sends an ETag or Last-Modified header with a response, the next request for that city asks the API to
+ * answer with status 304 if the weather has not changed, in which case the previous response is used again without being parsed. Many 
+ * cities can be fetched together with the API's "group" endpoint, which returns the weather for up to 20 cities in one response. The 
+ * group endpoint finds cities by their OpenWeatherMap ID, so the ID of each city is remembered from its first response, and cities 
+ * whose ID is not known yet are fetched individually, all at the same time on background threads.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -18,107 +32,480 @@ public class CurrentWeatherFetcher {
     private String country = "GB";
     private String units = "metric";
     
+    // Recent responses from the API
+    private static final int CACHE_SIZE = 100;
+    private static final long CACHE_TIME_TO_LIVE = 10 * 60 * 1000L;     // 10 minutes
+    private final WeatherCache<CurrentWeatherData> cache = new WeatherCache<>(CACHE_SIZE, CACHE_TIME_TO_LIVE);
+    
+    // Requests that are currently running, shared by every caller asking for the same city
+    private final SingleFlight<String, CurrentWeatherData> inFlight = new SingleFlight<>();
+    
+    // Responses saved from previous runs of the program
+    private final WeatherDiskStore diskStore = new WeatherDiskStore();
+    
+    // Sends the requests to the API
+    private final WeatherTransport transport;
+    
+    // The last response for each city whose response had an ETag or Last-Modified header, used for conditional requests
+    private final ConcurrentHashMap<String, ValidatedResponse> validatedResponses = new ConcurrentHashMap<>();
+    
+    // OpenWeatherMap IDs of the cities, learned from their responses and used by the group endpoint
+    private final ConcurrentHashMap<String, Integer> cityIDs = new ConcurrentHashMap<>();
+    public static final int GROUP_SIZE = 20;    // The largest number of cities the group endpoint accepts in one request
+    private static final int MAX_UNKNOWN_CITY_REQUESTS = 4;    // Cities with an unknown ID fetched at the same time by one batch
+    
+    // Number of responses stored so far, used by other classes to tell when the saved weather has changed
+    private final AtomicLong updateCount = new AtomicLong();
+    
     /**
-     * Fetches current weather data for the specified city using the OpenWeatherMap API.
+     * Constructor for objects of class CurrentWeatherFetcher using the shared WeatherTransport.
+     */
+    public CurrentWeatherFetcher() {
+        this(WeatherTransport.getShared());
+    }
+    
+    /**
+     * Constructor for objects of class CurrentWeatherFetcher.
+     * 
+     * @param   transport   the WeatherTransport used to send requests to the API
+     */
+    public CurrentWeatherFetcher(WeatherTransport transport) {
+        this.transport = transport;
+    }
+    
+    /**
+     * Fetches current weather data for the specified city on a background thread.
+     * The caller is not blocked while waiting for the API to respond. A cached response is returned as an already completed future.
+     * If the city is already being fetched, the future of that request is returned instead of a new request being sent.
      * 
      * @param   city    the name of the city for which current weather data is requested
-     * @return          a CurrentWeatherData object containing the retrieved weather information, or null if an error occurs
+     * @return          a CompletableFuture that is completed with the CurrentWeatherData object, or with null if an error occurs
+     */
+    public CompletableFuture<CurrentWeatherData> getWeatherDataAsync(String city) {
+        CurrentWeatherData cached = cache.get(getCacheKey(city));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return inFlight.submit(getCacheKey(city), () -> loadWeatherData(city), WeatherTaskExecutor.getExecutor());
+    }
+    
+    /**
+     * Returns current weather data for the specified city.
+     * A recent response is returned from the cache if there is one, otherwise the data is fetched from the OpenWeatherMap API.
+     * If the city is already being fetched by another thread, this thread waits for that request instead of sending its own.
+     * 
+     * @param   city    the name of the city for which current weather data is requested
+     * @return          a CurrentWeatherData object containing the weather information, or null if an error occurs
      */
     public CurrentWeatherData getWeatherData(String city) {
-        try {
-            // Connects to the API 
-            city  = city.replace(" ", "+");
-            URL url = new URL("https://api.openweathermap.org/data/2.5/weather?q=" + city + "," + country + "&appid=" + API_KEY + "&units=" + units);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-
-            // Reads the JSON response from the API
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+        CurrentWeatherData weatherData = cache.get(getCacheKey(city));
+        return weatherData != null ? weatherData : inFlight.execute(getCacheKey(city), () -> loadWeatherData(city));
+    }
+    
+    /**
+     * Returns current weather data for many cities, using as few requests to the API as possible.
+     * Cities with a recent response in the cache are not fetched again. Cities whose OpenWeatherMap ID is known are fetched in groups
+     * of 20 with the group endpoint. The remaining cities are fetched individually on background threads at the same time as the groups,
+     * which also remembers their IDs for the next batch. At most 4 of these are sent at the same time, which only limits a single batch,
+     * so callers fetching many cities should pass them in small batches and space out the batches as the WeatherPrefetcher does. This
+     * method must not be called from a thread of the WeatherTaskExecutor, since it waits for requests running on those threads, or from
+     * the thread of the Greenfoot world, since it reads the IDs of the cities from the disk.
+     * 
+     * @param   cities  the cities for which current weather data is requested
+     * @return          a Map from each city to its CurrentWeatherData object, in the order of the given cities
+     *                  Cities that could not be fetched are left out of the Map
+     */
+    public Map<City, CurrentWeatherData> getWeatherData(Collection<City> cities) {
+        Map<City, CurrentWeatherData> found = new HashMap<>();
+        Map<Integer, List<City>> citiesByID = new LinkedHashMap<>();    // More than one city can share an ID
+        List<City> unknownCities = new ArrayList<>();
+        
+        // Sorts the cities into cached cities, cities with a known ID and cities with an unknown ID
+        for (City city : cities) {
+            CurrentWeatherData cached = cache.get(getCacheKey(city.getName()));
+            if (cached != null) {
+                found.put(city, cached);
+                continue;
+            }
+            
+            Integer cityID = getCityID(city.getName());
+            if (cityID != null) {
+                citiesByID.computeIfAbsent(cityID, id -> new ArrayList<>()).add(city);
+            } else {
+                unknownCities.add(city);
+            }
+        }
+        
+        // Starts fetching the first cities with an unknown ID in parallel before the groups are sent
+        List<CompletableFuture<CurrentWeatherData>> unknownRequests = new ArrayList<>();
+        for (int i = 0; i < Math.min(MAX_UNKNOWN_CITY_REQUESTS, unknownCities.size()); i++) {
+            unknownRequests.add(getWeatherDataAsync(unknownCities.get(i).getName()));
+        }
+        
+        // Fetches the cities with a known ID in groups, and matches each response to its cities by ID
+        List<Integer> ids = new ArrayList<>(citiesByID.keySet());
+        for (int i = 0; i < ids.size(); i += GROUP_SIZE) {
+            for (CurrentWeatherData weatherData : fetchWeatherGroup(ids.subList(i, Math.min(i + GROUP_SIZE, ids.size())))) {
+                List<City> matchingCities = citiesByID.get(weatherData.getCityID());
+                if (matchingCities == null) {
+                    continue;
+                }
+                for (City city : matchingCities) {
+                    storeWeatherData(city.getName(), weatherData);
+                    found.put(city, weatherData);
+                }
+            }
+        }
+        
+        // Waits for the cities with an unknown ID, whose IDs have now been remembered, starting the next city as each one finishes
+        for (int i = 0; i < unknownCities.size(); i++) {
+            CurrentWeatherData weatherData = unknownRequests.get(i).handle((data, error) -> data).join();
+            if (i + MAX_UNKNOWN_CITY_REQUESTS < unknownCities.size()) {
+                unknownRequests.add(getWeatherDataAsync(unknownCities.get(i + MAX_UNKNOWN_CITY_REQUESTS).getName()));
+            }
+            if (weatherData != null) {
+                found.put(unknownCities.get(i), weatherData);
+            }
+        }
+        
+        // Returns the results in the order of the given cities
+        Map<City, CurrentWeatherData> results = new LinkedHashMap<>();
+        for (City city : cities) {
+            CurrentWeatherData weatherData = found.get(city);
+            if (weatherData != null) {
+                results.put(city, weatherData);
+            }
+        }
+        return results;
+    }
+    
+    /**
+     * Fetches current weather data for the specified city from the API even if a recent response is in the cache.
+     * A conditional request is sent if the API supports it, so an unchanged response is not downloaded or parsed again.
+     * Used to keep the weather of the selected city up to date.
+     * 
+     * @param   city    the name of the city for which current weather data is requested
+     * @return          a CurrentWeatherData object containing the weather information, or null if an error occurs
+     */
+    public CurrentWeatherData refreshWeatherData(String city) {
+        return inFlight.execute(getCacheKey(city), () -> loadWeatherData(city));
+    }
+    
+    /**
+     * Fetches current weather data for the specified city from the API and stores the response in the cache and on the disk.
+     * If the API answers that the weather has not changed, the previous response is only kept in the cache for longer. It is not saved
+     * again or counted as an update, since the disk and anything drawn from it already hold that response.
+     * 
+     * @param   city    the name of the city for which current weather data is requested
+     * @return          a CurrentWeatherData object containing the retrieved weather information, or null if an error occurs
+     */
+    private CurrentWeatherData loadWeatherData(String city) {
+        ValidatedResponse previous = validatedResponses.get(getCacheKey(city));
+        long start = PerformanceMonitor.start();
+        CurrentWeatherData weatherData = fetchWeatherData(city, previous);
+        PerformanceMonitor.record("CurrentFetcher.fetch", start);
+        
+        if (weatherData == null) {  // Errors are not cached so the next request tries again
+            return null;
+        }
+        if (previous != null && weatherData == previous.data) {    // Not Modified
+            cache.put(getCacheKey(city), weatherData);  // Restarts the time to live of the response
+        } else {
+            storeWeatherData(city, weatherData);
+        }
+        return weatherData;
+    }
+    
+    /**
+     * Stores a response for the specified city in the cache and on the disk, and remembers the OpenWeatherMap ID of the city.
+     * 
+     * @param   city            the name of the city
+     * @param   weatherData     the CurrentWeatherData object fetched for the city
+     */
+    private void storeWeatherData(String city, CurrentWeatherData weatherData) {
+        cache.put(getCacheKey(city), weatherData);
+        cityIDs.put(getCacheKey(city), weatherData.getCityID());
+        diskStore.saveCurrentWeather(city, weatherData);
+        updateCount.incrementAndGet();  // Counted after saving so the new response can be loaded from the disk straight away
+    }
+    
+    /**
+     * Returns whether or not the specified city can be fetched with the group endpoint.
+     * The saved response of the city may be read from the disk, so this should not be called from the thread of the Greenfoot world.
+     * 
+     * @param   city    the name of the city
+     * @return          true if the OpenWeatherMap ID of the city is known
+     */
+    public boolean hasCityID(String city) {
+        return getCityID(city) != null;
+    }
+    
+    /**
+     * Returns the OpenWeatherMap ID of the specified city if it is known.
+     * The ID is taken from a response fetched while the program has been running, or from the response saved on the disk, which is
+     * read on the calling thread the first time the ID of the city is needed.
+     * 
+     * @param   city    the name of the city
+     * @return          the ID of the city, or null if the city has never been fetched
+     */
+    private Integer getCityID(String city) {
+        Integer cityID = cityIDs.get(getCacheKey(city));
+        if (cityID == null) {
+            CurrentWeatherData saved = diskStore.loadCurrentWeather(city);
+            if (saved != null) {
+                cityID = saved.getCityID();
+                cityIDs.put(getCacheKey(city), cityID);
             }
-            reader.close();
+        }
+        return cityID;
+    }
+    
+    /**
+     * Returns the current weather data saved on the disk for the specified city, without contacting the API.
+     * The data may be out of date, so it should only be shown until newer data has been fetched.
+     * 
+     * @param   city    the name of the city
+     * @return          the last CurrentWeatherData object fetched for the city, or null if none has been saved
+     */
+    public CurrentWeatherData getSavedWeatherData(String city) {
+        return diskStore.loadCurrentWeather(city);
+    }
+    
+    /**
+     * Returns the number of responses that have been stored in the cache and on the disk since this fetcher was created.
+     * The number changes whenever the weather of any city has been fetched.
+     * 
+     * @return  the number of stored responses
+     */
+    public long getUpdateCount() {
+        return updateCount.get();
+    }
+    
+    /**
+     * Returns the cache holding recent responses from the API.
+     * 
+     * @return  the WeatherCache object used by this fetcher
+     */
+    public WeatherCache<CurrentWeatherData> getCache() {
+        return cache;
+    }
     
-            // Parses the JSON response
-            JSONObject currentWeatherJson = new JSONObject(response.toString());
+    /**
+     * Returns the key used to store the response for a city in the cache.
+     * 
+     * @param   city    the name of the city
+     * @return          a key made from the API endpoint and the city name
+     */
+    private String getCacheKey(String city) {
+        return "weather:" + city.trim().toLowerCase();
+    }
+    
+    /**
+     * Fetches current weather data for the specified city using the OpenWeatherMap API.
+     * 
+     * @param   city        the name of the city for which current weather data is requested
+     * @param   previous    the last response for the city with an ETag or Last-Modified header, or null if there is none
+     * @return              a CurrentWeatherData object containing the retrieved weather information, or null if an error occurs
+     *                      The data of the previous response is returned if the API answers that the weather has not changed
+     */
+    private CurrentWeatherData fetchWeatherData(String city, ValidatedResponse previous) {
+        try {
+            // Sends the request to the API
+            Map<String, String> parameters = new LinkedHashMap<>();
+            parameters.put("q", city + "," + country);
+            parameters.put("appid", API_KEY);
+            parameters.put("units", units);
             
-            // City
-            int cityID = currentWeatherJson.getInt("id");
-            String cityName = currentWeatherJson.getString("name");
+            // Asks the API to answer with status 304 if the weather has not changed since the last response
+            String cacheKey = getCacheKey(city);
+            Map<String, String> headers = new HashMap<>();
+            if (previous != null) {
+                if (previous.eTag != null) {
+                    headers.put("If-None-Match", previous.eTag);
+                }
+                if (previous.lastModified != null) {
+                    headers.put("If-Modified-Since", previous.lastModified);
+                }
+            }
             
-            // Coordinates
-            JSONObject coord = currentWeatherJson.getJSONObject("coord");
-            double latitude = coord.getDouble("lat");
-            double longitude = coord.getDouble("lon");
-
-            // Weather Conditions
-            JSONObject weather = currentWeatherJson.getJSONArray("weather").getJSONObject(0);
-            int weatherID = weather.getInt("id");
-            String weatherMain = weather.getString("main");
-            String weatherDescription = weather.getString("description");
-            String weatherIcon = weather.getString("icon");
+            try (WeatherResponse response = transport.get("weather", parameters, headers)) {
+                if (response.getStatusCode() == 304 && previous != null) {     // Not Modified
+                    return previous.data;
+                }
+                if (!response.isSuccessful()) {
+                    throw new IOException("Server returned HTTP response code: " + response.getStatusCode());
+                }
+                
+                long start = PerformanceMonitor.start();
+                CurrentWeatherData weatherData = parseWeatherData(response.getBody());
+                PerformanceMonitor.record("CurrentFetcher.parse", start);
+                
+                // Remembers the headers that identify this version of the response
+                String eTag = response.getHeader("ETag");
+                String lastModified = response.getHeader("Last-Modified");
+                if (eTag != null || lastModified != null) {
+                    validatedResponses.put(cacheKey, new ValidatedResponse(weatherData, eTag, lastModified));
+                } else {
+                    validatedResponses.remove(cacheKey);
+                }
+                return weatherData;
+            }
+        } catch (Exception e) {
+            System.out.println("Error fetching weather data: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Fetches current weather data for a group of cities in one request using the group endpoint of the OpenWeatherMap API.
+     * 
+     * @param   ids     the OpenWeatherMap IDs of at most 20 cities
+     * @return          a List of the CurrentWeatherData objects in the response, which is empty if an error occurs
+     */
+    private List<CurrentWeatherData> fetchWeatherGroup(List<Integer> ids) {
+        long start = PerformanceMonitor.start();
+        List<CurrentWeatherData> group = new ArrayList<>();
+        try {
+            // Sends the request to the API
+            StringJoiner idList = new StringJoiner(",");
+            for (int id : ids) {
+                idList.add(Integer.toString(id));
+            }
+            Map<String, String> parameters = new LinkedHashMap<>();
+            parameters.put("id", idList.toString());
+            parameters.put("appid", API_KEY);
+            parameters.put("units", units);
             
-            // Main Data
-            JSONObject main = currentWeatherJson.getJSONObject("main");
-            double temperature = main.getDouble("temp");
-            double feelsLike = main.getDouble("feels_like");
-            double tempMin = main.getDouble("temp_min");
-            double tempMax = main.getDouble("temp_max");
-            int pressure = main.getInt("pressure");
-            int humidity = main.getInt("humidity");
-            int seaLevelPressure = main.has("sea_level") ? main.getInt("sea_level") : -1;
-            int groundLevelPressure = main.has("grnd_level") ? main.getInt("grnd_level") : -1;
+            try (WeatherResponse response = transport.get("group", parameters)) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Server returned HTTP response code: " + response.getStatusCode());
+                }
+                
+                // The response holds a list with one current weather response for each city
+                JSONObject groupJson = new JSONObject(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8));
+                JSONArray list = groupJson.getJSONArray("list");
+                for (int i = 0; i < list.length(); i++) {
+                    group.add(parseWeatherJson(list.getJSONObject(i)));
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error fetching weather data for group: " + e.getMessage());
+        }
+        PerformanceMonitor.record("CurrentFetcher.fetchGroup", start);
+        return group;
+    }
+    
+    /**
+     * Parses a current weather response from the API.
+     * 
+     * @param   in  the stream containing the JSON response
+     * @return      a CurrentWeatherData object containing the weather information in the response
+     */
+    public CurrentWeatherData parseWeatherData(InputStream in) throws IOException {
+        // Reads and parses the JSON response
+        return parseWeatherJson(new JSONObject(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+    }
+    
+    /**
+     * Creates a CurrentWeatherData object from a current weather response that has already been read into a JSONObject.
+     * Responses for a single city and each item in a response from the group endpoint are both accepted.
+     * 
+     * @param   currentWeatherJson  the JSONObject holding the weather of one city
+     * @return                      a CurrentWeatherData object containing the weather information in the response
+     */
+    private CurrentWeatherData parseWeatherJson(JSONObject currentWeatherJson) {
+        // City
+        int cityID = currentWeatherJson.getInt("id");
+        String cityName = currentWeatherJson.getString("name");
+        
+        // Coordinates
+        JSONObject coord = currentWeatherJson.getJSONObject("coord");
+        double latitude = coord.getDouble("lat");
+        double longitude = coord.getDouble("lon");
 
-            //Visibility
-            int visibility = currentWeatherJson.has("visibility") ? currentWeatherJson.getInt("visibility") : -1;
-            
-            // Wind
-            JSONObject wind = currentWeatherJson.getJSONObject("wind");
-            double windSpeed = wind.getDouble("speed");
-            int windDirection = wind.getInt("deg");
-            double windGust = wind.has("gust") ? wind.getDouble("gust") : -1;
-            
-            // Clouds
-            int cloudiness = currentWeatherJson.getJSONObject("clouds").getInt("all");
-            
-            // Rain
-            double rainVolume = currentWeatherJson.has("rain") ? currentWeatherJson.getJSONObject("rain").getDouble("1h") : 0.0;
-            
-            // Snow
-            double snowVolume = currentWeatherJson.has("snow") ? currentWeatherJson.getJSONObject("snow").getDouble("1h") : 0.0;
+        // Weather Conditions
+        JSONObject weather = currentWeatherJson.getJSONArray("weather").getJSONObject(0);
+        int weatherID = weather.getInt("id");
+        String weatherMain = weather.getString("main");
+        String weatherDescription = weather.getString("description");
+        String weatherIcon = weather.getString("icon");
+        
+        // Main Data
+        JSONObject main = currentWeatherJson.getJSONObject("main");
+        double temperature = main.getDouble("temp");
+        double feelsLike = main.getDouble("feels_like");
+        double tempMin = main.getDouble("temp_min");
+        double tempMax = main.getDouble("temp_max");
+        int pressure = main.getInt("pressure");
+        int humidity = main.getInt("humidity");
+        int seaLevelPressure = main.has("sea_level") ? main.getInt("sea_level") : -1;
+        int groundLevelPressure = main.has("grnd_level") ? main.getInt("grnd_level") : -1;
 
-            // Time of Data
-            long timestamp = currentWeatherJson.getLong("dt");
-            
-            // System
-            JSONObject sys = currentWeatherJson.getJSONObject("sys");
-            String country = sys.getString("country");
-            long sunrise = sys.getLong("sunrise");
-            long sunset = sys.getLong("sunset");
-            
-            // Timezone
-            int timezoneShift = currentWeatherJson.getInt("timezone");
-            
-            // Internal Parameters
-            String base = currentWeatherJson.getString("base");
-            int systemType = sys.has("type") ? sys.getInt("type") : -1;
-            int systemID = sys.has("id") ? sys.getInt("id") : -1;
-            String message = sys.has("message") ? sys.getString("message") : "No message found";
-            int statusCode = currentWeatherJson.getInt("cod");
-            
-            // Creates a CurrentWeatherData class containing all the information from the API response
-            return new CurrentWeatherData(
-                    cityID, cityName, latitude, longitude, weatherID, weatherMain, weatherDescription, weatherIcon,
-                    temperature, feelsLike, tempMin, tempMax, pressure, humidity, seaLevelPressure, groundLevelPressure, 
-                    visibility, windSpeed, windDirection, windGust, cloudiness, rainVolume, snowVolume, timestamp,
-                    country, sunrise, sunset, timezoneShift, 
-                    base, systemType, systemID, message, statusCode);
+        //Visibility
+        int visibility = currentWeatherJson.has("visibility") ? currentWeatherJson.getInt("visibility") : -1;
+        
+        // Wind
+        JSONObject wind = currentWeatherJson.getJSONObject("wind");
+        double windSpeed = wind.getDouble("speed");
+        int windDirection = wind.getInt("deg");
+        double windGust = wind.has("gust") ? wind.getDouble("gust") : -1;
+        
+        // Clouds
+        int cloudiness = currentWeatherJson.getJSONObject("clouds").getInt("all");
+        
+        // Rain
+        double rainVolume = currentWeatherJson.has("rain") ? currentWeatherJson.getJSONObject("rain").getDouble("1h") : 0.0;
+        
+        // Snow
+        double snowVolume = currentWeatherJson.has("snow") ? currentWeatherJson.getJSONObject("snow").getDouble("1h") : 0.0;
 
-        } catch (Exception e) {
-            System.out.println("Error fetching weather data: " + e.getMessage());
-            return null;
+        // Time of Data
+        long timestamp = currentWeatherJson.getLong("dt");
+        
+        // System
+        JSONObject sys = currentWeatherJson.getJSONObject("sys");
+        String country = sys.getString("country");
+        long sunrise = sys.getLong("sunrise");
+        long sunset = sys.getLong("sunset");
+        
+        // Timezone (held in "sys" in responses from the group endpoint)
+        int timezoneShift = currentWeatherJson.has("timezone") ? currentWeatherJson.getInt("timezone") : sys.optInt("timezone", 0);
+        
+        // Internal Parameters (responses from the group endpoint do not have a base or status code for each city)
+        String base = currentWeatherJson.has("base") ? currentWeatherJson.getString("base") : "No base found";
+        int systemType = sys.has("type") ? sys.getInt("type") : -1;
+        int systemID = sys.has("id") ? sys.getInt("id") : -1;
+        String message = sys.has("message") ? sys.getString("message") : "No message found";
+        int statusCode = currentWeatherJson.has("cod") ? currentWeatherJson.getInt("cod") : 200;
+        
+        // Creates a CurrentWeatherData class containing all the information from the API response
+        return new CurrentWeatherData(
+                cityID, cityName, latitude, longitude, weatherID, weatherMain, weatherDescription, weatherIcon,
+                temperature, feelsLike, tempMin, tempMax, pressure, humidity, seaLevelPressure, groundLevelPressure, 
+                visibility, windSpeed, windDirection, windGust, cloudiness, rainVolume, snowVolume, timestamp,
+                country, sunrise, sunset, timezoneShift, 
+                base, systemType, systemID, message, statusCode);
+    }
+    
+    /**
+     * The ValidatedResponse class holds a response together with the headers that identify its version.
+     */
+    private static class ValidatedResponse {
+        private final CurrentWeatherData data;
+        private final String eTag;
+        private final String lastModified;
+        
+        /**
+         * Constructor for objects of class ValidatedResponse.
+         * 
+         * @param   data            the CurrentWeatherData object parsed from the response
+         * @param   eTag            the value of the ETag header, or null if there was none
+         * @param   lastModified    the value of the Last-Modified header, or null if there was none
+         */
+        ValidatedResponse(CurrentWeatherData data, String eTag, String lastModified) {
+            this.data = data;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,97 @@
+import greenfoot.*;
+import java.util.List;
+
+/**
+ * The DebugOverlay class shows the measurements recorded by the PerformanceMonitor on top of a world, so that the time taken by each
+ * frame and by each of the slow parts of the program can be watched while the program is being used. The overlay is hidden until it is
+ * toggled with the F3 key by the world it belongs to. Drawing the table of measurements takes time itself, so it is only redrawn every
+ * few frames while it is shown, and nothing is drawn at all while it is hidden.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class DebugOverlay extends Actor {
+    // Appearance of the table
+    private static final Font FONT = new Font("Monospaced", false, false, 10);
+    private static final Color TEXT_COLOR = Color.WHITE;
+    private static final Color BACKGROUND_COLOR = new Color(0, 0, 0, 180);     // See-through black
+    private static final int LINE_HEIGHT = 12;
+    private static final int PADDING = 4;
+
+    // Number of frames between redraws of the table
+    private static final int REFRESH_FRAMES = 15;
+
+    private final int width;
+    private int left, top;      // Position of the top left corner of the overlay in the world
+    private boolean isShown = false;
+    private int framesUntilRefresh = 0;
+
+    /**
+     * Constructor for objects of class DebugOverlay.
+     * The overlay is hidden until toggle() is called.
+     *
+     * @param   width   the width of the overlay in pixels
+     */
+    public DebugOverlay(int width) {
+        this.width = width;
+        setImage(new GreenfootImage(1, 1));     // Blank image while hidden
+    }
+
+    /**
+     * Uses the position the overlay was added at as its top left corner.
+     *
+     * @param   world   the world the overlay was added to
+     */
+    @Override
+    protected void addedToWorld(World world) {
+        left = getX();
+        top = getY();
+    }
+
+    /**
+     * Shows the overlay if it is hidden, or hides it if it is shown.
+     */
+    public void toggle() {
+        isShown = !isShown;
+        framesUntilRefresh = 0;     // Draws the table straight away when shown
+        if (!isShown) {
+            setImage(new GreenfootImage(1, 1));
+        }
+    }
+
+    /**
+     * Returns whether or not the overlay is being shown.
+     *
+     * @return  true if the overlay is shown
+     */
+    public boolean isShown() {
+        return isShown;
+    }
+
+    /**
+     * Redraws the table of measurements every few frames while the overlay is shown.
+     */
+    public void act() {
+        if (!isShown || framesUntilRefresh-- > 0) {
+            return;
+        }
+        framesUntilRefresh = REFRESH_FRAMES;
+
+        List<String> lines = PerformanceMonitor.getReport();
+        GreenfootImage image = new GreenfootImage(width, lines.size() * LINE_HEIGHT + PADDING * 2);
+        image.setColor(BACKGROUND_COLOR);
+        image.fill();
+        image.setFont(FONT);
+        image.setColor(TEXT_COLOR);
+
+        int y = PADDING + LINE_HEIGHT - 2;
+        for (String line : lines) {
+            image.drawString(line, PADDING, y);
+            y += LINE_HEIGHT;
+        }
+
+        // Keeps the top left corner of the overlay in the same place as its size changes
+        setImage(image);
+        setLocation(left + image.getWidth() / 2, top + image.getHeight() / 2);
+    }
+}
@@ -4,9 +4,9 @@ import java.util.Arrays;
 
 /**
  * The Dropdown class acts as a dropdown tool allowing the user to click on it to change the data being displayed on the line graph.
- * This class works with the DropdownOption class to provide all the necessary functionality to switch between temperature data and
- * feels like data. This class also extends the Button class which gives it the same clicking and highlighting functionality as the
- * Button subclasses.
+ * This class works with the DropdownOption class to provide all the necessary functionality to switch between the weather metrics in the
+ * WeatherMetric enum, such as temperature, pressure and wind speed. This class also extends the Button class which gives it the same
+ * clicking and highlighting functionality as the Button subclasses.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -14,8 +14,8 @@ import java.util.Arrays;
 public class Dropdown extends Button {
     private GraphScreen graphScreen;
     
-    // Options for DropdownOption
-    private ArrayList<String> graphTypes = new ArrayList<>(Arrays.asList("Temperature", "Feels Like"));
+    // Options for DropdownOption, which are every metric found in forecasts
+    private ArrayList<WeatherMetric> graphTypes = new ArrayList<>(Arrays.asList(WeatherMetric.values()));
     
     // Dropdown state
     private boolean isOpen = false;
@@ -36,9 +36,9 @@ public class Dropdown extends Button {
      * 
      * @param   type    the new weather metric type
      */
-    public void selectOption(String type) {
+    public void selectOption(WeatherMetric type) {
         graphScreen.setGraphType(type);
-        buttonText = "Graph: " + type; // Updates the text of the main dropdown tool
+        buttonText = "Graph: " + type.getName(); // Updates the text of the main dropdown tool
 
         Color currentColor = isHovered ? HOVER_COLOR : INACTIVE_COLOR;  // Chooses the correct background color
         updateButtonVisuals(currentColor);  // Forces the dropdown to redraw with the new text
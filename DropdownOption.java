@@ -12,28 +12,28 @@ public class DropdownOption extends Button {
     // The main dropdown
     private Dropdown dropdown;
     
-    // The label of the option 
-    private String label;
+    // The weather metric of the option 
+    private WeatherMetric metric;
 
     /**
      * Constructor for objects of class DropdownOption.
      * 
      * @param   dropdown    the main Dropdown object
-     * @param   label       the name of the DropdownOption
+     * @param   metric      the weather metric selected by the DropdownOption, whose name is used as the label
      * @param   width       the width of the object
      * @param   height      the height of the object 
      */
-    public DropdownOption(Dropdown dropdown, String label, int width, int height) {
-        super(width, height, label);    // Superclass constructor
+    public DropdownOption(Dropdown dropdown, WeatherMetric metric, int width, int height) {
+        super(width, height, metric.getName());    // Superclass constructor
         this.dropdown = dropdown;
-        this.label = label;
+        this.metric = metric;
     }
 
     /**
-     * Selects the corresponding data type based on the options's label.
+     * Selects the weather metric of the option.
      */
     @Override
     protected void onClick() {
-        dropdown.selectOption(label);
+        dropdown.selectOption(metric);
     }
 }
\ No newline at end of file
@@ -0,0 +1,198 @@
+/**
+ * The ForecastAggregates class holds the summary values of every weather metric of a forecast, worked out once when the forecast is
+ * created so that the summary button, the line graph and any other class can look them up straight away instead of scanning the forecast
+ * again. For each metric and each day of 8 segments it stores the minimum and maximum values, the segments they occur in, the mean and the
+ * standard deviation, all found in a single pass over the values of the day. The smallest and largest values across the whole forecast
+ * are also stored for scaling graphs. Readings that the metric marks as missing, such as a gust the API left out, are skipped. The values
+ * are stored in arrays indexed by the position of each WeatherMetric, so looking one up takes no searching at all.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class ForecastAggregates {
+    // Number of 3-hour segments in each day
+    public static final int SEGMENTS_PER_DAY = 8;
+
+    // Metrics that are summarised, in the order of the arrays below
+    private static final WeatherMetric[] METRICS = WeatherMetric.values();
+
+    private final int dayCount;
+
+    // Summary values of each day, stored as [metric][day]
+    private final double[][] mins;
+    private final double[][] maxes;
+    private final int[][] minIndexes;   // Position of the first segment of the forecast holding the minimum
+    private final int[][] maxIndexes;   // Position of the first segment of the forecast holding the maximum
+    private final double[][] means;
+    private final double[][] standardDeviations;
+
+    // Smallest and largest value of each metric across the whole forecast
+    private final double[] overallMins;
+    private final double[] overallMaxes;
+
+    /**
+     * Constructor for objects of class ForecastAggregates.
+     * A final day with fewer than 8 segments is summarised from the segments it has. A day with no readings of a metric is summarised
+     * as NaN.
+     *
+     * @param   forecasts   the ForecastColumns object holding every segment of the forecast
+     */
+    public ForecastAggregates(ForecastColumns forecasts) {
+        int size = forecasts.size();
+        dayCount = (size + SEGMENTS_PER_DAY - 1) / SEGMENTS_PER_DAY;
+
+        mins = new double[METRICS.length][dayCount];
+        maxes = new double[METRICS.length][dayCount];
+        minIndexes = new int[METRICS.length][dayCount];
+        maxIndexes = new int[METRICS.length][dayCount];
+        means = new double[METRICS.length][dayCount];
+        standardDeviations = new double[METRICS.length][dayCount];
+        overallMins = new double[METRICS.length];
+        overallMaxes = new double[METRICS.length];
+
+        for (int m = 0; m < METRICS.length; m++) {
+            WeatherMetric metric = METRICS[m];
+            double[] values = metric.getForecastValues(forecasts);
+            overallMins[m] = Double.POSITIVE_INFINITY;
+            overallMaxes[m] = Double.NEGATIVE_INFINITY;
+
+            for (int day = 0; day < dayCount; day++) {
+                int start = day * SEGMENTS_PER_DAY;
+                int end = Math.min(start + SEGMENTS_PER_DAY, size);
+
+                // Keeps a running mean and sum of squared differences so the standard deviation is found in the same pass
+                double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+                int minIndex = start, maxIndex = start;
+                double mean = 0, squaredDifferences = 0;
+                int count = 0;
+                for (int i = start; i < end; i++) {
+                    double value = values[i];
+                    if (metric.isMissing(value)) {
+                        continue;
+                    }
+                    count++;
+                    if (value < min) {
+                        min = value;
+                        minIndex = i;
+                    }
+                    if (value > max) {
+                        max = value;
+                        maxIndex = i;
+                    }
+                    double difference = value - mean;
+                    mean += difference / count;
+                    squaredDifferences += difference * (value - mean);
+                }
+
+                minIndexes[m][day] = minIndex;
+                maxIndexes[m][day] = maxIndex;
+                if (count == 0) {   // Every reading of the day is missing
+                    mins[m][day] = maxes[m][day] = means[m][day] = standardDeviations[m][day] = Double.NaN;
+                    continue;
+                }
+
+                mins[m][day] = min;
+                maxes[m][day] = max;
+                means[m][day] = mean;
+                standardDeviations[m][day] = Math.sqrt(squaredDifferences / count);
+                overallMins[m] = Math.min(overallMins[m], min);
+                overallMaxes[m] = Math.max(overallMaxes[m], max);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of days that have been summarised.
+     *
+     * @return  the number of days, which is 5 for a full forecast
+     */
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * Returns the minimum value of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the minimum value, or NaN if every reading of the day is missing
+     */
+    public double getMin(WeatherMetric metric, int day) {
+        return mins[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the maximum value of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the maximum value, or NaN if every reading of the day is missing
+     */
+    public double getMax(WeatherMetric metric, int day) {
+        return maxes[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the position in the forecast of the first segment holding the minimum value of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the index of the segment in the ForecastColumns object
+     */
+    public int getMinIndex(WeatherMetric metric, int day) {
+        return minIndexes[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the position in the forecast of the first segment holding the maximum value of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the index of the segment in the ForecastColumns object
+     */
+    public int getMaxIndex(WeatherMetric metric, int day) {
+        return maxIndexes[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the mean value of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the mean value, or NaN if every reading of the day is missing
+     */
+    public double getMean(WeatherMetric metric, int day) {
+        return means[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the standard deviation of the values of a metric during a day.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @param   day     the day index, from 0
+     * @return          the population standard deviation, or NaN if every reading of the day is missing
+     */
+    public double getStandardDeviation(WeatherMetric metric, int day) {
+        return standardDeviations[metric.ordinal()][day];
+    }
+
+    /**
+     * Returns the smallest value of a metric across the whole forecast.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @return          the smallest value, or positive infinity if the forecast has no readings of the metric
+     */
+    public double getOverallMin(WeatherMetric metric) {
+        return overallMins[metric.ordinal()];
+    }
+
+    /**
+     * Returns the largest value of a metric across the whole forecast.
+     *
+     * @param   metric  the WeatherMetric to be looked up
+     * @return          the largest value, or negative infinity if the forecast has no readings of the metric
+     */
+    public double getOverallMax(WeatherMetric metric) {
+        return overallMaxes[metric.ordinal()];
+    }
+}
@@ -0,0 +1,275 @@
+import java.util.Arrays;
+
+/**
+ * The ForecastColumns class stores every 3-hour segment of a forecast in columns, where each field of the forecast is held in its own
+ * primitive array instead of in a separate object for each segment. The value of a field for one segment is found at the index of that
+ * segment in the array for the field. Every weather measurement is stored as a double so that graphs and summaries can scan a single
+ * contiguous array, and the timestamps are stored in an array of longs. Text fields that repeat across segments, such as the weather
+ * description, share a single String for each distinct value. Segments are added one at a time while a response is parsed, and the arrays
+ * grow as needed. The get methods for whole columns return the arrays stored by this object rather than copies, so that the graphs and
+ * summaries can scan a column without copying it. These arrays are read-only: nothing outside this class may write to them, since the
+ * same forecast is shared by the caches, the graphs and the summaries. Only the first size() values of each array are valid.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class ForecastColumns {
+    // Number of segments stored
+    private int size = 0;
+
+    // Time of Data
+    private long[] timestamps;
+    private String[] timestampStrings;
+
+    // Main Data
+    private double[] temperatures;
+    private double[] feelsLikes;
+    private double[] tempMins;
+    private double[] tempMaxes;
+    private double[] pressures;
+    private double[] seaLevelPressures;
+    private double[] groundLevelPressures;
+    private double[] humidities;
+    private double[] tempKfs;  // Internal parameter
+
+    // Weather Conditions
+    private int[] weatherIDs;
+    private String[] weatherMains;
+    private String[] weatherDescriptions;
+    private String[] weatherIcons;
+
+    // Clouds
+    private double[] cloudiness;
+
+    // Wind
+    private double[] windSpeeds;
+    private double[] windDirections;
+    private double[] windGusts;
+
+    // Visibility
+    private double[] visibilities;
+
+    // Probability of Precipitation
+    private double[] precipitationProbs;
+
+    // Rain
+    private double[] rainVolumes;
+
+    // Snow
+    private double[] snowVolumes;
+
+    // Part of Day
+    private String[] partsOfDay;
+
+    /**
+     * Constructor for objects of class ForecastColumns with space for the 40 segments of a 5-day forecast.
+     */
+    public ForecastColumns() {
+        this(40);
+    }
+
+    /**
+     * Constructor for objects of class ForecastColumns.
+     *
+     * @param   capacity    the number of segments that can be added before the arrays need to grow
+     */
+    public ForecastColumns(int capacity) {
+        resize(Math.max(1, capacity));
+    }
+
+    /**
+     * Adds one 3-hour segment of forecast data to the end of every column.
+     * Every parameter stores forecast weather data from the OpenWeatherMap API.
+     */
+    public void add(
+            long timestamp, String timestampString, double temperature, double feelsLike, double tempMin, double tempMax,
+            int pressure, int seaLevelPressure, int groundLevelPressure, int humidity, double tempKf,
+            int weatherID, String weatherMain, String weatherDescription, String weatherIcon, int cloudiness,
+            double windSpeed, int windDirection, double windGust, int visibility, double precipitationProb,
+            double rainVolume, double snowVolume, String partOfDay) {
+        if (size == timestamps.length) {
+            resize(size * 2);
+        }
+
+        int i = size++;
+        // Time of Data
+        timestamps[i] = timestamp;
+        timestampStrings[i] = timestampString;
+        // Main Data
+        temperatures[i] = temperature;
+        feelsLikes[i] = feelsLike;
+        tempMins[i] = tempMin;
+        tempMaxes[i] = tempMax;
+        pressures[i] = pressure;
+        seaLevelPressures[i] = seaLevelPressure;
+        groundLevelPressures[i] = groundLevelPressure;
+        humidities[i] = humidity;
+        tempKfs[i] = tempKf;
+        // Weather Conditions
+        weatherIDs[i] = weatherID;
+        weatherMains[i] = share(weatherMain);
+        weatherDescriptions[i] = share(weatherDescription);
+        weatherIcons[i] = share(weatherIcon);
+        // Clouds
+        this.cloudiness[i] = cloudiness;
+        // Wind
+        windSpeeds[i] = windSpeed;
+        windDirections[i] = windDirection;
+        windGusts[i] = windGust;
+        // Visibility
+        visibilities[i] = visibility;
+        // Probability of Precipitation
+        precipitationProbs[i] = precipitationProb;
+        // Rain
+        rainVolumes[i] = rainVolume;
+        // Snow
+        snowVolumes[i] = snowVolume;
+        // Part of Day
+        partsOfDay[i] = share(partOfDay);
+    }
+
+    /**
+     * Shrinks every column to the number of segments stored so no memory is wasted once parsing has finished.
+     */
+    public void trimToSize() {
+        if (size > 0 && size < timestamps.length) {
+            resize(size);
+        }
+    }
+
+    /**
+     * Returns the number of segments stored.
+     *
+     * @return  the number of 3-hour segments
+     */
+    public int size() {
+        return size;
+    }
+
+    // Get methods for the value of every field in one segment
+    // Time of Data
+    public long getTimestamp(int i) { return timestamps[i]; }
+    public String getTimestampString(int i) { return timestampStrings[i]; }
+    // Main Data
+    public double getTemperature(int i) { return temperatures[i]; }
+    public double getFeelsLike(int i) { return feelsLikes[i]; }
+    public double getTempMin(int i) { return tempMins[i]; }
+    public double getTempMax(int i) { return tempMaxes[i]; }
+    public int getPressure(int i) { return (int) pressures[i]; }
+    public int getSeaLevelPressure(int i) { return (int) seaLevelPressures[i]; }
+    public int getGroundLevelPressure(int i) { return (int) groundLevelPressures[i]; }
+    public int getHumidity(int i) { return (int) humidities[i]; }
+    public double getTempKf(int i) { return tempKfs[i]; }
+    // Weather Conditions
+    public int getWeatherID(int i) { return weatherIDs[i]; }
+    public String getWeatherMain(int i) { return weatherMains[i]; }
+    public String getWeatherDescription(int i) { return weatherDescriptions[i]; }
+    public String getWeatherIcon(int i) { return weatherIcons[i]; }
+    // Clouds
+    public int getCloudiness(int i) { return (int) cloudiness[i]; }
+    // Wind
+    public double getWindSpeed(int i) { return windSpeeds[i]; }
+    public int getWindDirection(int i) { return (int) windDirections[i]; }
+    public double getWindGust(int i) { return windGusts[i]; }
+    // Visibility
+    public int getVisibility(int i) { return (int) visibilities[i]; }
+    // Probability of Precipitation
+    public double getPrecipitationProb(int i) { return precipitationProbs[i]; }
+    // Rain
+    public double getRainVolume(int i) { return rainVolumes[i]; }
+    // Snow
+    public double getSnowVolume(int i) { return snowVolumes[i]; }
+    // Part of Day
+    public String getPartOfDay(int i) { return partsOfDay[i]; }
+
+    // Get methods for whole columns, used to scan a field across many segments
+    // Read-only: the returned arrays are the ones stored by this object, and only the first size() elements are valid
+    public long[] getTimestamps() { return timestamps; }
+    public double[] getTemperatures() { return temperatures; }
+    public double[] getFeelsLikes() { return feelsLikes; }
+    public double[] getTempMins() { return tempMins; }
+    public double[] getTempMaxes() { return tempMaxes; }
+    public double[] getPressures() { return pressures; }
+    public double[] getHumidities() { return humidities; }
+    public double[] getCloudiness() { return cloudiness; }
+    public double[] getWindSpeeds() { return windSpeeds; }
+    public double[] getWindGusts() { return windGusts; }
+    public double[] getVisibilities() { return visibilities; }
+    public double[] getPrecipitationProbs() { return precipitationProbs; }
+    public double[] getRainVolumes() { return rainVolumes; }
+    public double[] getSnowVolumes() { return snowVolumes; }
+
+    /**
+     * Changes the length of every column, keeping the segments already stored.
+     *
+     * @param   capacity    the new length of the columns
+     */
+    private void resize(int capacity) {
+        // Time of Data
+        timestamps = timestamps == null ? new long[capacity] : Arrays.copyOf(timestamps, capacity);
+        timestampStrings = resize(timestampStrings, capacity);
+        // Main Data
+        temperatures = resize(temperatures, capacity);
+        feelsLikes = resize(feelsLikes, capacity);
+        tempMins = resize(tempMins, capacity);
+        tempMaxes = resize(tempMaxes, capacity);
+        pressures = resize(pressures, capacity);
+        seaLevelPressures = resize(seaLevelPressures, capacity);
+        groundLevelPressures = resize(groundLevelPressures, capacity);
+        humidities = resize(humidities, capacity);
+        tempKfs = resize(tempKfs, capacity);
+        // Weather Conditions
+        weatherIDs = weatherIDs == null ? new int[capacity] : Arrays.copyOf(weatherIDs, capacity);
+        weatherMains = resize(weatherMains, capacity);
+        weatherDescriptions = resize(weatherDescriptions, capacity);
+        weatherIcons = resize(weatherIcons, capacity);
+        // Clouds
+        cloudiness = resize(cloudiness, capacity);
+        // Wind
+        windSpeeds = resize(windSpeeds, capacity);
+        windDirections = resize(windDirections, capacity);
+        windGusts = resize(windGusts, capacity);
+        // Visibility
+        visibilities = resize(visibilities, capacity);
+        // Probability of Precipitation
+        precipitationProbs = resize(precipitationProbs, capacity);
+        // Rain
+        rainVolumes = resize(rainVolumes, capacity);
+        // Snow
+        snowVolumes = resize(snowVolumes, capacity);
+        // Part of Day
+        partsOfDay = resize(partsOfDay, capacity);
+    }
+
+    /**
+     * Returns a copy of a column with a new length, or a new empty column if the column does not exist yet.
+     *
+     * @param   column      the column to be copied
+     * @param   capacity    the new length of the column
+     * @return              the resized column
+     */
+    private static double[] resize(double[] column, int capacity) {
+        return column == null ? new double[capacity] : Arrays.copyOf(column, capacity);
+    }
+
+    /**
+     * Returns a copy of a column with a new length, or a new empty column if the column does not exist yet.
+     *
+     * @param   column      the column to be copied
+     * @param   capacity    the new length of the column
+     * @return              the resized column
+     */
+    private static String[] resize(String[] column, int capacity) {
+        return column == null ? new String[capacity] : Arrays.copyOf(column, capacity);
+    }
+
+    /**
+     * Returns a shared copy of a text value so that segments with the same text do not each hold their own String.
+     *
+     * @param   value   the text value
+     * @return          the shared String with the same characters, or null if the value is null
+     */
+    private static String share(String value) {
+        return value == null ? null : value.intern();
+    }
+}
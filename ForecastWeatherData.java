@@ -1,9 +1,14 @@
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * The ForecastWeatherData class stores information on the city for which forecast data is requested. Whenever the ForecastWeatherFetcher 
  * parses through an API response, the compiled data is encapsulated into objects of this class. The data held in ForecastWeatherData 
- * objects can be accessed via get methods for each field. The data in this class is obtained from the OpenWeatherMap API.
+ * objects can be accessed via get methods for each field. The 3-hour segments of the forecast are stored in a ForecastColumns object, 
+ * which keeps each field in its own primitive array so that a forecast takes far less memory than a list of separate objects and a 
+ * single field can be scanned quickly across every segment. The minimum, maximum, mean and standard deviation of every metric on each
+ * day are worked out once when the object is created and kept in a ForecastAggregates object, so summaries and graphs can look them up
+ * without scanning the forecast again. The data in this class is obtained from the OpenWeatherMap API.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -21,7 +26,8 @@ public class ForecastWeatherData {
     private long sunset;
     
     // Forecast List
-    private ArrayList<ThreeHourForecast> forecasts;
+    private ForecastColumns forecasts;
+    private ForecastAggregates aggregates;
     
     // Number of Forecasts
     private int count;
@@ -36,7 +42,7 @@ public class ForecastWeatherData {
      */
     public ForecastWeatherData(
             int cityID, String cityName, double latitude, double longitude, String country, int population,
-            int timezoneShift, long sunrise, long sunset, ArrayList<ThreeHourForecast> forecasts, 
+            int timezoneShift, long sunrise, long sunset, ForecastColumns forecasts, 
             int count, int statusCode, int message) {
         // City Information
         this.cityID = cityID;
@@ -50,12 +56,47 @@ public class ForecastWeatherData {
         this.sunset = sunset;
         // Forecast List
         this.forecasts = forecasts;
+        this.forecasts.trimToSize();    // Parsing has finished so the spare space in the columns is no longer needed
+        this.aggregates = new ForecastAggregates(forecasts);
         // Number of Forecasts
         this.count = count;
         // Internal Parameters
         this.statusCode = statusCode;
         this.message = message;
     }
+
+    /**
+     * Constructor for objects of class ForecastWeatherData from a list of separate 3-hour segments.
+     * The segments are copied into a ForecastColumns object.
+     * 
+     * @deprecated  Forecasts are stored in a ForecastColumns object, which should be passed to the other constructor instead.
+     */
+    @Deprecated
+    public ForecastWeatherData(
+            int cityID, String cityName, double latitude, double longitude, String country, int population,
+            int timezoneShift, long sunrise, long sunset, ArrayList<ThreeHourForecast> forecasts, 
+            int count, int statusCode, int message) {
+        this(cityID, cityName, latitude, longitude, country, population, timezoneShift, sunrise, sunset, toColumns(forecasts),
+             count, statusCode, message);
+    }
+
+    /**
+     * Copies a list of separate 3-hour segments into columns.
+     * 
+     * @param   forecasts   the segments in time order
+     * @return              a ForecastColumns object holding every segment
+     */
+    private static ForecastColumns toColumns(List<ThreeHourForecast> forecasts) {
+        ForecastColumns columns = new ForecastColumns(forecasts.size());
+        for (ThreeHourForecast f : forecasts) {
+            columns.add(f.getTimestamp(), f.getTimestampString(), f.getTemperature(), f.getFeelsLike(), f.getTempMin(), f.getTempMax(),
+                        f.getPressure(), f.getSeaLevelPressure(), f.getGroundLevelPressure(), f.getHumidity(), f.getTempKf(),
+                        f.getWeatherID(), f.getWeatherMain(), f.getWeatherDescription(), f.getWeatherIcon(), f.getCloudiness(),
+                        f.getWindSpeed(), f.getWindDirection(), f.getWindGust(), f.getVisibility(), f.getPrecipitationProb(),
+                        f.getRainVolume(), f.getSnowVolume(), f.getPartOfDay());
+        }
+        return columns;
+    }
     
     // Get methods for every field
     // City Information
@@ -69,10 +110,28 @@ public class ForecastWeatherData {
     public long getSunrise() { return sunrise; }
     public long getSunset() { return sunset; }
     // Forecast List
-    public ArrayList<ThreeHourForecast> getForecasts() { return forecasts; }
+    public ForecastColumns getForecastColumns() { return forecasts; }
+    public ForecastAggregates getAggregates() { return aggregates; }
+    public ThreeHourForecast getForecast(int index) { return new ThreeHourForecast(forecasts, index); }
     // Number of Forecasts
     public int getCount() { return count; }
     // Internal Parameters
     public int getStatusCode() { return statusCode; }
     public int getMessage() { return message; }
+
+    /**
+     * Returns every 3-hour segment of the forecast as a list of ThreeHourForecast objects.
+     * The list and its objects are created on each call. Nothing in the program uses this method any more.
+     * 
+     * @return  an ArrayList containing a ThreeHourForecast object for each segment
+     * @deprecated  Use getForecastColumns() to scan a field across the forecast, or getForecast() to read a single segment.
+     */
+    @Deprecated
+    public ArrayList<ThreeHourForecast> getForecasts() {
+        ArrayList<ThreeHourForecast> list = new ArrayList<>(forecasts.size());
+        for (int i = 0; i < forecasts.size(); i++) {
+            list.add(new ThreeHourForecast(forecasts, i));
+        }
+        return list;
+    }
 }
\ No newline at end of file
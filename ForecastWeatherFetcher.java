@@ -1,146 +1,540 @@
 import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.json.JSONObject;
-import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
 import org.json.JSONArray;
 
 /**
  * The ForecastWeatherFetcher class retrieves forecast weather data from the OpenWeatherMap API's "5-day weather forecast" for a given city 
  * in 3-hour segments. The API returns a JSON response in the form of a JSONObject containing city information, and a list of forecast data. 
  * The forecast list is parsed as a JSONArray object, which separates each segment of forecast data into separate JSONObject objects. When a 
- * 3-hour segment has been processed the forecast data for that segment will be encapsulated into a new ThreeHourForecast object. When the 
- * entire list has been processed the city information and every ThreeHourForecast object created by that API response will be encapsulated 
- * into objects of the class ForecastWeatherData. 
+ * 3-hour segment has been processed the forecast data for that segment will be added to the columns of a ForecastColumns object. When the 
+ * entire list has been processed the city information and the ForecastColumns object filled by that API response will be encapsulated 
+ * into objects of the class ForecastWeatherData. By default the response is instead parsed in a single pass with a JsonStreamReader as it is 
+ * read from the API, which fills the same objects without building the JSONObject. The parser can be switched with setParserType() so the 
+ * two approaches can be compared. Requests are sent through a WeatherTransport, which is shared with the CurrentWeatherFetcher so connections
+ * to the API are reused.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
  */
 public class ForecastWeatherFetcher {
+    /**
+     * The parsers that can be used to read responses from the API.
+     * ORG_JSON reads the whole response into a JSONObject first, while STREAMING fills the forecast data in a single pass over the response.
+     */
+    public enum ParserType { ORG_JSON, STREAMING }
+    
     private final String API_KEY = "API_KEY";  // Replace with your own API key from the OpenWeatherMap website
     private String country = "GB";
     private String units = "metric";
     
+    // Recent responses from the API
+    private static final int CACHE_SIZE = 20;
+    private static final long CACHE_TIME_TO_LIVE = 60 * 60 * 1000L;     // 1 hour
+    private final WeatherCache<ForecastWeatherData> cache = new WeatherCache<>(CACHE_SIZE, CACHE_TIME_TO_LIVE);
+    
+    // Requests that are currently running, shared by every caller asking for the same city
+    private final SingleFlight<String, ForecastWeatherData> inFlight = new SingleFlight<>();
+    
+    // Responses saved from previous runs of the program
+    private final WeatherDiskStore diskStore = new WeatherDiskStore();
+    
+    // Parser used to read responses
+    private ParserType parserType = ParserType.STREAMING;
+    
+    // Sends the requests to the API
+    private final WeatherTransport transport;
+    
+    /**
+     * Constructor for objects of class ForecastWeatherFetcher using the shared WeatherTransport.
+     */
+    public ForecastWeatherFetcher() {
+        this(WeatherTransport.getShared());
+    }
+    
+    /**
+     * Constructor for objects of class ForecastWeatherFetcher.
+     * 
+     * @param   transport   the WeatherTransport used to send requests to the API
+     */
+    public ForecastWeatherFetcher(WeatherTransport transport) {
+        this.transport = transport;
+    }
+    
+    /**
+     * Returns forecast weather data for the specified city.
+     * A recent response is returned from the cache if there is one, otherwise the data is fetched from the OpenWeatherMap API.
+     * If the city is already being fetched by another thread, this thread waits for that request instead of sending its own.
+     * 
+     * @param   city    the name of the city for which forecast weather data is requested
+     * @return          a ForecastWeatherData object containing the weather information, or null if an error occurs
+     */
+    public ForecastWeatherData getWeatherData(String city) {
+        ForecastWeatherData weatherData = cache.get(getCacheKey(city));
+        return weatherData != null ? weatherData : inFlight.execute(getCacheKey(city), () -> loadWeatherData(city));
+    }
+    
+    /**
+     * Fetches forecast weather data for the specified city on a background thread.
+     * The caller is not blocked while waiting for the API to respond. A cached response is returned as an already completed future.
+     * If the city is already being fetched, the future of that request is returned instead of a new request being sent.
+     * 
+     * @param   city    the name of the city for which forecast weather data is requested
+     * @return          a CompletableFuture that is completed with the ForecastWeatherData object, or with null if an error occurs
+     */
+    public CompletableFuture<ForecastWeatherData> getWeatherDataAsync(String city) {
+        ForecastWeatherData cached = cache.get(getCacheKey(city));
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return inFlight.submit(getCacheKey(city), () -> loadWeatherData(city), WeatherTaskExecutor.getExecutor());
+    }
+    
+    /**
+     * Returns the forecast weather data saved on the disk for the specified city, without contacting the API.
+     * The data may be out of date, so it should only be shown until newer data has been fetched.
+     * 
+     * @param   city    the name of the city
+     * @return          the last ForecastWeatherData object fetched for the city, or null if none has been saved
+     */
+    public ForecastWeatherData getSavedWeatherData(String city) {
+        return diskStore.loadForecast(city);
+    }
+    
+    /**
+     * Returns the cache holding recent responses from the API.
+     * 
+     * @return  the WeatherCache object used by this fetcher
+     */
+    public WeatherCache<ForecastWeatherData> getCache() {
+        return cache;
+    }
+    
+    /**
+     * Fetches forecast weather data for the specified city from the API and stores the response in the cache and on the disk.
+     * 
+     * @param   city    the name of the city for which forecast weather data is requested
+     * @return          a ForecastWeatherData object containing the retrieved weather information, or null if an error occurs
+     */
+    private ForecastWeatherData loadWeatherData(String city) {
+        long start = PerformanceMonitor.start();
+        ForecastWeatherData weatherData = fetchWeatherData(city);
+        PerformanceMonitor.record("ForecastFetcher.fetch", start);
+        if (weatherData != null) {  // Errors are not cached so the next request tries again
+            cache.put(getCacheKey(city), weatherData);
+            diskStore.saveForecast(city, weatherData);
+        }
+        return weatherData;
+    }
+    
+    /**
+     * Returns the key used to store the response for a city in the cache.
+     * 
+     * @param   city    the name of the city
+     * @return          a key made from the API endpoint and the city name
+     */
+    private String getCacheKey(String city) {
+        return "forecast:" + city.trim().toLowerCase();
+    }
+    
     /**
      * Fetches forecast weather data for the specified city using the OpenWeatherMap API.
      * 
      * @param   city    the name of the city for which forecast weather data is requested
      * @return          a ForecastWeatherData object containing the retrieved weather information, or null if an error occurs
      */
-    public ForecastWeatherData getWeatherData(String city) {
+    private ForecastWeatherData fetchWeatherData(String city) {
         try {
-            // Connects to the API 
-            city  = city.replace(" ", "+");
-            URL url = new URL("https://api.openweathermap.org/data/2.5/forecast?q=" + city + "," + country + "&appid=" + API_KEY + "&units=" + units);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-    
-            // Reads the JSON response from the API
-            BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            StringBuilder response = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
+            // Sends the request to the API
+            Map<String, String> parameters = new LinkedHashMap<>();
+            parameters.put("q", city + "," + country);
+            parameters.put("appid", API_KEY);
+            parameters.put("units", units);
+    
+            // Parses the JSON response as it is read from the API
+            try (WeatherResponse response = transport.get("forecast", parameters)) {
+                if (!response.isSuccessful()) {
+                    throw new IOException("Server returned HTTP response code: " + response.getStatusCode());
+                }
+                long start = PerformanceMonitor.start();
+                ForecastWeatherData weatherData = parseWeatherData(response.getBody());
+                PerformanceMonitor.record("ForecastFetcher.parse", start);     // Includes reading the body as it arrives
+                return weatherData;
             }
-            reader.close();
-
-            // Parses the JSON response
-            JSONObject forecastJson = new JSONObject(response.toString());
-            
-            // City Information
-            JSONObject cityJson = forecastJson.getJSONObject("city");
-            int cityID = cityJson.getInt("id");
-            String cityName = cityJson.getString("name");
-            double latitude = cityJson.getJSONObject("coord").getDouble("lat");
-            double longitude = cityJson.getJSONObject("coord").getDouble("lon");
-            String country = cityJson.getString("country");
-            int population = cityJson.getInt("population");
-            int timezoneShift = cityJson.getInt("timezone");
-            long sunrise = cityJson.getLong("sunrise");
-            long sunset = cityJson.getLong("sunset");
+        } catch (Exception e) {
+            System.out.println("Error fetching weather data: " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Sets the parser used to read responses from the API.
+     * 
+     * @param   parserType  the parser to be used
+     */
+    public void setParserType(ParserType parserType) {
+        this.parserType = parserType;
+    }
+    
+    /**
+     * Parses a forecast response from the API using the current parser type.
+     * 
+     * @param   in  the stream containing the JSON response
+     * @return      a ForecastWeatherData object containing the forecast information in the response
+     */
+    public ForecastWeatherData parseWeatherData(InputStream in) throws IOException {
+        if (parserType == ParserType.STREAMING) {
+            return parseWithStreamReader(in);
+        }
+        return parseWithJsonObject(in);
+    }
+    
+    /**
+     * Parses a forecast response by reading the whole response into a String and building a JSONObject from it.
+     * 
+     * @param   in  the stream containing the JSON response
+     * @return      a ForecastWeatherData object containing the forecast information in the response
+     */
+    private ForecastWeatherData parseWithJsonObject(InputStream in) throws IOException {
+        // Reads the JSON response from the API
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        StringBuilder response = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            response.append(line);
+        }
+        reader.close();
 
-            // Forecast List
-            ArrayList<ThreeHourForecast> forecasts = new ArrayList<>();
-            JSONArray forecastList = forecastJson.getJSONArray("list");
-            
-            // Number of Forecasts
-            int count = forecastJson.getInt("cnt");
-            
-            // Internal Parameters
-            int statusCode = forecastJson.getInt("cod");
-            int message = forecastJson.getInt("message");
+        // Parses the JSON response
+        JSONObject forecastJson = new JSONObject(response.toString());
+        
+        // Reports an error sent by the API, such as an unknown city, using the message from the API
+        int errorCode = forecastJson.optInt("cod", 200);
+        if (errorCode != 200) {
+            throw new IOException("API error " + errorCode + ": " + forecastJson.optString("message", "No message found"));
+        }
+        
+        // City Information
+        JSONObject cityJson = forecastJson.getJSONObject("city");
+        int cityID = cityJson.getInt("id");
+        String cityName = cityJson.getString("name");
+        double latitude = cityJson.getJSONObject("coord").getDouble("lat");
+        double longitude = cityJson.getJSONObject("coord").getDouble("lon");
+        String country = cityJson.getString("country");
+        int population = cityJson.getInt("population");
+        int timezoneShift = cityJson.getInt("timezone");
+        long sunrise = cityJson.getLong("sunrise");
+        long sunset = cityJson.getLong("sunset");
 
-            for (int i = 0; i < forecastList.length(); i++) {
-                JSONObject forecast = forecastList.getJSONObject(i);    // Accesses one 3-hour forecast at a time
-                
-                // Time of Data
-                long timestamp = forecast.getLong("dt");
-                String timestampString = forecast.getString("dt_txt");
+        // Forecast List
+        JSONArray forecastList = forecastJson.getJSONArray("list");
+        ForecastColumns forecasts = new ForecastColumns(forecastList.length());
+        
+        // Number of Forecasts
+        int count = forecastJson.getInt("cnt");
+        
+        // Internal Parameters
+        int statusCode = forecastJson.getInt("cod");
+        int message = forecastJson.getInt("message");
 
-                // Main Data
-                JSONObject main = forecast.getJSONObject("main");
-                double temperature = main.getDouble("temp");
-                double feelsLike = main.getDouble("feels_like");
-                double tempMin = main.getDouble("temp_min");
-                double tempMax = main.getDouble("temp_max");
-                int pressure = main.getInt("pressure");
-                int seaLevelPressure = main.getInt("sea_level");
-                int groundLevelPressure = main.getInt("grnd_level");
-                int humidity = main.getInt("humidity");
-                double tempKf = main.getDouble("temp_kf");  // Internal parameter
+        for (int i = 0; i < forecastList.length(); i++) {
+            JSONObject forecast = forecastList.getJSONObject(i);    // Accesses one 3-hour forecast at a time
+            
+            // Time of Data
+            long timestamp = forecast.getLong("dt");
+            String timestampString = forecast.getString("dt_txt");
 
-                // Weather Conditions
-                JSONObject weather = forecast.getJSONArray("weather").getJSONObject(0); // Weather information is held in an array with 1 item
-                int weatherID = weather.getInt("id");
-                String weatherMain = weather.getString("main");
-                String weatherDescription = weather.getString("description");
-                String weatherIcon = weather.getString("icon");
-                
-                // Clouds
-                int cloudiness = forecast.getJSONObject("clouds").getInt("all");
+            // Main Data
+            JSONObject main = forecast.getJSONObject("main");
+            double temperature = main.getDouble("temp");
+            double feelsLike = main.getDouble("feels_like");
+            double tempMin = main.getDouble("temp_min");
+            double tempMax = main.getDouble("temp_max");
+            int pressure = main.getInt("pressure");
+            int seaLevelPressure = main.getInt("sea_level");
+            int groundLevelPressure = main.getInt("grnd_level");
+            int humidity = main.getInt("humidity");
+            double tempKf = main.getDouble("temp_kf");  // Internal parameter
 
-                // Wind
-                JSONObject wind = forecast.getJSONObject("wind");
-                double windSpeed = wind.getDouble("speed");
-                int windDirection = wind.getInt("deg");
-                double windGust = wind.getDouble("gust");
-                
-                // Visibility
-                int visibility = forecast.has("visibility") ? forecast.getInt("visibility") : -1;
-                
-                // Probability of Precipitation
-                double precipitationProb = forecast.getDouble("pop");
-                
-                // Rain
-                double rainVolume = forecast.has("rain") ? forecast.getJSONObject("rain").getDouble("3h") : 0.0;
-                
-                // Snow
-                double snowVolume = forecast.has("snow") ? forecast.getJSONObject("snow").getDouble("3h") : 0.0;
+            // Weather Conditions
+            JSONObject weather = forecast.getJSONArray("weather").getJSONObject(0); // Weather information is held in an array with 1 item
+            int weatherID = weather.getInt("id");
+            String weatherMain = weather.getString("main");
+            String weatherDescription = weather.getString("description");
+            String weatherIcon = weather.getString("icon");
+            
+            // Clouds
+            int cloudiness = forecast.getJSONObject("clouds").getInt("all");
 
-                // Part of Day
-                String partOfDay = forecast.getJSONObject("sys").getString("pod");
-                
-                // Creates a WeatherForecast class containing all the forecast information from one segment
-                ThreeHourForecast weatherForecast = new ThreeHourForecast(
-                        timestamp, timestampString, 
-                        temperature, feelsLike, tempMin, tempMax, pressure, seaLevelPressure, groundLevelPressure, humidity, tempKf,
-                        weatherID, weatherMain, weatherDescription, weatherIcon, cloudiness, windSpeed, windDirection, windGust,
-                        visibility, precipitationProb, rainVolume, snowVolume, partOfDay);
+            // Wind
+            JSONObject wind = forecast.getJSONObject("wind");
+            double windSpeed = wind.getDouble("speed");
+            int windDirection = wind.getInt("deg");
+            double windGust = wind.optDouble("gust", -1);   // Left out by the API when there are no gusts
+            
+            // Visibility
+            int visibility = forecast.has("visibility") ? forecast.getInt("visibility") : -1;
+            
+            // Probability of Precipitation
+            double precipitationProb = forecast.getDouble("pop");
+            
+            // Rain
+            double rainVolume = forecast.has("rain") ? forecast.getJSONObject("rain").getDouble("3h") : 0.0;
+            
+            // Snow
+            double snowVolume = forecast.has("snow") ? forecast.getJSONObject("snow").getDouble("3h") : 0.0;
 
-                // Adds to the list of forecasts for one instance of the API response
-                forecasts.add(weatherForecast);
-            }
+            // Part of Day
+            String partOfDay = forecast.getJSONObject("sys").getString("pod");
             
-            // Creates a ForecastWeatherData class containing all the information from the API response
-            return new ForecastWeatherData(
-                    cityID, cityName, latitude, longitude, 
-                    country, population, timezoneShift, 
-                    sunrise, sunset, forecasts,
-                    count, statusCode, message);
-        } catch (Exception e) {
-            System.out.println("Error fetching weather data: " + e.getMessage());
-            return null;
+            // Adds to the list of forecasts for one instance of the API response
+            forecasts.add(
+                    timestamp, timestampString, 
+                    temperature, feelsLike, tempMin, tempMax, pressure, seaLevelPressure, groundLevelPressure, humidity, tempKf,
+                    weatherID, weatherMain, weatherDescription, weatherIcon, cloudiness, windSpeed, windDirection, windGust,
+                    visibility, precipitationProb, rainVolume, snowVolume, partOfDay);
+        }
+        
+        // Creates a ForecastWeatherData class containing all the information from the API response
+        return new ForecastWeatherData(
+                cityID, cityName, latitude, longitude, 
+                country, population, timezoneShift, 
+                sunrise, sunset, forecasts,
+                count, statusCode, message);
+    }
+    
+    /**
+     * Parses a forecast response in a single pass as it is read from the stream, without building a String or a JSONObject.
+     * Fields that are not used by ForecastWeatherData are skipped.
+     * 
+     * @param   in  the stream containing the JSON response
+     * @return      a ForecastWeatherData object containing the forecast information in the response
+     */
+    private ForecastWeatherData parseWithStreamReader(InputStream in) throws IOException {
+        // City Information
+        int cityID = 0;
+        String cityName = null;
+        double latitude = 0.0;
+        double longitude = 0.0;
+        String country = null;
+        int population = 0;
+        int timezoneShift = 0;
+        long sunrise = 0;
+        long sunset = 0;
+        
+        // Forecast List
+        ForecastColumns forecasts = new ForecastColumns();
+        
+        // Number of Forecasts and Internal Parameters
+        int count = 0;
+        int statusCode = 0;
+        int message = 0;
+        String errorMessage = "No message found";
+        
+        JsonStreamReader reader = new JsonStreamReader(in);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "cod":     statusCode = reader.nextInt(); break;
+                case "message":
+                    if (reader.peek() == JsonStreamReader.Token.STRING) {
+                        errorMessage = reader.nextString();     // Error responses describe the error here instead
+                    } else {
+                        message = reader.nextInt();
+                    }
+                    break;
+                case "cnt":     count = reader.nextInt(); break;
+                case "list":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readThreeHourForecast(reader, forecasts);   // Reads one 3-hour forecast at a time
+                    }
+                    reader.endArray();
+                    break;
+                case "city":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "id":          cityID = reader.nextInt(); break;
+                            case "name":        cityName = reader.nextString(); break;
+                            case "country":     country = reader.nextString(); break;
+                            case "population":  population = reader.nextInt(); break;
+                            case "timezone":    timezoneShift = reader.nextInt(); break;
+                            case "sunrise":     sunrise = reader.nextLong(); break;
+                            case "sunset":      sunset = reader.nextLong(); break;
+                            case "coord":
+                                reader.beginObject();
+                                while (reader.hasNext()) {
+                                    switch (reader.nextName()) {
+                                        case "lat": latitude = reader.nextDouble(); break;
+                                        case "lon": longitude = reader.nextDouble(); break;
+                                        default:    reader.skipValue();
+                                    }
+                                }
+                                reader.endObject();
+                                break;
+                            default: reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        // Reports an error sent by the API, such as an unknown city, using the message from the API
+        if (statusCode != 200) {
+            throw new IOException("API error " + statusCode + ": " + errorMessage);
+        }
+        
+        // Creates a ForecastWeatherData class containing all the information from the API response
+        return new ForecastWeatherData(
+                cityID, cityName, latitude, longitude, 
+                country, population, timezoneShift, 
+                sunrise, sunset, forecasts,
+                count, statusCode, message);
+    }
+    
+    /**
+     * Reads one 3-hour segment of the forecast list from the stream and adds it to the end of the forecast columns.
+     * Optional fields that are missing from the segment, such as the gust of the wind, are given the same default values as the JSONObject
+     * parser.
+     * 
+     * @param   reader      the JsonStreamReader positioned at the start of the segment
+     * @param   forecasts   the ForecastColumns object the segment is added to
+     */
+    private void readThreeHourForecast(JsonStreamReader reader, ForecastColumns forecasts) throws IOException {
+        // Time of Data
+        long timestamp = 0;
+        String timestampString = null;
+        
+        // Main Data
+        double temperature = 0.0, feelsLike = 0.0, tempMin = 0.0, tempMax = 0.0, tempKf = 0.0;
+        int pressure = 0, seaLevelPressure = 0, groundLevelPressure = 0, humidity = 0;
+        
+        // Weather Conditions
+        int weatherID = 0;
+        String weatherMain = null, weatherDescription = null, weatherIcon = null;
+        
+        // Clouds, Wind and Visibility
+        int cloudiness = 0;
+        double windSpeed = 0.0, windGust = -1;
+        int windDirection = 0;
+        int visibility = -1;
+        
+        // Precipitation and Part of Day
+        double precipitationProb = 0.0, rainVolume = 0.0, snowVolume = 0.0;
+        String partOfDay = null;
+        
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "dt":          timestamp = reader.nextLong(); break;
+                case "dt_txt":      timestampString = reader.nextString(); break;
+                case "visibility":  visibility = reader.nextInt(); break;
+                case "pop":         precipitationProb = reader.nextDouble(); break;
+                case "main":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "temp":        temperature = reader.nextDouble(); break;
+                            case "feels_like":  feelsLike = reader.nextDouble(); break;
+                            case "temp_min":    tempMin = reader.nextDouble(); break;
+                            case "temp_max":    tempMax = reader.nextDouble(); break;
+                            case "pressure":    pressure = reader.nextInt(); break;
+                            case "sea_level":   seaLevelPressure = reader.nextInt(); break;
+                            case "grnd_level":  groundLevelPressure = reader.nextInt(); break;
+                            case "humidity":    humidity = reader.nextInt(); break;
+                            case "temp_kf":     tempKf = reader.nextDouble(); break;   // Internal parameter
+                            default:            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "weather":     // Weather information is held in an array with 1 item
+                    reader.beginArray();
+                    if (reader.hasNext()) {
+                        reader.beginObject();
+                        while (reader.hasNext()) {
+                            switch (reader.nextName()) {
+                                case "id":          weatherID = reader.nextInt(); break;
+                                case "main":        weatherMain = reader.nextString(); break;
+                                case "description": weatherDescription = reader.nextString(); break;
+                                case "icon":        weatherIcon = reader.nextString(); break;
+                                default:            reader.skipValue();
+                            }
+                        }
+                        reader.endObject();
+                    }
+                    while (reader.hasNext()) {
+                        reader.skipValue();
+                    }
+                    reader.endArray();
+                    break;
+                case "clouds":  cloudiness = (int) readMember(reader, "all", 0); break;
+                case "rain":    rainVolume = readMember(reader, "3h", 0.0); break;
+                case "snow":    snowVolume = readMember(reader, "3h", 0.0); break;
+                case "wind":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        switch (reader.nextName()) {
+                            case "speed":   windSpeed = reader.nextDouble(); break;
+                            case "deg":     windDirection = reader.nextInt(); break;
+                            case "gust":    windGust = reader.nextDouble(); break;
+                            default:        reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                case "sys":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("pod")) {
+                            partOfDay = reader.nextString();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                    break;
+                default: reader.skipValue();
+            }
+        }
+        reader.endObject();
+        
+        // Adds all the forecast information from one segment to the columns
+        forecasts.add(
+                timestamp, timestampString, 
+                temperature, feelsLike, tempMin, tempMax, pressure, seaLevelPressure, groundLevelPressure, humidity, tempKf,
+                weatherID, weatherMain, weatherDescription, weatherIcon, cloudiness, windSpeed, windDirection, windGust,
+                visibility, precipitationProb, rainVolume, snowVolume, partOfDay);
+    }
+    
+    /**
+     * Reads a single number from an object such as {"3h": 0.5}, skipping every other member of the object.
+     * 
+     * @param   reader          the JsonStreamReader positioned at the start of the object
+     * @param   name            the name of the member to be read
+     * @param   defaultValue    the value returned if the member is missing
+     * @return                  the value of the member
+     */
+    private double readMember(JsonStreamReader reader, String name, double defaultValue) throws IOException {
+        double value = defaultValue;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(name)) {
+                value = reader.nextDouble();
+            } else {
+                reader.skipValue();
+            }
         }
+        reader.endObject();
+        return value;
     }
-}
\ No newline at end of file
+}
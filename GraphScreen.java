@@ -1,16 +1,43 @@
 import greenfoot.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * The GraphScreen world displays a line graph of the given city's temperature or feels like weather data for the upcoming 5 days. It 
- * can be viewed after fully zooming in over the selected city and pressing the left arrow key. This world contains a graph to view the 
- * forecast statistics, buttons to view the next and previous days of forecast data, and a dropdown tool to change the type of data being 
- * displayed on the line graph. This world also contains a button to print a summary of the visible line graph onto the Terminal. To 
- * return to the MapScreen, the left arrow key must be pressed.
+ * The GraphScreen world displays a line graph of one of the given city's weather metrics, such as temperature, pressure or rain volume, 
+ * for each of the upcoming 5 days. It can be viewed after fully zooming in over the selected city and pressing the left arrow key. This 
+ * world contains a graph to view the forecast statistics, buttons to view the next and previous days of forecast data, and a dropdown 
+ * tool to change the type of data being displayed on the line graph. This world also contains a button to print a summary of the visible 
+ * line graph onto the Terminal. A second button switches to a graph of several metrics across all 5 days, where choosing a metric from 
+ * the dropdown shows or hides its line instead of replacing the graph, and then to a graph comparing the chosen metric across several 
+ * cities. The forecasts of the compared cities are requested all at once and each line is drawn as soon as its forecast arrives. To 
+ * return to the MapScreen, the left arrow key must be pressed. A city that has never been fetched shows a loading message until its 
+ * forecast arrives, so the world never waits for the API. Pressing F3 will show how long each frame and each slow part of the program 
+ * takes. 
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
  */
 public class GraphScreen extends World {
+    /**
+     * The graphs that can be shown, in the order the GraphViewButton switches between them.
+     * Each view has the text shown on the button that switches to it.
+     */
+    public enum GraphView {
+        DAY("1 Day"), OVERVIEW("5 Days"), COMPARISON("Compare");
+        
+        private final String label;
+        
+        GraphView(String label) {
+            this.label = label;
+        }
+        
+        // Get methods for the text of the button and the view that comes after this one
+        public String getLabel() { return label; }
+        public GraphView next() { return values()[(ordinal() + 1) % values().length]; }
+    }
+    
     private MapScreen mapScreen;
     private String city;
     
@@ -19,8 +46,52 @@ public class GraphScreen extends World {
     private ForecastWeatherData weatherData;
     private LineGraphDisplay graph;
     
+    // Newer forecast data that is still being fetched for the city
+    private CompletableFuture<ForecastWeatherData> pendingWeatherData;
+    
     // Current weather metric
-    private String graphType;
+    private WeatherMetric graphType;
+    
+    // The graph being shown
+    private GraphView graphView = GraphView.DAY;
+    
+    // Graph of several metrics across the whole forecast, and the metrics it shows when it is first opened
+    private MultiSeriesGraph overviewGraph;
+    private boolean isOverviewStale = true;     // The overview is only updated with new data while it is shown
+    private List<GraphSeries> loadingOverviewSeries = new ArrayList<>();   // Lines removed while a new city loads, shown again after
+    private static final WeatherMetric[] OVERVIEW_METRICS = {
+        WeatherMetric.TEMPERATURE, WeatherMetric.HUMIDITY, WeatherMetric.PRESSURE, WeatherMetric.PRECIPITATION
+    };
+    
+    // Graph of one metric across several cities, and the forecast of each city in the order they are compared
+    private MultiSeriesGraph comparisonGraph;
+    private List<ComparedCity> comparedCities = new ArrayList<>();
+    private List<String> comparisonCityNames = new ArrayList<>();
+    private boolean isComparisonStale = true;   // The forecasts are only requested while the comparison is shown
+    
+    // Table of measurements from the PerformanceMonitor
+    private DebugOverlay debugOverlay;
+    
+    /**
+     * The ComparedCity class holds the forecast of one city on the comparison graph, the request for newer data that is still running 
+     * and the line made from the forecast, which is only made again when the forecast or the metric changes.
+     */
+    private static class ComparedCity {
+        private final String name;
+        private ForecastWeatherData weatherData;                        // Null until the first data arrives
+        private CompletableFuture<ForecastWeatherData> pendingWeatherData;
+        private GraphSeries series;
+        private long seriesStartTime;   // The first time on the x-axis when the line was made
+        
+        /**
+         * Constructor for objects of class ComparedCity.
+         * 
+         * @param   name    the name of the city
+         */
+        ComparedCity(String name) {
+            this.name = name;
+        }
+    }
     
     /**
      * Constructor for objects of class GraphScreen.
@@ -34,11 +105,15 @@ public class GraphScreen extends World {
         
         // Initialises a new ForecastWeatherFetcher and gets forecast data from the city
         fetcher = new ForecastWeatherFetcher();
-        weatherData = fetcher.getWeatherData(city);
+        this.city = city;
+        weatherData = loadWeatherData(city);
         
         // Creates a line graph with a default data type
-        graphType = "Temperature";
+        graphType = WeatherMetric.TEMPERATURE;
         graph = new LineGraphDisplay(this, weatherData);
+        if (weatherData == null) {
+            graph.showMessage(getMissingDataMessage());
+        }
         addObject(graph, 300, 200);
 
         // Creates a dropdown menu to change the data being displayed on the graph
@@ -52,8 +127,17 @@ public class GraphScreen extends World {
         // Summary button to print a summary of the graph
         addObject(new SummaryButton(this, graph), 300, 370);
         
+        // Button to switch between the graph of one day, the graph of several metrics across 5 days and the graph of several cities
+        overviewGraph = new MultiSeriesGraph(500, 300);
+        comparisonGraph = new MultiSeriesGraph(500, 300);
+        addObject(new GraphViewButton(this), 360, 25);
+        
         // Highlights when the left arrow key has been pressed
         addObject(new KeyIcon("left"), 20,20);
+        
+        // Adds the debug overlay last so it is drawn on top of the other actors
+        debugOverlay = new DebugOverlay(getWidth());
+        addObject(debugOverlay, 0, 0);
     }
     
     /**
@@ -61,39 +145,367 @@ public class GraphScreen extends World {
      * 
      * @return  the current weather metric being displayed by this world.
      */
-    public String getGraphType() {
+    public WeatherMetric getGraphType() {
         return graphType;
     }
     
     /**
      * Sets the line graph in the world to display the given type of data.
      * 
-     * @param   type    the type of temperature data to be displayed
+     * @param   type    the weather metric to be displayed
      */
-    public void setGraphType(String type) {
+    public void setGraphType(WeatherMetric type) {
         graphType = type;
         graph.updateGraph();
+        
+        if (graphView == GraphView.OVERVIEW) {
+            toggleOverviewMetric(type);
+        } else if (graphView == GraphView.COMPARISON) {
+            updateComparison();
+        }
+    }
+    
+    /**
+     * Switches to the next graph: from the line graph of one day to the graph of several metrics across the whole forecast, then to the 
+     * graph comparing several cities and back again. The graphs that are not being shown are removed from the world.
+     * 
+     * @return  the GraphView now being shown
+     */
+    public GraphView showNextView() {
+        removeObject(getGraphActor(graphView));
+        graphView = graphView.next();
+        addObject(getGraphActor(graphView), 300, 200);
+        
+        if (graphView == GraphView.OVERVIEW && isOverviewStale) {
+            updateOverview();
+        } else if (graphView == GraphView.COMPARISON && isComparisonStale) {
+            loadComparison();
+        }
+        return graphView;
+    }
+    
+    /**
+     * Returns the actor that draws a view.
+     * 
+     * @param   view    the GraphView
+     * @return          the graph drawing the view
+     */
+    private Actor getGraphActor(GraphView view) {
+        switch (view) {
+            case OVERVIEW:      return overviewGraph;
+            case COMPARISON:    return comparisonGraph;
+            default:            return graph;
+        }
+    }
+    
+    /**
+     * Shows or hides the line of a metric on the graph of several metrics, adding the line the first time the metric is chosen.
+     * Only the line being added is projected, so the other lines are not worked out again.
+     * 
+     * @param   metric  the WeatherMetric to be shown or hidden
+     */
+    private void toggleOverviewMetric(WeatherMetric metric) {
+        if (weatherData == null) {
+            return;     // No line can be made until the forecast arrives
+        }
+        if (overviewGraph.getSeries(metric.getName()) != null) {
+            overviewGraph.toggleSeries(metric.getName());
+        } else {
+            overviewGraph.addSeries(createOverviewSeries(metric));
+        }
+    }
+    
+    /**
+     * Replaces the lines on the graph of several metrics with the current forecast data, keeping the metrics that are shown or hidden.
+     */
+    private void updateOverview() {
+        List<GraphSeries> oldSeries = overviewGraph.getSeries();
+        if (oldSeries.isEmpty()) {
+            oldSeries = loadingOverviewSeries;
+        }
+        
+        // The lines are removed until the forecast arrives, but the metrics are remembered
+        if (weatherData == null) {
+            loadingOverviewSeries = oldSeries;
+            overviewGraph.setTitle(getMissingDataMessage());
+            overviewGraph.setSeries(new ArrayList<>(), null);
+            isOverviewStale = false;
+            return;
+        }
+        
+        // The metrics already on the graph are kept, shown or hidden as before, otherwise the default metrics are shown
+        List<GraphSeries> newSeries = new ArrayList<>();
+        for (GraphSeries old : oldSeries) {
+            GraphSeries series = createOverviewSeries(old.getMetric());
+            series.setVisible(old.isVisible());
+            newSeries.add(series);
+        }
+        if (newSeries.isEmpty()) {
+            for (WeatherMetric metric : OVERVIEW_METRICS) {
+                newSeries.add(createOverviewSeries(metric));
+            }
+        }
+        loadingOverviewSeries = new ArrayList<>();
+        overviewGraph.setTitle("5 Days in " + weatherData.getCityName());
+        overviewGraph.setSeries(newSeries, weatherData.getForecastColumns());
+        isOverviewStale = false;
+    }
+    
+    /**
+     * Creates the line of a metric from the current forecast data, named after the metric and always drawn in the same color.
+     * 
+     * @param   metric  the WeatherMetric of the line
+     * @return          a new GraphSeries object
+     */
+    private GraphSeries createOverviewSeries(WeatherMetric metric) {
+        return GraphSeries.fromForecast(metric.getName(), metric, weatherData, MultiSeriesGraph.getSeriesColor(metric.ordinal()));
+    }
+    
+    /**
+     * Updates whichever graph is being shown after new forecast data has been loaded, and marks the other for updating when it is shown.
+     * The line graph of one day is always updated since the summary button reads from it. If there is no data yet, the graphs show
+     * that the forecast is loading, or that it could not be fetched.
+     * 
+     * @param   isNewCity   true if the data is for a different city, which sends the line graph back to day 1
+     */
+    private void showWeatherData(boolean isNewCity) {
+        if (weatherData == null) {
+            graph.showMessage(getMissingDataMessage());
+        } else if (isNewCity) {
+            graph.updateData(weatherData);
+        } else {
+            graph.refreshData(weatherData);
+        }
+        
+        isOverviewStale = true;
+        if (graphView == GraphView.OVERVIEW) {
+            updateOverview();
+        }
+    }
+    
+    /**
+     * Sets the cities compared on the comparison graph. Their forecasts are requested straight away if the comparison is being shown, 
+     * otherwise they are requested the next time it is shown. The requests for the previous cities are dropped so their results are 
+     * ignored. They are not cancelled, since the fetcher shares each request with anything else waiting for the same city.
+     * 
+     * @param   cityNames   the names of the cities, starting with the selected city
+     */
+    public void setComparisonCities(List<String> cityNames) {
+        if (!cityNames.equals(comparisonCityNames)) {
+            comparisonCityNames = new ArrayList<>(cityNames);
+            comparedCities = new ArrayList<>();     // Drops the requests for the previous cities
+            isComparisonStale = true;
+            if (graphView == GraphView.COMPARISON) {
+                loadComparison();
+            }
+        }
+    }
+    
+    /**
+     * Requests the forecast of every compared city at the same time, so the cities are fetched in parallel instead of one after 
+     * another. Cached data is used straight away and the data saved from the last run of the program is shown until newer data 
+     * arrives. The world never waits for the API, since the rest of the lines are drawn by checkPendingComparisonData().
+     */
+    private void loadComparison() {
+        comparedCities = new ArrayList<>();
+        for (String name : comparisonCityNames) {
+            ComparedCity city = new ComparedCity(name);
+            city.pendingWeatherData = fetcher.getWeatherDataAsync(name);
+            if (!city.pendingWeatherData.isDone()) {
+                city.weatherData = fetcher.getSavedWeatherData(name);     // Null if the city has never been fetched
+            }
+            comparedCities.add(city);
+        }
+        isComparisonStale = false;
+        
+        collectComparisonData();    // Adds the cities that were already cached
+        updateComparison();
+    }
+    
+    /**
+     * Stores the forecasts of the compared cities whose requests have finished.
+     * 
+     * @return  true if any request has finished, even if it failed
+     */
+    private boolean collectComparisonData() {
+        boolean isChanged = false;
+        for (ComparedCity city : comparedCities) {
+            if (city.pendingWeatherData != null && city.pendingWeatherData.isDone()) {
+                ForecastWeatherData newData = city.pendingWeatherData.handle((data, error) -> data).join();    // Does not block
+                city.pendingWeatherData = null;
+                isChanged = true;   // The number of cities still loading has changed
+                
+                if (newData != null) {  // Keeps showing the saved data if the request failed
+                    city.weatherData = newData;
+                    city.series = null;     // Made again from the new data
+                }
+            }
+        }
+        return isChanged;
+    }
+    
+    /**
+     * Draws a line of the current metric for every compared city that has data, each in the color of its position in the list.
+     * Lines are only made again for cities whose data or metric has changed, and only lines whose axis has changed are projected again.
+     */
+    private void updateComparison() {
+        // The newest forecast gives the times on the x-axis, since forecasts saved on the disk start earlier
+        ForecastColumns times = null;
+        for (ComparedCity city : comparedCities) {
+            if (city.weatherData != null) {
+                ForecastColumns forecasts = city.weatherData.getForecastColumns();
+                if (forecasts.size() > 0 && (times == null || forecasts.getTimestamp(0) > times.getTimestamp(0))) {
+                    times = forecasts;
+                }
+            }
+        }
+        
+        List<GraphSeries> newSeries = new ArrayList<>();
+        int loadingCount = 0;
+        for (int i = 0; i < comparedCities.size(); i++) {
+            ComparedCity city = comparedCities.get(i);
+            if (city.pendingWeatherData != null) {
+                loadingCount++;
+            }
+            if (city.weatherData == null || times == null) {
+                continue;   // Nothing to draw until the first data arrives
+            }
+            
+            if (city.series == null || city.series.getMetric() != graphType || city.seriesStartTime != times.getTimestamp(0)) {
+                city.series = createComparisonSeries(city, times, MultiSeriesGraph.getSeriesColor(i));
+                city.seriesStartTime = times.getTimestamp(0);
+            }
+            if (city.series != null) {  // Left off until newer data arrives if the forecast does not cover the x-axis
+                newSeries.add(city.series);
+            }
+        }
+        
+        String title = graphType.getName() + " in " + newSeries.size() + " Cities";     // Cities with no data for the x-axis are left out
+        if (loadingCount > 0) {
+            title += " (" + loadingCount + " loading)";
+        }
+        comparisonGraph.setTitle(title);
+        comparisonGraph.setSeries(newSeries, times);
+    }
+    
+    /**
+     * Returns the text shown instead of the graphs while there is no forecast data for the city.
+     * 
+     * @return  a message saying the forecast is loading, or that it could not be fetched
+     */
+    private String getMissingDataMessage() {
+        return pendingWeatherData != null ? "Loading forecast for " + city + "..." : "No forecast for " + city;
     }
     
     /**
      * Fetches forecast weather data from the given city if the city is different from the one currently selected.
-     * The graph will update with this new data.
+     * The graph will update with this new data, or show that the data is loading if nothing has been saved for the city.
      * 
      * @param   newCity     the new city for forecast weather to be displayed from
      */
     public void updateCity(String newCity) {
         if (!newCity.equals(this.city)) {
             this.city = newCity;
-            ForecastWeatherData newData = fetcher.getWeatherData(newCity);
-            graph.updateData(newData);
+            weatherData = loadWeatherData(newCity);
+            showWeatherData(true);
+        }
+    }
+    
+    /**
+     * Returns forecast data for a city without waiting for the API.
+     * Cached data is returned straight away. Otherwise the data saved from the last time the city was fetched is returned while newer 
+     * data is fetched in the background and shown on a later act() call.
+     * 
+     * @param   city    the name of the city
+     * @return          the ForecastWeatherData object to be displayed, or null if no data is available until the request finishes
+     */
+    private ForecastWeatherData loadWeatherData(String city) {
+        pendingWeatherData = fetcher.getWeatherDataAsync(city);    // Replaces any request for a previous city
+        
+        if (pendingWeatherData.isDone()) {  // The data was cached, or the request has already failed
+            ForecastWeatherData cachedData = pendingWeatherData.handle((data, error) -> data).join();   // Does not block
+            pendingWeatherData = null;
+            if (cachedData != null) {
+                return cachedData;
+            }
         }
+        return fetcher.getSavedWeatherData(city);   // Null if the city has never been fetched
     }
     
     /**
-     * Runs the checkScreenSwitchInput() method whenever the 'Act' or 'Run' button gets pressed or executed in the environment.
+     * Runs the checkScreenSwitchInput(), checkPendingWeatherData() and checkPendingComparisonData() methods whenever the 'Act' or 'Run' 
+     * button gets pressed or executed in the environment. The debug overlay is shown or hidden when the F3 key is pressed.
      */
     public void act() {
+        PerformanceMonitor.startFrame("GraphScreen");
+        
+        if ("F3".equalsIgnoreCase(Greenfoot.getKey())) {
+            debugOverlay.toggle();
+        }
         checkScreenSwitchInput();
+        checkPendingWeatherData();
+        checkPendingComparisonData();
+        
+        PerformanceMonitor.endFrame("GraphScreen");
+    }
+    
+    /**
+     * Creates the line of the current metric for a compared city, lined up with the times on the x-axis by timestamp.
+     * Segments of the forecast before the first time on the x-axis are left out, so an older forecast saved on the disk is drawn under
+     * the correct dates.
+     * 
+     * @param   city    the ComparedCity holding the forecast
+     * @param   times   the ForecastColumns object whose timestamps are shown on the x-axis
+     * @param   color   the color of the line
+     * @return          a new GraphSeries object, or null if no segment of the forecast starts at the first time on the x-axis
+     */
+    private GraphSeries createComparisonSeries(ComparedCity city, ForecastColumns times, Color color) {
+        ForecastColumns forecasts = city.weatherData.getForecastColumns();
+        long startTime = times.getTimestamp(0);
+        int start = 0;
+        while (start < forecasts.size() && forecasts.getTimestamp(start) < startTime) {
+            start++;
+        }
+        if (start == forecasts.size() || forecasts.getTimestamp(start) != startTime) {
+            return null;
+        }
+        
+        // Every forecast is split into the same 3-hour segments, so the rest of the segments line up as well
+        int count = Math.min(forecasts.size() - start, times.size());
+        double[] values = Arrays.copyOfRange(graphType.getForecastValues(forecasts), start, start + count);
+        return new GraphSeries(city.name, graphType, values, count, color);
+    }
+    
+    /**
+     * Checks if newer forecast data for the city has finished being fetched.
+     * If it has then the line graph is updated with the new data, staying on the same day unless the graph was waiting for its first data.
+     */
+    private void checkPendingWeatherData() {
+        if (pendingWeatherData != null && pendingWeatherData.isDone()) {
+            ForecastWeatherData newData = pendingWeatherData.handle((data, error) -> data).join();   // Does not block since the future is complete
+            pendingWeatherData = null;
+            
+            if (newData != null) {
+                boolean isFirstData = weatherData == null;
+                weatherData = newData;
+                showWeatherData(isFirstData);
+            } else if (weatherData == null) {   // Shows that the request failed, otherwise the saved data is kept
+                showWeatherData(true);
+            }
+        }
+    }
+    
+    /**
+     * Checks if the forecast of any compared city has finished being fetched while the comparison is being shown.
+     * If it has then its line is added to the comparison graph without waiting for the other cities.
+     */
+    private void checkPendingComparisonData() {
+        if (graphView != GraphView.COMPARISON) {
+            return;     // Finished requests are collected when the comparison is shown again
+        }
+        if (collectComparisonData()) {
+            updateComparison();
+        }
     }
     
     /**
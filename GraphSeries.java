@@ -0,0 +1,153 @@
+import greenfoot.*;
+
+/**
+ * The GraphSeries class holds one line drawn on a MultiSeriesGraph: the values of a weather metric for every 3-hour segment of a
+ * forecast, the name and color used for it in the legend, and whether or not it is currently shown. The screen coordinates of its points
+ * are stored in the series as well. They are worked out by project() only when the values or the range of the axis they are measured
+ * against change, so showing and hiding series, or drawing the graph again for any other reason, reuses the stored coordinates.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class GraphSeries {
+    private final String name;
+    private final WeatherMetric metric;
+    private final double[] values;
+    private final int count;
+    private final Color color;
+    private boolean isVisible = true;
+
+    // Screen coordinates of every point, and the range and area of the graph they were worked out for
+    private final int[] xs;
+    private final int[] ys;
+    private double projectedMin = Double.NaN, projectedMax = Double.NaN;
+    private int projectedLeft, projectedTop, projectedWidth, projectedHeight, projectedPointCount;
+
+    /**
+     * Constructor for objects of class GraphSeries.
+     *
+     * @param   name    the name shown in the legend, which must be different for every series on the same graph
+     * @param   metric  the WeatherMetric of the values, whose unit decides which axis the series is measured against
+     * @param   values  the value of the metric in every segment, which is not copied and must not be modified
+     * @param   count   the number of values to be drawn
+     * @param   color   the color of the line
+     */
+    public GraphSeries(String name, WeatherMetric metric, double[] values, int count, Color color) {
+        this.name = name;
+        this.metric = metric;
+        this.values = values;
+        this.count = count;
+        this.color = color;
+        this.xs = new int[count];
+        this.ys = new int[count];
+    }
+
+    /**
+     * Creates a series from the forecast of a city.
+     *
+     * @param   name        the name shown in the legend
+     * @param   metric      the WeatherMetric to be drawn
+     * @param   weatherData the ForecastWeatherData object of the city
+     * @param   color       the color of the line
+     * @return              a new GraphSeries object holding every segment of the forecast
+     */
+    public static GraphSeries fromForecast(String name, WeatherMetric metric, ForecastWeatherData weatherData, Color color) {
+        ForecastColumns forecasts = weatherData.getForecastColumns();
+        return new GraphSeries(name, metric, metric.getForecastValues(forecasts), forecasts.size(), color);
+    }
+
+    // Get methods for every field
+    public String getName() { return name; }
+    public WeatherMetric getMetric() { return metric; }
+    public int getCount() { return count; }
+    public Color getColor() { return color; }
+    public boolean isVisible() { return isVisible; }
+    public int getX(int i) { return xs[i]; }
+    public int getY(int i) { return ys[i]; }
+
+    /**
+     * Returns whether or not a point of the series has a real value, since a reading the metric marks as missing is not drawn.
+     *
+     * @param   i   the position of the point
+     * @return      true if the point should be drawn
+     */
+    public boolean hasValue(int i) {
+        return !metric.isMissing(values[i]);
+    }
+
+    /**
+     * Shows or hides the series. The stored screen coordinates are kept while the series is hidden.
+     *
+     * @param   isVisible   true if the series should be drawn
+     */
+    public void setVisible(boolean isVisible) {
+        this.isVisible = isVisible;
+    }
+
+    /**
+     * Finds the smallest value of the series, leaving out missing readings.
+     *
+     * @return  the smallest value, or positive infinity if the series has no values
+     */
+    public double getMin() {
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (hasValue(i)) {
+                min = Math.min(min, values[i]);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Finds the largest value of the series, leaving out missing readings.
+     *
+     * @return  the largest value, or negative infinity if the series has no values
+     */
+    public double getMax() {
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (hasValue(i)) {
+                max = Math.max(max, values[i]);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Works out the screen coordinates of every point for a range of values and an area of the graph.
+     * Nothing is worked out again if the coordinates were already found for the same range and area.
+     *
+     * @param   min         the value at the bottom of the area
+     * @param   max         the value at the top of the area
+     * @param   left        the x coordinate of the first point
+     * @param   top         the y coordinate of the top of the area
+     * @param   width       the distance between the first and last point
+     * @param   height      the height of the area
+     * @param   pointCount  the number of points spread across the width, which may be more than the number of values in this series
+     * @return              true if the coordinates were worked out again
+     */
+    public boolean project(double min, double max, int left, int top, int width, int height, int pointCount) {
+        if (min == projectedMin && max == projectedMax && left == projectedLeft && top == projectedTop && width == projectedWidth
+                && height == projectedHeight && pointCount == projectedPointCount) {
+            return false;
+        }
+
+        double xSpacing = pointCount > 1 ? width / (double) (pointCount - 1) : 0;
+        double yScale = height / (max - min);
+        int bottom = top + height;
+        for (int i = 0; i < count; i++) {
+            xs[i] = left + (int) Math.round(i * xSpacing);
+            ys[i] = bottom - (int) Math.round((values[i] - min) * yScale);
+        }
+
+        projectedMin = min;
+        projectedMax = max;
+        projectedLeft = left;
+        projectedTop = top;
+        projectedWidth = width;
+        projectedHeight = height;
+        projectedPointCount = pointCount;
+        return true;
+    }
+}
@@ -0,0 +1,34 @@
+import greenfoot.*;
+
+/**
+ * The GraphViewButton class switches the GraphScreen world between the line graph of a single day, the graph of several weather 
+ * metrics across all 5 days of the forecast and the graph comparing one metric across several cities. The text of the button shows the 
+ * view it will switch to. The background colors of the button change when hovered and when clicked by the user due to inheritance from 
+ * the Button class.
+ * 
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class GraphViewButton extends Button {
+    private GraphScreen graphScreen;
+
+    /**
+     * Constructor for objects of class GraphViewButton.
+     * 
+     * @param   graphScreen     the GraphScreen world
+     */
+    public GraphViewButton(GraphScreen graphScreen) {
+        super(85, 30, GraphScreen.GraphView.DAY.next().getLabel());
+        this.graphScreen = graphScreen;
+    }
+
+    /**
+     * Switches to the next view of the graph and updates the text of the button to show the view after it.
+     */
+    @Override
+    protected void onClick() {
+        GraphScreen.GraphView graphView = graphScreen.showNextView();
+        buttonText = graphView.next().getLabel();
+        updateButtonVisuals(isHovered ? HOVER_COLOR : INACTIVE_COLOR);
+    }
+}
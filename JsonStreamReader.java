@@ -0,0 +1,611 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The JsonStreamReader class reads a JSON document one token at a time straight from an InputStream, without first storing the whole
+ * response in a String or building a JSONObject for it. The caller walks through the document in the same order it was written, asking
+ * for the next name or value and skipping any values it does not need. Numbers are read without creating a String for each one, and the
+ * names of object members are stored in a small table so that names repeated in every item of a list are only created once. Numbers that
+ * are sent as Strings, such as the "cod" field of the OpenWeatherMap API, can still be read as numbers.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class JsonStreamReader implements AutoCloseable {
+    /**
+     * The types of token that can appear next in the document.
+     */
+    public enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT }
+
+    private final Reader reader;
+
+    // Characters read from the stream but not used yet
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    // Reusable space for the characters of the current name, String or number
+    private char[] text = new char[64];
+    private int textLength;
+
+    // Nesting of objects and arrays, where true means an object
+    private boolean[] isObject = new boolean[32];
+    private int[] states = new int[32];
+    private int depth = 0;
+
+    // What can come next in each object or array
+    private static final int EMPTY = 0;             // Just opened, so an element or the end
+    private static final int NEXT_ELEMENT = 1;      // After a comma, so an element
+    private static final int AFTER_ELEMENT = 2;     // After an element, so a comma or the end
+    private static final int AFTER_NAME = 3;        // After the name of a member, so a colon
+    private static final int BEFORE_VALUE = 4;      // After a colon, so the value of a member
+
+    // Names that have already been read
+    private final String[] names = new String[256];
+
+    // Powers of 10 that can be represented exactly as a double
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Constructor for objects of class JsonStreamReader.
+     *
+     * @param   in  the stream containing a UTF-8 encoded JSON document
+     */
+    public JsonStreamReader(InputStream in) {
+        this.reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the type of the next token without consuming it.
+     *
+     * @return  the type of the next token
+     */
+    public Token peek() throws IOException {
+        int c = peekSeparated();
+        switch (c) {
+            case -1:  return Token.END_DOCUMENT;
+            case '{': return Token.BEGIN_OBJECT;
+            case '}': return Token.END_OBJECT;
+            case '[': return Token.BEGIN_ARRAY;
+            case ']': return Token.END_ARRAY;
+            case '"': return depth > 0 && isObject[depth - 1] && states[depth - 1] != BEFORE_VALUE ? Token.NAME : Token.STRING;
+            case 't':
+            case 'f': return Token.BOOLEAN;
+            case 'n': return Token.NULL;
+            case ',':
+            case ':': throw syntaxError("a value", c);
+            default:  return Token.NUMBER;
+        }
+    }
+
+    /**
+     * Consumes the start of an object.
+     */
+    public void beginObject() throws IOException {
+        expect('{');
+        push(true);
+    }
+
+    /**
+     * Consumes the end of an object.
+     */
+    public void endObject() throws IOException {
+        expect('}');
+        depth--;
+        valueConsumed();
+    }
+
+    /**
+     * Consumes the start of an array.
+     */
+    public void beginArray() throws IOException {
+        expect('[');
+        push(false);
+    }
+
+    /**
+     * Consumes the end of an array.
+     */
+    public void endArray() throws IOException {
+        expect(']');
+        depth--;
+        valueConsumed();
+    }
+
+    /**
+     * Returns whether or not the current object or array has another element.
+     *
+     * @return  true if the next token is not the end of the current object or array
+     */
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * Consumes the name of the next member of an object.
+     * The same String object is returned every time the same name is read.
+     *
+     * @return  the name of the member
+     */
+    public String nextName() throws IOException {
+        if (peek() != Token.NAME) {
+            throw new IOException("Expected a name but found " + peek());
+        }
+        readString();
+        states[depth - 1] = AFTER_NAME;
+        return lookUpName();
+    }
+
+    /**
+     * Consumes a String value.
+     *
+     * @return  the String value, or null if the value is null
+     */
+    public String nextString() throws IOException {
+        Token token = peek();
+        if (token == Token.NULL) {
+            nextNull();
+            return null;
+        }
+        if (token == Token.STRING) {
+            readString();
+        } else if (token == Token.NUMBER || token == Token.BOOLEAN) {
+            readLiteral();
+        } else {
+            throw new IOException("Expected a string but found " + token);
+        }
+        valueConsumed();
+        return new String(text, 0, textLength);
+    }
+
+    /**
+     * Consumes a number value. Numbers written as Strings are also accepted.
+     *
+     * @return  the number as a double
+     */
+    public double nextDouble() throws IOException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            readString();
+        } else if (token == Token.NUMBER) {
+            readLiteral();
+        } else {
+            throw new IOException("Expected a number but found " + token);
+        }
+        valueConsumed();
+        return parseNumber();
+    }
+
+    /**
+     * Consumes a whole number value. Numbers written as Strings are also accepted.
+     *
+     * @return  the number as an int
+     */
+    public int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IOException("Number too large for an int: " + value);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Consumes a whole number value. Numbers written as Strings are also accepted.
+     *
+     * @return  the number as a long
+     */
+    public long nextLong() throws IOException {
+        Token token = peek();
+        if (token == Token.STRING) {
+            readString();
+        } else if (token == Token.NUMBER) {
+            readLiteral();
+        } else {
+            throw new IOException("Expected a number but found " + token);
+        }
+        valueConsumed();
+        return parseWholeNumber();
+    }
+
+    /**
+     * Consumes a boolean value.
+     *
+     * @return  the boolean value
+     */
+    public boolean nextBoolean() throws IOException {
+        if (peek() != Token.BOOLEAN) {
+            throw new IOException("Expected a boolean but found " + peek());
+        }
+        readLiteral();
+        valueConsumed();
+        return textLength == 4;     // "true" has 4 characters and "false" has 5
+    }
+
+    /**
+     * Consumes a null value.
+     */
+    public void nextNull() throws IOException {
+        if (peek() != Token.NULL) {
+            throw new IOException("Expected null but found " + peek());
+        }
+        readLiteral();
+        valueConsumed();
+    }
+
+    /**
+     * Consumes the next value, including every value nested inside it if it is an object or an array.
+     */
+    public void skipValue() throws IOException {
+        Token token = peek();
+        switch (token) {
+            case BEGIN_OBJECT:
+                beginObject();
+                while (hasNext()) {
+                    nextName();
+                    skipValue();
+                }
+                endObject();
+                break;
+            case BEGIN_ARRAY:
+                beginArray();
+                while (hasNext()) {
+                    skipValue();
+                }
+                endArray();
+                break;
+            case STRING:
+                readString();
+                valueConsumed();
+                break;
+            case NUMBER:
+            case BOOLEAN:
+            case NULL:
+                readLiteral();
+                valueConsumed();
+                break;
+            default:
+                throw new IOException("Expected a value but found " + token);
+        }
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Enters a new object or array.
+     *
+     * @param   object  true for an object and false for an array
+     */
+    private void push(boolean object) {
+        if (depth == isObject.length) {     // Grows the stack for deeply nested documents
+            isObject = Arrays.copyOf(isObject, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+        }
+        isObject[depth] = object;
+        states[depth] = EMPTY;
+        depth++;
+    }
+
+    /**
+     * Records that a value has been consumed, so a comma or the end of the current object or array must come next.
+     */
+    private void valueConsumed() {
+        if (depth > 0) {
+            states[depth - 1] = AFTER_ELEMENT;
+        }
+    }
+
+    /**
+     * Consumes the comma or colon that must come before the next token, and returns the first character of that token without
+     * consuming it. A missing or extra comma or colon is reported as an error instead of being ignored.
+     *
+     * @return  the first character of the next token, or -1 at the end of the stream
+     */
+    private int peekSeparated() throws IOException {
+        int c = peekChar();
+        if (depth == 0) {
+            return c;
+        }
+
+        boolean isInObject = isObject[depth - 1];
+        char end = isInObject ? '}' : ']';
+        int state = states[depth - 1];
+
+        // Consumes the separator after a name or an element
+        if (state == AFTER_NAME) {
+            if (c != ':') {
+                throw syntaxError("':'", c);
+            }
+            position++;
+            state = BEFORE_VALUE;
+            c = peekChar();
+        } else if (state == AFTER_ELEMENT) {
+            if (c == end) {
+                return c;
+            }
+            if (c != ',') {
+                throw syntaxError("',' or '" + end + "'", c);
+            }
+            position++;
+            state = NEXT_ELEMENT;
+            c = peekChar();
+        }
+        states[depth - 1] = state;
+
+        // Checks that the token is allowed at this position
+        if (c == '}' || c == ']') {
+            if (state != EMPTY) {
+                throw syntaxError("a value", c);    // A comma before the end or a member without a value
+            }
+        } else if (isInObject && state != BEFORE_VALUE && c != '"') {
+            throw syntaxError("a name", c);
+        }
+        return c;
+    }
+
+    /**
+     * Creates the exception for a character that is not allowed at the current position.
+     *
+     * @param   expected    a description of what was expected
+     * @param   c           the character that was found, or -1 at the end of the stream
+     * @return              the exception to be thrown
+     */
+    private IOException syntaxError(String expected, int c) {
+        return new IOException("Expected " + expected + " but found " + (c == -1 ? "the end of the document" : "'" + (char) c + "'"));
+    }
+
+    /**
+     * Consumes the next character if it is the expected character.
+     *
+     * @param   expected    the expected character
+     */
+    private void expect(char expected) throws IOException {
+        int c = peekSeparated();
+        if (c != expected) {
+            throw syntaxError("'" + expected + "'", c);
+        }
+        position++;
+    }
+
+    /**
+     * Returns the next character that is not whitespace without consuming it.
+     *
+     * @return  the next character, or -1 at the end of the stream
+     */
+    private int peekChar() throws IOException {
+        while (true) {
+            if (position == limit && !fillBuffer()) {
+                return -1;
+            }
+            char c = buffer[position];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                position++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /**
+     * Reads more characters from the stream into the buffer.
+     *
+     * @return  false if the end of the stream has been reached
+     */
+    private boolean fillBuffer() throws IOException {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit < 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next character, consuming it.
+     *
+     * @return  the next character
+     */
+    private char readChar() throws IOException {
+        if (position == limit && !fillBuffer()) {
+            throw new IOException("Unexpected end of JSON document");
+        }
+        return buffer[position++];
+    }
+
+    /**
+     * Reads a quoted String into the text buffer, replacing any escape sequences.
+     */
+    private void readString() throws IOException {
+        expect('"');
+        textLength = 0;
+
+        while (true) {
+            char c = readChar();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                c = readChar();
+                switch (c) {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            code = (code << 4) | Character.digit(readChar(), 16);
+                        }
+                        c = (char) code;
+                        break;
+                    default: break;     // Covers \" \\ and \/
+                }
+            }
+            appendText(c);
+        }
+    }
+
+    /**
+     * Reads an unquoted number, boolean or null into the text buffer.
+     */
+    private void readLiteral() throws IOException {
+        textLength = 0;
+        while (true) {
+            if (position == limit && !fillBuffer()) {
+                return;
+            }
+            char c = buffer[position];
+            if (c == ',' || c == ':' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                return;
+            }
+            appendText(c);
+            position++;
+        }
+    }
+
+    /**
+     * Adds a character to the text buffer, growing the buffer if needed.
+     *
+     * @param   c   the character to be added
+     */
+    private void appendText(char c) {
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, text.length * 2);
+        }
+        text[textLength++] = c;
+    }
+
+    /**
+     * Returns the String for the name in the text buffer, reusing the String from an earlier read of the same name.
+     *
+     * @return  the name as a String
+     */
+    private String lookUpName() {
+        int hash = 0;
+        for (int i = 0; i < textLength; i++) {
+            hash = 31 * hash + text[i];
+        }
+
+        int slot = hash & (names.length - 1);
+        String name = names[slot];
+        if (name != null && name.hashCode() == hash && isTextEqualTo(name)) {
+            return name;
+        }
+
+        name = new String(text, 0, textLength);
+        names[slot] = name;     // Replaces any other name in the same slot
+        return name;
+    }
+
+    /**
+     * Compares the text buffer with a String without creating a new String.
+     *
+     * @param   value   the String to compare with
+     * @return          true if the text buffer contains the same characters as the String
+     */
+    private boolean isTextEqualTo(String value) {
+        if (value.length() != textLength) {
+            return false;
+        }
+        for (int i = 0; i < textLength; i++) {
+            if (value.charAt(i) != text[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Converts the number in the text buffer into a double.
+     * Numbers with up to 15 digits and no exponent are converted directly, which covers every number sent by the API.
+     * Any other number is converted by Double.parseDouble() so the result is always correctly rounded.
+     *
+     * @return  the value of the number
+     */
+    private double parseNumber() throws IOException {
+        int i = 0;
+        boolean isNegative = textLength > 0 && text[0] == '-';
+        if (isNegative) {
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean isFraction = false;
+
+        for (; i < textLength; i++) {
+            char c = text[i];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (isFraction) {
+                    fractionDigits++;
+                }
+            } else if (c == '.' && !isFraction) {
+                isFraction = true;
+            } else {
+                break;  // An exponent or an unexpected character
+            }
+        }
+
+        if (i == textLength && digits > 0 && digits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = mantissa / POWERS_OF_TEN[fractionDigits];  // Exact since both numbers are exactly representable
+            return isNegative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(new String(text, 0, textLength));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid number: " + new String(text, 0, textLength));
+        }
+    }
+
+    /**
+     * Converts the whole number in the text buffer into a long without going through a double, so no precision is lost above 2^53.
+     * A number with a fraction or an exponent is converted by parseNumber() and the fraction is dropped.
+     *
+     * @return  the value of the number
+     */
+    private long parseWholeNumber() throws IOException {
+        int i = 0;
+        boolean isNegative = textLength > 0 && text[0] == '-';
+        if (isNegative) {
+            i++;
+        }
+
+        if (i == textLength) {
+            return (long) parseNumber();    // Reports the missing digits
+        }
+
+        // Accumulates as a negative number, since Long.MIN_VALUE has no positive equivalent
+        long value = 0;
+        for (; i < textLength; i++) {
+            char c = text[i];
+            if (c < '0' || c > '9') {
+                return (long) parseNumber();    // A fraction or an exponent
+            }
+            int digit = c - '0';
+            if (value < (Long.MIN_VALUE + digit) / 10 || (!isNegative && value * 10 - digit == Long.MIN_VALUE)) {
+                throw new IOException("Number too large for a long: " + new String(text, 0, textLength));
+            }
+            value = value * 10 - digit;
+        }
+        return isNegative ? value : -value;
+    }
+}
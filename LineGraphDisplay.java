@@ -1,19 +1,22 @@
 import greenfoot.*;
-import java.util.ArrayList;
 
 /**
  * The LineGraphDisplay class displays an image of a line graph which contains the forecast weather data from a city. The graph shows
- * the time of each forecast on the x-axis in HH:mm and shows the temperature of the data metric in Celcius (°C). The line graph displays
+ * the time of each forecast on the x-axis in HH:mm and shows the value of the weather metric chosen in the GraphScreen world on the y-axis,
+ * with grid lines spaced so that no more than 20 are drawn whatever the range of the metric. The line graph displays
  * 8 points of the forecast at a time since each day is split into 3-hour segments. There are 5 days in total, which means there are 40
  * data points that can be displayed for a data metric. This class contains methods to draw the graph, and update it to view the next and 
- * previous days.
+ * previous days. The grid, the axis labels and the headers are drawn once onto a separate layer which is kept until the range of the
+ * y-axis or the times on the x-axis change, so moving between days or refreshing the data normally only redraws the line and the title.
+ * While there is no data to draw, such as when a city is still being fetched, the graph shows a message instead.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
  */
 public class LineGraphDisplay extends Actor {
     private GraphScreen graphScreen;
-    private ForecastWeatherData weatherData;
+    private ForecastWeatherData weatherData;    // Null while there is no data to draw
+    private String message = "";                // Shown instead of the graph while there is no data
     
     // LineGraphDisplay dimensions
     private int width = 500;
@@ -22,9 +25,18 @@ public class LineGraphDisplay extends Actor {
     // Days are indexed 0-4 (each day has 8 points)
     private int dayIndex = 0;  // 0 = day 1, 1 = day 2 etc.
     
-    // Min and Max values of the line graph
+    // Min and Max values of the line graph and the gap between the grid lines of the y-axis
     private double globalMin;
     private double globalMax;
+    private double yStep;
+    private static final int MAX_Y_LINES = 20;
+    
+    // The image shown by the actor, and the layer of grid lines, labels and headers with the metric, range and times it was drawn for
+    private GreenfootImage graphImage;
+    private GreenfootImage gridLayer;
+    private WeatherMetric gridMetric;
+    private double gridMin, gridMax;
+    private String gridTimes;
     
     // Colors and Font
     private static final Color GRAPH_COLOR = Color.LIGHT_GRAY;
@@ -38,7 +50,7 @@ public class LineGraphDisplay extends Actor {
      * Constructor for objects of class LineGraphDisplay.
      * 
      * @param   graphScreen     the GraphScreen world the LineGraphDisplay is in
-     * @param   weatherData     the ForecastWeatherData object containing the weather data of the city
+     * @param   weatherData     the ForecastWeatherData object containing the weather data of the city, or null if it is not available yet
      */
     public LineGraphDisplay(GraphScreen graphScreen, ForecastWeatherData weatherData) {
         this.graphScreen = graphScreen;
@@ -48,6 +60,8 @@ public class LineGraphDisplay extends Actor {
 
     /**
      * Returns the ForecastWeatherData object held by this LineGraphDisplay object.
+     * 
+     * @return      the forecast data being drawn, or null if a message is being shown instead
      */
     public ForecastWeatherData getWeatherData() {
         return weatherData;
@@ -67,7 +81,7 @@ public class LineGraphDisplay extends Actor {
      * The latest day that can be viewed is day 5.
      */
     public void nextDay() {
-        if (dayIndex < 4) {
+        if (weatherData != null && dayIndex < 4) {
             dayIndex++;
             updateGraph();
         }
@@ -78,7 +92,7 @@ public class LineGraphDisplay extends Actor {
      * The earliest day that can be viewed is day 1.
      */
     public void prevDay() {
-        if (dayIndex > 0) {
+        if (weatherData != null && dayIndex > 0) {
             dayIndex--;
             updateGraph();
         }
@@ -89,9 +103,18 @@ public class LineGraphDisplay extends Actor {
      * The new graph will be drawn to accomodate for all the points within these values.
      */
     public void updateGraph() {
-        ArrayList<ThreeHourForecast> forecasts = weatherData.getForecasts();
-        calculateGlobalMinMax(forecasts);
-        drawGraph(forecasts);
+        if (weatherData == null) {
+            drawMessage();
+            return;
+        }
+        
+        ForecastColumns forecasts = weatherData.getForecastColumns();
+        double[] values = getValues();
+        calculateGlobalMinMax();
+        
+        long start = PerformanceMonitor.start();
+        drawGraph(forecasts, values);
+        PerformanceMonitor.record("LineGraphDisplay.drawGraph", start);
     }
 
     /**
@@ -107,97 +130,207 @@ public class LineGraphDisplay extends Actor {
     }
     
     /**
-     * Returns the value from a specific forecast depending on the current type stored in the GraphScreen world.
+     * Replaces the weather data for the line graph with newer data for the same city before redrawing the graph.
+     * The day index is kept so the user stays on the same day.
      * 
-     * @param   forecast    the specfic ThreeHourForecast object
-     * @return              the value of the weather metric in that specific forecast
+     * @param   newData     the updated ForecastWeatherData object to be displayed
      */
-    public double getValue(ThreeHourForecast forecast) {
-        switch (graphScreen.getGraphType()) {
-            case "Temperature": return forecast.getTemperature();
-            case "Feels Like": return forecast.getFeelsLike();
-            default: return forecast.getTemperature();
+    public void refreshData(ForecastWeatherData newData) {
+        this.weatherData = newData;
+        updateGraph();
+    }
+    
+    /**
+     * Removes the weather data from the line graph and shows a message instead, such as while the data of a new city is being fetched.
+     * The day index will be reset to 0 (day 1).
+     * 
+     * @param   message     the text to be shown
+     */
+    public void showMessage(String message) {
+        this.weatherData = null;
+        this.message = message;
+        this.dayIndex = 0;
+        drawMessage();
+    }
+    
+    /**
+     * Draws the message in the middle of an empty graph.
+     */
+    private void drawMessage() {
+        if (graphImage == null) {
+            graphImage = new GreenfootImage(width, height);
         }
+        graphImage.clear();
+        graphImage.setColor(GRAPH_COLOR);
+        graphImage.drawRect(50, 20, width - 65, 230);   // Outline of the area the line is drawn in
+        graphImage.setColor(HEADER_COLOR);
+        graphImage.setFont(HEADER_FONT);
+        graphImage.drawString(message, (width - message.length() * 8) / 2, 140);
+        
+        setImage(graphImage);
     }
     
     /**
-     * Calculates the smallest and largest number of the values to be displayed on the y-axis.
+     * Returns the column of values for every forecast depending on the current type stored in the GraphScreen world.
+     * The array is the one stored in the forecast data, so it must not be modified.
      * 
-     * @param   forecasts   an ArrayList of ThreeHourForecast objects
+     * @return  an array containing the value of the weather metric in every forecast
      */
-    private void calculateGlobalMinMax(ArrayList<ThreeHourForecast> forecasts) {
-        // Initial max and min values
-        globalMin = Double.POSITIVE_INFINITY;
-        globalMax = Double.NEGATIVE_INFINITY;
-
-        for (ThreeHourForecast forecast : forecasts) {
-            double value = getValue(forecast);          // Compare the value in every forecast
-            globalMin = Math.min(globalMin, value);
-            globalMax = Math.max(globalMax, value);
+    public double[] getValues() {
+        return graphScreen.getGraphType().getForecastValues(weatherData.getForecastColumns());
+    }
+    
+    /**
+     * Calculates the smallest and largest number of the values to be displayed on the y-axis, and the gap between its grid lines.
+     * The smallest and largest values across every forecast are looked up from the aggregates of the forecast data.
+     */
+    private void calculateGlobalMinMax() {
+        ForecastAggregates aggregates = weatherData.getAggregates();
+        WeatherMetric metric = graphScreen.getGraphType();
+        double min = aggregates.getOverallMin(metric);
+        double max = aggregates.getOverallMax(metric);
+        if (min > max) {    // Every reading is missing
+            min = 0;
+            max = 0;
         }
 
-        globalMin = Math.floor(globalMin);  // Rounds down
-        globalMax = Math.ceil(globalMax);   // Rounds up
+        yStep = calculateStep(max - min);
+        globalMin = Math.floor(min / yStep) * yStep;  // Rounds down to a grid line
+        globalMax = Math.ceil(max / yStep) * yStep;   // Rounds up to a grid line
+        if (globalMax <= globalMin) {
+            globalMax = globalMin + yStep;  // Leaves room for a flat line, such as a day without rain
+        }
     }
     
     /**
-     * Draws the entire grid and the points of the line graph using the list of forecast data.
-     * Uses three helper functions to draw the y-axis lines, the x-axis lines and the points themselves.
+     * Calculates the gap between the grid lines of the y-axis, which is 1, 2 or 5 multiplied by a power of 10.
+     * The gap is 1 unless the values are spread too widely for 20 lines, or span less than 2 units, such as the chance of precipitation.
+     * The MultiSeriesGraph uses the same gaps so that both graphs label their axes in the same way.
      * 
-     * @param   forecasts   an ArrayList containing all 40 ThreeHourForecast objects
+     * @param   range   the difference between the largest and smallest values
+     * @return          the gap between the grid lines
      */
-    private void drawGraph(ArrayList<ThreeHourForecast> forecasts) {
-        GreenfootImage image = new GreenfootImage(width, height);
-        
+    static double calculateStep(double range) {
+        double minStep = range < 2 ? 0.1 : 1;
+        double magnitude = Math.pow(10, Math.floor(Math.log10(Math.max(range / MAX_Y_LINES, minStep))));
+        for (double multiplier : new double[] {1, 2, 5, 10}) {
+            double step = multiplier * magnitude;
+            if (step >= minStep && range / step <= MAX_Y_LINES) {
+                return step;
+            }
+        }
+        return 10 * magnitude;
+    }
+    
+    /**
+     * Draws the grid and the points of the line graph using the list of forecast data.
+     * The grid layer is only redrawn if the range of the y-axis or the times on the x-axis have changed, otherwise only the line and
+     * the title are drawn on top of the cached layer.
+     * 
+     * @param   forecasts   the ForecastColumns object containing all 40 forecasts
+     * @param   values      the value of the weather metric in every forecast
+     */
+    private void drawGraph(ForecastColumns forecasts, double[] values) {
         // Calculates the space between each line for the x-axis and y-axis
         double xSpacing = (width - 80) / 7.0;
         double ySpacing = (height - 85) / (globalMax - globalMin);
         
-        // Draws the lines after the grid has been drawn
-        drawYAxisGrid(image, ySpacing);
-        drawXAxisGrid(image, forecasts, xSpacing);
-        drawLineGraph(image, forecasts, xSpacing, ySpacing);
+        // Redraws the grid layer only when it no longer matches the data
+        WeatherMetric metric = graphScreen.getGraphType();
+        String times = getTimes(forecasts);
+        if (gridLayer == null || metric != gridMetric || globalMin != gridMin || globalMax != gridMax || !times.equals(gridTimes)) {
+            long start = PerformanceMonitor.start();
+            drawGridLayer(forecasts, xSpacing, ySpacing);
+            PerformanceMonitor.record("LineGraphDisplay.drawGridLayer", start);
+            gridMetric = metric;
+            gridMin = globalMin;
+            gridMax = globalMax;
+            gridTimes = times;
+        }
+        
+        // Draws the lines on top of a copy of the grid layer
+        if (graphImage == null) {
+            graphImage = new GreenfootImage(width, height);
+        }
+        graphImage.clear();
+        graphImage.drawImage(gridLayer, 0, 0);
+        drawLineGraph(graphImage, values, xSpacing, ySpacing);
         
         // Draws the header
-        image.setColor(HEADER_COLOR);
-        image.setFont(HEADER_FONT);
-        image.drawString(graphScreen.getGraphType() + " in " + weatherData.getCityName() + " - Day " + (dayIndex + 1), 75, 10); // Title at the top
+        graphImage.setColor(HEADER_COLOR);
+        graphImage.setFont(HEADER_FONT);
+        graphImage.drawString(metric.getName() + " in " + weatherData.getCityName() + " - Day " + (dayIndex + 1), 75, 10); // Title at the top
+        
+        setImage(graphImage);
+    }
+    
+    /**
+     * Draws the grid lines, the axis labels and the axis headers onto the grid layer.
+     * 
+     * @param   forecasts   the ForecastColumns object containing all 40 forecasts
+     * @param   xSpacing    the spacing between the x-axis values
+     * @param   ySpacing    the spacing between the y-axis values
+     */
+    private void drawGridLayer(ForecastColumns forecasts, double xSpacing, double ySpacing) {
+        if (gridLayer == null) {
+            gridLayer = new GreenfootImage(width, height);
+        }
+        gridLayer.clear();
         
-        setImage(image);
+        drawYAxisGrid(gridLayer, ySpacing);
+        drawXAxisGrid(gridLayer, forecasts, xSpacing);
+    }
+    
+    /**
+     * Returns the times shown on the x-axis for the current day joined together, used to check whether the grid layer is still correct.
+     * 
+     * @param   forecasts   the ForecastColumns object containing all 40 forecasts
+     * @return              the times of the 8 forecasts of the day, such as "00:0003:00..."
+     */
+    private String getTimes(ForecastColumns forecasts) {
+        StringBuilder times = new StringBuilder(40);
+        for (int i = 0; i < 8; i++) {
+            times.append(forecasts.getTimestampString(dayIndex * 8 + i), 11, 16);   // The characters for the time e.g. "09:00"
+        }
+        return times.toString();
     }
     
     /**
-     * Draws the the horizontal lines of the y-axis, the integer intervals and the header for the y-axis.
+     * Draws the the horizontal lines of the y-axis, the intervals and the header for the y-axis.
      * 
      * @param   image       the image for the line graph to be displayed on
      * @param   ySpacing    the spacing between the y-axis values
      */
     private void drawYAxisGrid(GreenfootImage image, double ySpacing) {        
-        // Loops through every integer from globalMin to globalMax
-        for (int value = (int) globalMin; value <= (int) globalMax; value++) {          
+        // Loops through every grid line from globalMin to globalMax
+        int lineCount = (int) Math.round((globalMax - globalMin) / yStep);
+        for (int i = 0; i <= lineCount; i++) {
+            double value = globalMin + i * yStep;
+            
             // Draws the horizontal grid line
             image.setColor(GRAPH_COLOR);
             int yPos = 250 - (int) ((value - globalMin) * ySpacing);  // The lines are drawn upwards one by one
             image.drawLine(50, yPos, width - 15, yPos);
     
-            // Draws the y-axis labels
+            // Draws the y-axis labels, ending at the same place however many digits they have
             image.setColor(Y_AXIS_COLOR);
-            image.drawString(value + "", 30, yPos + 5);
+            String label = yStep < 1 ? String.format("%.1f", value) : String.valueOf(Math.round(value));
+            image.drawString(label, 44 - label.length() * 7, yPos + 5);
         }
         
         // Draws the header
         image.setColor(HEADER_COLOR);
-        image.drawString("Temp (°C)", 5, 10); // Y-axis label
+        image.drawString(graphScreen.getGraphType().getAxisLabel(), 5, 10); // Y-axis label
     }
 
     /**
      * Draws the the vertical lines of the y-axis, the time intervals and the header for the x-axis.
      * 
      * @param   image       the image for the line graph to be displayed on
-     * @param   forecasts   an ArrayList containing all 40 ThreeHourForecast objects
+     * @param   forecasts   the ForecastColumns object containing all 40 forecasts
      * @param   xSpacing    the spacing between the x-axis values
      */
-    private void drawXAxisGrid(GreenfootImage image, ArrayList<ThreeHourForecast> forecasts, double xSpacing) {
+    private void drawXAxisGrid(GreenfootImage image, ForecastColumns forecasts, double xSpacing) {
         // 8 is the maximum that will be shown in one graph
         for (int i = 0; i < 8; i++) {
             int xPos = (int) (50 + i * xSpacing);
@@ -209,7 +342,7 @@ public class LineGraphDisplay extends Actor {
             // Draws the x-axis labels
             image.setColor(X_AXIS_COLOR);
             int index = dayIndex * 8 + i;  // Calculates each specific forecast index
-            String timestampString = forecasts.get(index).getTimestampString();
+            String timestampString = forecasts.getTimestampString(index);
             String time = timestampString.substring(11, 16);   // The characters for the time e.g. "09:00"
             image.drawString(time, xPos - 15, 270);
         }
@@ -223,31 +356,40 @@ public class LineGraphDisplay extends Actor {
      * Draws the the points onto the line graph and the lines connecting them.
      * 
      * @param   image       the image for the line graph to be displayed on
-     * @param   forecasts   an ArrayList containing all 40 ThreeHourForecast objects
+     * @param   values      the value of the weather metric in every forecast
      * @param   xSpacing    the spacing between the x-axis values
      * @param   ySpacing    the spacing between the y-axis values
      */
-    private void drawLineGraph(GreenfootImage image, ArrayList<ThreeHourForecast> forecasts, double xSpacing, double ySpacing) {
+    private void drawLineGraph(GreenfootImage image, double[] values, double xSpacing, double ySpacing) {
         image.setColor(LINE_COLOR);
+        WeatherMetric metric = graphScreen.getGraphType();
+        
         // Initialises the previous position of dots
         int prevX = 0;
         int prevY = 0;
+        boolean hasPrevDot = false;
 
         // 8 is the maximum that will be shown in one graph
         for (int i = 0; i < 8; i++) {
+            int index = dayIndex * 8 + i;
+            if (metric.isMissing(values[index])) {  // No dot is drawn for a missing reading, leaving a gap in the line
+                hasPrevDot = false;
+                continue;
+            }
+            
             // Calculates x and y positions
             int xPos = (int) (50 + i * xSpacing);
-            int index = dayIndex * 8 + i;
-            int yPos = 250 - (int) ((getValue(forecasts.get(index)) - globalMin) * ySpacing);
+            int yPos = 250 - (int) ((values[index] - globalMin) * ySpacing);
 
             image.fillOval(xPos - 3, yPos - 3, 6, 6); // Draw dots on each point
-            if (i > 0) {  // Draws a line if there exists 2 or more dots
+            if (hasPrevDot) {  // Draws a line if the previous dot was drawn
                 image.drawLine(prevX, prevY, xPos, yPos);
             }
             
             // Stores the most recent position as the previous position
             prevX = xPos;
             prevY = yPos;
+            hasPrevDot = true;
         }
     }
     
@@ -0,0 +1,199 @@
+/**
+ * The MapProjection class converts between latitude and longitude coordinates and pixel coordinates on the screen of the MapScreen
+ * world. The map image is a simple equirectangular projection, so once the map has been zoomed and panned each conversion is a single
+ * multiplication and addition. The multipliers and offsets of both axes are calculated from the position and size of the zoomed map
+ * only when the map is zoomed or panned, and every conversion is done with doubles, so positions are only rounded to whole pixels at the
+ * very end and the markers stay on the same point of the map at every zoom level. Many cities can be converted in one pass into arrays
+ * that are reused for every frame, so no objects are created while the map is being drawn.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class MapProjection {
+    // Coordinates of the edges of the map image
+    private final double topLat, bottomLat, leftLon, rightLon;
+
+    // Height of the map image before it is zoomed
+    private final int mapHeight;
+    private final int mapShiftY;    // Number of pixels the coordinates are drawn below their position on the map image
+
+    // Position and size of the zoomed map on the screen
+    private int mapX, mapY;
+    private int scaledWidth = -1, scaledHeight = -1;
+
+    // screenX = lonScale * lon + lonOffset and screenY = latScale * lat + latOffset
+    private double lonScale, lonOffset;
+    private double latScale, latOffset;
+
+    /**
+     * Constructor for objects of class MapProjection.
+     * The map starts at the top left corner of the screen at its original size until update() is called.
+     *
+     * @param   topLat      the latitude of the top edge of the map image
+     * @param   bottomLat   the latitude of the bottom edge of the map image
+     * @param   leftLon     the longitude of the left edge of the map image
+     * @param   rightLon    the longitude of the right edge of the map image
+     * @param   mapWidth    the width of the map image before it is zoomed
+     * @param   mapHeight   the height of the map image before it is zoomed
+     * @param   mapShiftY   the number of pixels the coordinates are drawn below their position on the map image
+     */
+    public MapProjection(double topLat, double bottomLat, double leftLon, double rightLon, int mapWidth, int mapHeight, int mapShiftY) {
+        this.topLat = topLat;
+        this.bottomLat = bottomLat;
+        this.leftLon = leftLon;
+        this.rightLon = rightLon;
+        this.mapHeight = mapHeight;
+        this.mapShiftY = mapShiftY;
+
+        update(0, 0, mapWidth, mapHeight);
+    }
+
+    /**
+     * Recalculates the conversions for a new position or size of the zoomed map.
+     * Nothing is recalculated if the map has not moved or changed size.
+     *
+     * @param   mapX            the x coordinate of the top left corner of the zoomed map on the screen
+     * @param   mapY            the y coordinate of the top left corner of the zoomed map on the screen
+     * @param   scaledWidth     the width of the zoomed map
+     * @param   scaledHeight    the height of the zoomed map
+     * @return                  true if the conversions have changed
+     */
+    public boolean update(int mapX, int mapY, int scaledWidth, int scaledHeight) {
+        if (mapX == this.mapX && mapY == this.mapY && scaledWidth == this.scaledWidth && scaledHeight == this.scaledHeight) {
+            return false;
+        }
+        this.mapX = mapX;
+        this.mapY = mapY;
+        this.scaledWidth = scaledWidth;
+        this.scaledHeight = scaledHeight;
+
+        // A longitude is first placed on the map image, then scaled with the map and moved to where the map is drawn
+        lonScale = scaledWidth / (rightLon - leftLon);
+        lonOffset = mapX - leftLon * lonScale;
+
+        // Latitudes decrease down the screen, and are shifted down by mapShiftY pixels of the map image
+        double scaleY = scaledHeight / (double) mapHeight;
+        latScale = -scaledHeight / (topLat - bottomLat);
+        latOffset = mapY + topLat * scaledHeight / (topLat - bottomLat) + mapShiftY * scaleY;
+        return true;
+    }
+
+    /**
+     * Returns the x coordinate of the top left corner of the zoomed map.
+     *
+     * @return  the x coordinate on the screen
+     */
+    public int getMapX() {
+        return mapX;
+    }
+
+    /**
+     * Returns the y coordinate of the top left corner of the zoomed map.
+     *
+     * @return  the y coordinate on the screen
+     */
+    public int getMapY() {
+        return mapY;
+    }
+
+    /**
+     * Returns the width of the zoomed map.
+     *
+     * @return  the width in pixels
+     */
+    public int getScaledWidth() {
+        return scaledWidth;
+    }
+
+    /**
+     * Returns the height of the zoomed map.
+     *
+     * @return  the height in pixels
+     */
+    public int getScaledHeight() {
+        return scaledHeight;
+    }
+
+    /**
+     * Converts a longitude coordinate into an x coordinate on the screen.
+     *
+     * @param   lon     the longitude coordinate to be converted
+     * @return          the x coordinate, which is not rounded
+     */
+    public double toScreenX(double lon) {
+        return lonScale * lon + lonOffset;
+    }
+
+    /**
+     * Converts a latitude coordinate into a y coordinate on the screen.
+     *
+     * @param   lat     the latitude coordinate to be converted
+     * @return          the y coordinate, which is not rounded
+     */
+    public double toScreenY(double lat) {
+        return latScale * lat + latOffset;
+    }
+
+    /**
+     * Converts an x coordinate on the screen into a longitude coordinate.
+     *
+     * @param   x   the x coordinate to be converted
+     * @return      the longitude coordinate
+     */
+    public double toLongitude(double x) {
+        return (x - lonOffset) / lonScale;
+    }
+
+    /**
+     * Converts a y coordinate on the screen into a latitude coordinate.
+     *
+     * @param   y   the y coordinate to be converted
+     * @return      the latitude coordinate
+     */
+    public double toLatitude(double y) {
+        return (y - latOffset) / latScale;
+    }
+
+    /**
+     * Converts many coordinates into pixel coordinates on the screen in one pass, rounding each to the nearest pixel.
+     * The arrays given for the results are filled in place so they can be reused for every frame.
+     *
+     * @param   lats    the latitude coordinates to be converted
+     * @param   lons    the longitude coordinates to be converted
+     * @param   count   the number of coordinates to be converted
+     * @param   xs      the array the x coordinates are stored in, with room for at least count values
+     * @param   ys      the array the y coordinates are stored in, with room for at least count values
+     */
+    public void project(double[] lats, double[] lons, int count, int[] xs, int[] ys) {
+        // Copies the fields into local variables so the loop does not read them from the object each time
+        double lonScale = this.lonScale, lonOffset = this.lonOffset;
+        double latScale = this.latScale, latOffset = this.latOffset;
+
+        for (int i = 0; i < count; i++) {
+            xs[i] = (int) Math.floor(lonScale * lons[i] + lonOffset + 0.5);
+            ys[i] = (int) Math.floor(latScale * lats[i] + latOffset + 0.5);
+        }
+    }
+
+    /**
+     * Converts some of the coordinates in a pair of arrays into pixel coordinates on the screen in one pass, rounding each to the
+     * nearest pixel. The results are stored in the same order as the positions they were converted from.
+     *
+     * @param   lats        the latitude coordinates
+     * @param   lons        the longitude coordinates
+     * @param   positions   the positions in the coordinate arrays of the coordinates to be converted
+     * @param   count       the number of positions to be converted
+     * @param   xs          the array the x coordinates are stored in, with room for at least count values
+     * @param   ys          the array the y coordinates are stored in, with room for at least count values
+     */
+    public void project(double[] lats, double[] lons, int[] positions, int count, int[] xs, int[] ys) {
+        double lonScale = this.lonScale, lonOffset = this.lonOffset;
+        double latScale = this.latScale, latOffset = this.latOffset;
+
+        for (int i = 0; i < count; i++) {
+            int position = positions[i];
+            xs[i] = (int) Math.floor(lonScale * lons[position] + lonOffset + 0.5);
+            ys[i] = (int) Math.floor(latScale * lats[position] + latOffset + 0.5);
+        }
+    }
+}
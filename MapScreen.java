@@ -1,9 +1,10 @@
 import greenfoot.*;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The MapScreen class is the central class for this program. When this class is initialised and running as an object, it will always
@@ -11,7 +12,10 @@ import java.util.List;
  * Pressing the W, A, S and D keys will pan the map up, left, down and right respectively. Clicking anywhere on the map will display 
  * current weather information from the nearest marked city with respect to the position of the mouse click. Clicking on any toggles 
  * will update the information shown on the weather display based on the status of the toggles. Pressing the right arrow key when fully
- * zoomed in and having the selected city visible on the screen will allow the user to switch to the GraphScreen world. 
+ * zoomed in and having the selected city visible on the screen will allow the user to switch to the GraphScreen world, where the selected
+ * city can be compared with the cities selected before it, or with the cities nearest to it if only a few have been selected. Pressing 
+ * the H key will show a heatmap of the temperature, humidity or wind speed across the map, estimated from the weather of the fetched 
+ * cities. Pressing F3 will show how long each frame and each slow part of the program takes.
  * 
  * @author Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -22,30 +26,69 @@ public class MapScreen extends World {
     private final double BOTTOM_LAT = 49.00;  
     private final double LEFT_LON = -10.48;  
     private final double RIGHT_LON = 1.77;  
+    private final int MAP_SHIFT_Y = 20;     // Number of pixels the cities are drawn below their position on the map image
     
     // Stores the cities from the text file
-    private ArrayList<City> cities = new ArrayList<>();
+    private CityCatalogue cities;
+    private CityIndex cityIndex;    // Finds the nearest city to a click without checking every city
     
     // Stores the most recent mouse clicks and selected cities
     private double lastMouseLat = 0, lastMouseLon = 0;
+    private List<City> recentCities = new ArrayList<>();   // Most recently selected first
+    private static final int COMPARISON_CITY_COUNT = 5;     // Number of cities compared on the graph screen
     
-    // Map image and weather display objects yet to be initialised
+    // Map image, pre-scaled map tiles and weather display objects yet to be initialised
     private GreenfootImage map;
+    private MapTileCache mapTiles;
     private CurrentWeatherDisplay weatherDisplay;
+    private WeatherOverlay weatherOverlay;  // Heatmap drawn between the map and the city markers
+    private DebugOverlay debugOverlay;      // Table of measurements from the PerformanceMonitor
     
     // Zoom and pan figures
     private double zoomFactor = 1.0;
     private final double MIN_ZOOM = 1.0;    // Prevents zooming out smaller than original size
     private final double MAX_ZOOM = 5.0; 
-    private int currentMapWidth, currentMapHeight;  // Tracks the zoomed map dimensions
+    private final double ZOOM_STEP = 0.1;   // Each zoom step has its own level in the map tile cache
 
     // Tracks the horizontal and vertical panning offsets
     private int offsetX = 0;
     private int offsetY = 0;
     
+    // Converts between coordinates and the screen for the current zoom and pan, and the zoom and pan it was last updated for
+    private MapProjection projection;
+    private double projectedZoom = -1;
+    private int projectedOffsetX, projectedOffsetY;
+    
+    // Cities on the screen, their screen coordinates and the zoom and pan they were found for, reused until the map is zoomed or panned
+    private int[] visibleCities, cityScreenX, cityScreenY;
+    private int visibleCityCount;
+    private double markersZoom = -1;
+    private int markersOffsetX, markersOffsetY;
+    
     // Graph Screen
     private GraphScreen graphScreen;
     
+    // Prefetching the weather of every city when the world is created
+    private static final boolean PREFETCH_ON_STARTUP = false;   // Set to true to warm the cache (uses one API call per city)
+    private static final int PREFETCH_CONCURRENCY = 4;
+    private static final long PREFETCH_INTERVAL_MILLIS = 1000;  // Stays within 60 calls per minute on the free API plan
+    
+    // Writing the performance measurements to the terminal while the scenario is running
+    private static final boolean DUMP_PERFORMANCE = false;      // Set to true to print the measurements at a fixed interval
+    private static final long PERFORMANCE_DUMP_INTERVAL_MILLIS = 30 * 1000L;
+    
+    // Remembers the selected city between runs of the program
+    private WeatherDiskStore diskStore = new WeatherDiskStore();
+    
+    // State of the most recently drawn frame, used to skip drawing when nothing has changed
+    private GreenfootImage baseLayer;   // The sea, map, heatmap and city markers without the markers drawn by clicking
+    private boolean isBaseLayerStale;   // Set when the heatmap changes, since it does not change the zoom or pan
+    private Rectangle overlayBounds;    // The area covered by the markers drawn by clicking
+    private double renderedZoom;
+    private int renderedOffsetX, renderedOffsetY;
+    private City renderedSelectedCity;
+    private double renderedMouseLat, renderedMouseLon;
+    
     // Colors
     private static final Color SEA_COLOR = new Color(22,187,255);   // Custom blue
     private static final Color MOUSE_CLICK_COLOR = Color.YELLOW;
@@ -62,16 +105,38 @@ public class MapScreen extends World {
         
         // Creates the map and the city markers
         map = new GreenfootImage("united-kingdom.png");   // Set the UK map as the background
-        loadCitiesFromFile("cities.txt");
+        mapTiles = new MapTileCache(map, MIN_ZOOM, MAX_ZOOM, ZOOM_STEP);
+        cities = CityCatalogue.load("cities.txt");
+        cityIndex = cities.getIndex();
+        projection = new MapProjection(TOP_LAT, BOTTOM_LAT, LEFT_LON, RIGHT_LON, getWidth(), getHeight(), MAP_SHIFT_Y);
+        visibleCities = new int[cities.size()];
+        cityScreenX = new int[cities.size()];
+        cityScreenY = new int[cities.size()];
     
         // Initialises a CurrentWeatherDisplay object and adds it to the screen
-        weatherDisplay = new CurrentWeatherDisplay(new CurrentWeatherFetcher(), new ToggleManager());
+        CurrentWeatherFetcher fetcher = new CurrentWeatherFetcher();
+        weatherDisplay = new CurrentWeatherDisplay(fetcher, new ToggleManager());
         addObject(weatherDisplay, 145, 110);
         
+        // Creates the heatmap, which stays hidden until the H key is pressed
+        weatherOverlay = new WeatherOverlay(map, TOP_LAT, BOTTOM_LAT, LEFT_LON, RIGHT_LON, MAP_SHIFT_Y, fetcher, cities.getCities());
+        
+        // Fetches the weather for every city in the background so the first click on any city is instant
+        if (PREFETCH_ON_STARTUP) {
+            new WeatherPrefetcher(fetcher, PREFETCH_CONCURRENCY, PREFETCH_INTERVAL_MILLIS).prefetch(cities.getCities());
+        }
+        
         // Adds the remaining actors to the screen
         addTogglesToScreen();
         addKeyIconsToScreen();
         
+        // Adds the debug overlay last so it is drawn on top of the other actors
+        debugOverlay = new DebugOverlay(getWidth());
+        addObject(debugOverlay, 0, 0);
+        
+        // Shows the city that was selected when the program was last closed
+        restoreSelectedCity();
+        
         // Draws all map and city markers onto the screen
         redraw();
     }
@@ -85,42 +150,45 @@ public class MapScreen extends World {
         return weatherDisplay;
     }
     
+    /**
+     * Starts refreshing the weather of the selected city in the background when the scenario starts running.
+     */
+    @Override
+    public void started() {
+        weatherDisplay.startRefreshing(WeatherRefreshScheduler.DEFAULT_INTERVAL_MILLIS);
+        if (DUMP_PERFORMANCE) {
+            PerformanceMonitor.startDumping(PERFORMANCE_DUMP_INTERVAL_MILLIS, null);
+        }
+    }
+    
+    /**
+     * Stops refreshing the weather of the selected city when the scenario is paused, so no requests are sent while it is not running.
+     */
+    @Override
+    public void stopped() {
+        weatherDisplay.stopRefreshing();
+        PerformanceMonitor.stopDumping();
+    }
+    
     /**
      * Checks for any use mouse clicks and keyboard button presses whenever the 'Act' or 'Run' button gets pressed or 
      * executed in the environment.
      */
     public void act() {
+        PerformanceMonitor.startFrame("MapScreen");
+        
         // Constantly checking for keyboard and mouse inputs
+        String key = Greenfoot.getKey();    // Only read once per frame since each key press is only returned once
         handleMouseClickInput();
         handleArrowKeyInput();
         handleWASDKeyInput();
+        handleOverlayKeyInput(key);
+        
+        long start = PerformanceMonitor.start();
         redraw();
-    }
-    
-    /**
-     * Loads the text file containing city names, latitude coordinates and longitude coordinates and parses through them.
-     * The name, latitude and longitude are encapsulated into City objects.
-     * These City objects are placed into an ArrayList containing every City object.
-     * 
-     * @param   filename    the name of the .txt file
-     */
-    private void loadCitiesFromFile(String filename) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {    // Loads the file so it can be read
-            String line;
-            
-            while ((line = reader.readLine()) != null) {    // Reads the file line by line until the end
-                String[] parts = line.split(",");
-                
-                if (parts.length == 3) {    // Separates the line into thirds
-                    String name = parts[0].trim();
-                    double latitude = Double.parseDouble(parts[1].trim());
-                    double longitude = Double.parseDouble(parts[2].trim());
-                    cities.add(new City(name, latitude, longitude));    // Adds the variables to a new City object
-                }
-            }
-        } catch (IOException e) {   // Outputs a message if the file cannot be found or if the file cannot be read
-            System.out.println("Error reading cities file: " + e.getMessage());
-        }
+        PerformanceMonitor.record("MapScreen.redraw", start);
+        
+        PerformanceMonitor.endFrame("MapScreen");
     }
     
     /**
@@ -128,9 +196,9 @@ public class MapScreen extends World {
      * The number of toggles is determined by the size of the array.
      */
     private void addTogglesToScreen() {
-        String[] toggleNames = {"Timestamp", "Description", "Temperature", 
-                                "Feels Like", "Humidity", "Wind Speed", 
-                                "Rain Volume", "Sunrise", "Sunset"};
+        String[] toggleNames = {"Timestamp", "Description", WeatherMetric.TEMPERATURE.getName(), 
+                                WeatherMetric.FEELS_LIKE.getName(), WeatherMetric.HUMIDITY.getName(), WeatherMetric.WIND_SPEED.getName(), 
+                                WeatherMetric.RAIN.getName(), "Sunrise", "Sunset"};
                                 
         ToggleManager toggleManager = weatherDisplay.getToggleManager();    // Used to determine which toggles are active
         
@@ -175,6 +243,59 @@ public class MapScreen extends World {
         updateKeyIcons();
     }
     
+    /**
+     * Selects the city that was selected when the program was last closed, if there was one.
+     * The weather display shows the weather saved for that city straight away and updates it in the background.
+     */
+    private void restoreSelectedCity() {
+        City city = cities.findByName(diskStore.loadSelectedCity());
+        
+        if (city != null) {
+            // Places the mouse click marker on the city itself
+            lastMouseLat = city.getLatitude();
+            lastMouseLon = city.getLongitude();
+            weatherDisplay.displayWeatherFor(city);
+            rememberCity(city);
+        }
+    }
+    
+    /**
+     * Adds a city to the front of the list of recently selected cities, keeping only as many cities as can be compared.
+     * 
+     * @param   city    the City that has been selected
+     */
+    private void rememberCity(City city) {
+        recentCities.remove(city);
+        recentCities.add(0, city);
+        if (recentCities.size() > COMPARISON_CITY_COUNT) {
+            recentCities.remove(recentCities.size() - 1);
+        }
+    }
+    
+    /**
+     * Returns the names of the cities compared on the graph screen: the selected city, the cities selected before it and, if fewer 
+     * cities than COMPARISON_CITY_COUNT have been selected, the cities nearest to the selected city.
+     * 
+     * @return  a List of distinct city names, starting with the selected city
+     */
+    private List<String> getComparisonCities() {
+        City selectedCity = weatherDisplay.getSelectedCity();
+        Set<String> names = new LinkedHashSet<>();
+        names.add(selectedCity.getName());
+        for (City city : recentCities) {
+            names.add(city.getName());
+        }
+        
+        // Some of the nearest cities may already be in the list, so twice as many are searched for
+        for (City city : cityIndex.findNearest(selectedCity.getLatitude(), selectedCity.getLongitude(), 2 * COMPARISON_CITY_COUNT)) {
+            if (names.size() >= COMPARISON_CITY_COUNT) {
+                break;
+            }
+            names.add(city.getName());
+        }
+        return new ArrayList<>(names);
+    }
+    
     /**
      * Uses the pixel coordinates of the user's mouse click to identify the nearest city on the map.
      * After the nearest city has been found, the map and its markers are redrawn.
@@ -192,6 +313,8 @@ public class MapScreen extends World {
                 if (nearest != null) {
                     // Updates the map and the display
                     weatherDisplay.displayWeatherFor(nearest);
+                    rememberCity(nearest);
+                    WeatherTaskExecutor.runAsync(() -> diskStore.saveSelectedCity(nearest.getName()));   // Does not wait for the disk
                 }
             }
         }
@@ -205,13 +328,13 @@ public class MapScreen extends World {
     private void handleArrowKeyInput() {
         // Zooming in and out with the up and down arrow keys
         if (Greenfoot.isKeyDown("up")) {  
-            zoomFactor += 0.1;
+            zoomFactor += ZOOM_STEP;
             if (zoomFactor > MAX_ZOOM) {
                 zoomFactor = MAX_ZOOM;
             }
         } 
         else if (Greenfoot.isKeyDown("down")) {  
-            zoomFactor -= 0.1;
+            zoomFactor -= ZOOM_STEP;
             if (zoomFactor < MIN_ZOOM) {
                 zoomFactor = MIN_ZOOM;
             }
@@ -227,6 +350,7 @@ public class MapScreen extends World {
             } else {
                 graphScreen.updateCity(city);  // Refresh if needed
             }
+            graphScreen.setComparisonCities(getComparisonCities());
             Greenfoot.delay(10);
             Greenfoot.setWorld(graphScreen);
         }
@@ -257,13 +381,35 @@ public class MapScreen extends World {
         
     }
     
+    /**
+     * Shows the next metric on the heatmap when the H key is pressed, and collects the heatmap once it has been rendered in the background.
+     * The heatmap is cycled through temperature, humidity and wind speed before being hidden again. The debug overlay is shown or hidden
+     * when the F3 key is pressed.
+     * 
+     * @param   key     the key pressed since the last frame, or null if no key was pressed
+     */
+    private void handleOverlayKeyInput(String key) {
+        if ("h".equals(key)) {
+            weatherOverlay.nextMetric();
+            isBaseLayerStale = true;
+        }
+        else if ("F3".equalsIgnoreCase(key)) {
+            debugOverlay.toggle();
+        }
+        
+        if (weatherOverlay.update()) {
+            isBaseLayerStale = true;
+        }
+    }
+    
     /**
      * Ensures that the panning functionality does not allow users to keep panning past the map image.
      */
     private void constrainPan() {
         // Calculates the boundaries for panning horizontally and vertically based on the centre of the map
-        int offsetLimitX = (currentMapWidth - getWidth()) / 2;
-        int offsetLimitY = (currentMapHeight - getHeight()) / 2;
+        MapProjection projection = getProjection();
+        int offsetLimitX = (projection.getScaledWidth() - getWidth()) / 2;
+        int offsetLimitY = (projection.getScaledHeight() - getHeight()) / 2;
         
         // Makes sure the offset values do not go beyond their limits
         if (offsetX > offsetLimitX) {
@@ -282,84 +428,203 @@ public class MapScreen extends World {
     
     /**
      * Redraws the map screen background.
-     * First fills the screen with the map, then adds the city markers.
-     * The mouse click marker and connecting line are added at the end.
+     * The map and the city markers are only redrawn when the zoom or pan has changed. If only the selected city or the mouse click has
+     * changed, the area covered by the old and new markers is restored from the base layer and the markers are drawn again. Nothing is
+     * drawn when neither has changed.
      */
     private void redraw() {
-        getBackground().clear();
-        drawMap();
-        drawCityMarkers();
-        int[] newMouseCoords = updateUserClickMarker(); // Draws and returns the new mouse click points
-        drawConnectingLine(newMouseCoords); // Draw the line between the mouse click marker and the nearest city marker
+        City selectedCity = weatherDisplay.getSelectedCity();
+        
+        // Checks what has changed since the last frame was drawn
+        boolean isViewChanged = baseLayer == null || isBaseLayerStale || zoomFactor != renderedZoom 
+                                || offsetX != renderedOffsetX || offsetY != renderedOffsetY;
+        boolean isOverlayChanged = selectedCity != renderedSelectedCity 
+                                   || lastMouseLat != renderedMouseLat || lastMouseLon != renderedMouseLon;
+        
+        if (isViewChanged) {    // Redraws the whole screen
+            drawBaseLayer();
+            getBackground().drawImage(baseLayer, 0, 0);
+        } else if (isOverlayChanged) {  // Only redraws the area around the old and new markers
+            Rectangle dirtyRegion = getOverlayBounds();
+            dirtyRegion.add(overlayBounds);
+            restoreBaseLayer(dirtyRegion);
+        } else {
+            return;     // Nothing has changed so the previous frame is kept
+        }
+        
+        drawOverlay();
+        
+        // Stores the state of the frame that has been drawn
+        overlayBounds = getOverlayBounds();
+        renderedZoom = zoomFactor;
+        renderedOffsetX = offsetX;
+        renderedOffsetY = offsetY;
+        renderedSelectedCity = selectedCity;
+        renderedMouseLat = lastMouseLat;
+        renderedMouseLon = lastMouseLon;
+        isBaseLayerStale = false;
+    }
+    
+    /**
+     * Draws the parts of the screen that only change when zooming or panning onto the base layer.
+     * The base layer contains the sea, the map, the heatmap if it is shown and the city markers.
+     */
+    private void drawBaseLayer() {
+        if (baseLayer == null) {
+            baseLayer = new GreenfootImage(getWidth(), getHeight());
+        }
+        long start = PerformanceMonitor.start();
+        drawMap(baseLayer);
+        PerformanceMonitor.record("MapScreen.drawMap", start);
+        
+        // The heatmap is scaled to the same size and position as the map
+        MapProjection projection = getProjection();
+        weatherOverlay.draw(baseLayer, projection.getMapX(), projection.getMapY(), projection.getScaledWidth(), projection.getScaledHeight());
+        weatherOverlay.drawLegend(baseLayer, 170, 735);
+        
+        start = PerformanceMonitor.start();
+        drawCityMarkers(baseLayer);
+        PerformanceMonitor.record("MapScreen.drawCityMarkers", start);
+    }
+    
+    /**
+     * Copies a region of the base layer onto the background, removing any markers that were drawn over it.
+     * 
+     * @param   region  the region of the screen to be restored
+     */
+    private void restoreBaseLayer(Rectangle region) {
+        region = region.intersection(new Rectangle(0, 0, getWidth(), getHeight()));  // Ignores the parts outside the screen
+        if (region.isEmpty()) {
+            return;
+        }
+        
+        Graphics2D graphics = getBackground().getAwtImage().createGraphics();
+        graphics.drawImage(baseLayer.getAwtImage(), 
+                           region.x, region.y, region.x + region.width, region.y + region.height,
+                           region.x, region.y, region.x + region.width, region.y + region.height, null);
+        graphics.dispose();
     }
     
     /**
-     * Draws the sea and the map image onto the background.
-     * The map is scaled according to zoomFactor before being drawn onto the screen.
+     * Draws the markers that change when the map is clicked onto the background.
+     * The selected city is highlighted first, then the mouse click marker and the connecting line are drawn on top.
+     */
+    private void drawOverlay() {
+        GreenfootImage bg = getBackground();
+        City selectedCity = weatherDisplay.getSelectedCity();
+        
+        if (selectedCity != null) {
+            bg.setColor(HIGHLIGHTED_CITY_COLOR);    // Highlights the selected city in red
+            drawMarker(bg, convertLonToPixelX(selectedCity.getLongitude()), convertLatToPixelY(selectedCity.getLatitude()));
+        }
+        
+        int[] newMouseCoords = updateUserClickMarker(bg); // Draws and returns the new mouse click points
+        drawConnectingLine(bg, newMouseCoords); // Draw the line between the mouse click marker and the nearest city marker
+    }
+    
+    /**
+     * Calculates the smallest rectangle containing the selected city marker, the mouse click marker and the connecting line.
+     * 
+     * @return  the bounds of the markers drawn by drawOverlay()
      */
-    private void drawMap(){
-        GreenfootImage background = new GreenfootImage(getWidth(), getHeight());
+    private Rectangle getOverlayBounds() {
+        int markerSize = (int) (5 * zoomFactor);
+        int mouseX = convertLonToPixelX(lastMouseLon);
+        int mouseY = convertLatToPixelY(lastMouseLat);
+        
+        Rectangle bounds = new Rectangle(mouseX - markerSize / 2, mouseY - markerSize / 2, markerSize + 1, markerSize + 1);
+        
+        City selectedCity = weatherDisplay.getSelectedCity();
+        if (selectedCity != null) {
+            int cityX = convertLonToPixelX(selectedCity.getLongitude());
+            int cityY = convertLatToPixelY(selectedCity.getLatitude());
+            bounds.add(new Rectangle(cityX - markerSize / 2, cityY - markerSize / 2, markerSize + 1, markerSize + 1));
+        }
         
+        bounds.grow(1, 1);  // Covers the anti-aliased edges of the ovals and the line
+        return bounds;
+    }
+    
+    /**
+     * Draws the sea and the map image onto an image.
+     * The map is drawn from the tiles in the map tile cache that match zoomFactor, so the map image is not scaled again every frame.
+     * 
+     * @param   background  the image for the map to be drawn on
+     */
+    private void drawMap(GreenfootImage background){
         // Draws the sea first
         background.setColor(SEA_COLOR);
         background.fill();
         
-        // Scales the new map according to the zoomFactor
-        GreenfootImage zoomedMap = new GreenfootImage(map);
-        zoomedMap.scale((int) (map.getWidth() * zoomFactor), (int) (map.getHeight() * zoomFactor));
+        // Draws the visible map tiles onto the screen at the position worked out by the projection
+        MapProjection projection = getProjection();
+        mapTiles.drawMap(background, mapTiles.getLevel(zoomFactor), projection.getMapX(), projection.getMapY());
+    }
+    
+    /**
+     * Draws the city markers onto an image.
+     * All cities are colored white. The selected city is highlighted separately by drawOverlay().
+     * Only the cities on the screen are drawn, and they are only found and converted to screen coordinates again after zooming or panning.
+     * 
+     * @param   bg  the image for the city markers to be drawn on
+     */
+    private void drawCityMarkers(GreenfootImage bg) {
+        if (zoomFactor != markersZoom || offsetX != markersOffsetX || offsetY != markersOffsetY) {
+            findVisibleCities();
+            markersZoom = zoomFactor;
+            markersOffsetX = offsetX;
+            markersOffsetY = offsetY;
+        }
         
-        // Calculates the new map size
-        currentMapWidth = zoomedMap.getWidth();
-        currentMapHeight = zoomedMap.getHeight();
+        bg.setColor(CITY_COLOR);    // Default city color
+        for (int i = 0; i < visibleCityCount; i++) {  // Loops through every city on the screen
+            drawMarker(bg, cityScreenX[i], cityScreenY[i]);
+        }
+    }
+    
+    /**
+     * Finds the cities whose markers can be seen on the screen using the grid of the cities, and converts them to screen coordinates.
+     * The screen is widened by the size of a marker so that markers partly off the edge are still drawn.
+     */
+    private void findVisibleCities() {
+        MapProjection projection = getProjection();
+        int margin = (int) (5 * zoomFactor);
+        double minLon = projection.toLongitude(-margin);
+        double maxLon = projection.toLongitude(getWidth() + margin);
+        double maxLat = projection.toLatitude(-margin);     // Latitudes decrease down the screen
+        double minLat = projection.toLatitude(getHeight() + margin);
         
-        // Draws the new map onto the screen
-        background.drawImage(zoomedMap, (getWidth() - currentMapWidth) / 2 + offsetX, (getHeight() - currentMapHeight) / 2 + offsetY);
-        setBackground(background);
+        visibleCityCount = cities.getGrid().findInside(minLat, maxLat, minLon, maxLon, visibleCities);
+        projection.project(cities.getLatitudes(), cities.getLongitudes(), visibleCities, visibleCityCount, cityScreenX, cityScreenY);
     }
     
     /**
-     * Draws the city markers onto the background.
-     * All cities are colored white, except for the selected city which is colored red.
+     * Draws a circular marker centred on a pixel coordinate using the current color of the image.
+     * The size of the marker grows with zoomFactor.
+     * 
+     * @param   bg  the image for the marker to be drawn on
+     * @param   x   the pixel x coordinate of the centre of the marker
+     * @param   y   the pixel y coordinate of the centre of the marker
      */
-    private void drawCityMarkers() {
-        GreenfootImage bg = getBackground();
-        City selectedCity = weatherDisplay.getSelectedCity();
-        for (City city : cities) {  // Loops through every city
-            // Calculates screen pixel coordinates with zooms and offsets in mind
-            int x = convertLonToPixelX(city.getLongitude());
-            int y = convertLatToPixelY(city.getLatitude());
-            
-            if (city != null) {
-                if (city.equals(selectedCity)) {
-                    bg.setColor(HIGHLIGHTED_CITY_COLOR);    // Highlights the selected city in red
-                } else {
-                    bg.setColor(CITY_COLOR);    // Default city color
-                }
-            } else {
-                bg.setColor(CITY_COLOR);    // Set all the markers to the dafault color at the start 
-            }
-            
-            int markerSize = (int) (5 * zoomFactor);
-            bg.fillOval(x - markerSize / 2, y - markerSize / 2, markerSize, markerSize);    // Adjusts the oval to be placed in the centre
-        }
+    private void drawMarker(GreenfootImage bg, int x, int y) {
+        int markerSize = (int) (5 * zoomFactor);
+        bg.fillOval(x - markerSize / 2, y - markerSize / 2, markerSize, markerSize);    // Adjusts the oval to be placed in the centre
     }
     
     /**
      * Draws the most recent mouse click on the map.
      * The pixel coordinates of the mouse are caculated using latitude and longitude and are returned as an int[].
      * 
-     * @return  the pixel coordinates of the mouse click
+     * @param   bg  the image for the marker to be drawn on
+     * @return      the pixel coordinates of the mouse click
      */
-    private int[] updateUserClickMarker() {
-        GreenfootImage bg = getBackground();
+    private int[] updateUserClickMarker(GreenfootImage bg) {
         bg.setColor(MOUSE_CLICK_COLOR);
         
         // Calculates screen pixel coordinates with zooms and offsets in mind
         int x = convertLonToPixelX(lastMouseLon);
         int y = convertLatToPixelY(lastMouseLat);
-        
-        int markerSize = (int) (5 * zoomFactor);
-        bg.fillOval(x - markerSize / 2, y - markerSize / 2, markerSize, markerSize);    // Adjusts the oval to be placed in the centre
+        drawMarker(bg, x, y);
         
         return new int[]{x, y};     // Returns the corrected mouse pixel coordinates
     }
@@ -367,13 +632,13 @@ public class MapScreen extends World {
     /**
      * Draws a line connecting the last mouse click on the map with the nearest city to that mouse click.
      * 
+     * @param   bg              the image for the line to be drawn on
      * @param   mouseCoords     the pixel coordinates of the mouse
      */
-    private void drawConnectingLine(int[] mouseCoords) {
+    private void drawConnectingLine(GreenfootImage bg, int[] mouseCoords) {
         City nearestCity = weatherDisplay.getSelectedCity();
         
         if (nearestCity != null) {
-            GreenfootImage bg = getBackground();
             bg.setColor(LINE_COLOR);
             
             // Calculates screen pixel coordinates with zooms and offsets in mind
@@ -431,6 +696,26 @@ public class MapScreen extends World {
         }
     }
     
+    /**
+     * Returns the projection for the current zoom and pan, updating it first if the map has been zoomed or panned since it was last used.
+     * The size of the zoomed map is taken from the map tile cache so the projection matches the map that is drawn.
+     * 
+     * @return  the MapProjection object of the screen
+     */
+    private MapProjection getProjection() {
+        if (zoomFactor != projectedZoom || offsetX != projectedOffsetX || offsetY != projectedOffsetY) {
+            int level = mapTiles.getLevel(zoomFactor);
+            int mapWidth = mapTiles.getLevelWidth(level);
+            int mapHeight = mapTiles.getLevelHeight(level);
+            projection.update((getWidth() - mapWidth) / 2 + offsetX, (getHeight() - mapHeight) / 2 + offsetY, mapWidth, mapHeight);
+            
+            projectedZoom = zoomFactor;
+            projectedOffsetX = offsetX;
+            projectedOffsetY = offsetY;
+        }
+        return projection;
+    }
+    
     /**
      * Converts a pixel x coordinate into a longitude coordinate.
      * 
@@ -438,9 +723,7 @@ public class MapScreen extends World {
      * @return          the longitude coordinate
      */
     private double convertPixelXtoLon(int x) {
-        double worldX = ((x - offsetX - getWidth() / 2) / zoomFactor) + getWidth() / 2;     // Ensures that offsets are taken into account
-        double longitude = LEFT_LON + ((worldX / (double) getWidth()) * (RIGHT_LON - LEFT_LON));    // Explicity double division
-        return longitude;
+        return getProjection().toLongitude(x);
     }
     
     /**
@@ -450,91 +733,37 @@ public class MapScreen extends World {
      * @return          the latitude coordinate
      */
     private double convertPixelYtoLat(int y) {
-        double worldY = ((y - offsetY - getHeight() / 2) / zoomFactor) + getHeight() / 2;   // Ensures that all offsets are taken into account
-        double adjustedY = worldY - 20;
-        double latitude = TOP_LAT - ((adjustedY / (double) getHeight()) * (TOP_LAT - BOTTOM_LAT));  // Explicity double division
-        return latitude;
+        return getProjection().toLatitude(y);
     }
 
     /**
      * Converts a longitude coordinate into a pixel x coordinate.
      * 
      * @param   lon     the longitude coordinate to be converted
-     * @return          the pixel x coordinate
+     * @return          the pixel x coordinate, rounded to the nearest pixel
      */
     private int convertLonToPixelX(double lon) {
-        // Converts the longitude to a pixel x-coordinate on the original map
-        int pixelX = (int) ((lon - LEFT_LON) / (RIGHT_LON - LEFT_LON) * getWidth());
-        
-        // Adjusts the coordinate for zooming and panning
-        return (int) ((pixelX - getWidth() / 2) * zoomFactor + getWidth() / 2) + offsetX;
+        return (int) Math.floor(getProjection().toScreenX(lon) + 0.5);
     }
 
     /**
      * Converts a latitude coordinate into a pixel y coordinate.
      * 
-     * @param   lon     the latitude coordinate to be converted
-     * @return          the pixel y coordinate
+     * @param   lat     the latitude coordinate to be converted
+     * @return          the pixel y coordinate, rounded to the nearest pixel
      */
     private int convertLatToPixelY(double lat) {
-        // Converts the latitude to a pixel y-coordinate on the original map
-        int pixelY = (int) ((TOP_LAT - lat) / (TOP_LAT - BOTTOM_LAT) * getHeight());
-        
-        // Adjusts the coordinate for zooming and panning
-        return (int) ((pixelY - getHeight() / 2) * zoomFactor + getHeight() / 2) + offsetY + (int) (20 * zoomFactor);
+        return (int) Math.floor(getProjection().toScreenY(lat) + 0.5);
     }
     
     /**
-     * Calculates the nearest city to a pair of latitude and longitude coordinates using the haversine formula.
+     * Finds the nearest city to a pair of latitude and longitude coordinates using the spatial index of the cities.
      * 
      * @param   lat     the latitude coordinate to be used in the calculation
      * @param   lon     the longitude coordinate to be used in the calculation
      * @return          the nearest city as a City object
      */
     private City findNearestCity(double lat, double lon) {
-        // Initial values
-        City nearestCity = null;
-        double minDistance = Double.MAX_VALUE;  // Finding the shortest distance means the base value should be very high
-    
-        for (City city : cities) {  // Loops through every city
-            double cityLat = city.getLatitude();
-            double cityLon = city.getLongitude();
-    
-            double distance = haversine(lat, lon, cityLat, cityLon); // Calculates the distance using the haversine formula
-    
-            if (distance < minDistance) {   // Updates the nearestCity localCity and minDistance variables
-                minDistance = distance;
-                nearestCity = city;
-            }
-        }
-        
-        return nearestCity;
-    }
-    
-    /**
-     * The haversine formula calculates the distance between two points on a large sphere.
-     * 
-     * @param   lat1    the latitude coordinate of the first pair of points
-     * @param   lon1    the longitude coordinate of the first pair of points
-     * @param   lat2    the latitude coordinate of the second pair of points
-     * @param   lon2    the longitude coordinate of the second pair of points
-     * @return          the kilometre distance between two pairs of latitude and longitude coordinates
-     */
-    private double haversine(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // The radius of the Earth in kilometres
-        
-        // Calculates the difference in latitude and longitude
-        double dLat = Math.toRadians(lat2 - lat1);
-        double dLon = Math.toRadians(lon2 - lon1);
-        
-        // a = sin^2(dLat/2) + cos(lat1) * cos(lat2) * sin^2(dLon/2)
-        double a = Math.pow(Math.sin(dLat / 2), 2) +
-                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
-                   Math.pow(Math.sin(dLon / 2), 2);
-                   
-        // c = 2 * atan2(sqrt(a), sqrt(1 - a))
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-    
-        return R * c; // Distance is returned in kilometres
+        return cityIndex.findNearest(lat, lon);
     }
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+import greenfoot.*;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The MapTileCache class stores pre-scaled copies of the map image used by the MapScreen world. Every discrete zoom step of the map is
+ * treated as one level of a tile pyramid, where each level is split into square tiles of a fixed size. Tiles are scaled from the original
+ * map image the first time they are needed and are then reused for every frame, so panning and redrawing the map only requires the visible
+ * tiles to be drawn onto the background. The number of tiles kept in memory is bounded, and the least recently used tiles are discarded
+ * first when the limit is reached.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class MapTileCache {
+    // The original map image
+    private final BufferedImage source;
+    private final int sourceWidth;
+    private final int sourceHeight;
+
+    // Zoom levels of the pyramid
+    private final double minZoom;
+    private final double zoomStep;
+    private final int levelCount;
+
+    // Tile dimensions and the maximum number of tiles held at once
+    private static final int TILE_SIZE = 256;
+    private static final int MAX_TILES = 128;
+
+    // Tiles ordered from least recently used to most recently used
+    private final LinkedHashMap<Long, GreenfootImage> tiles = new LinkedHashMap<>(MAX_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GreenfootImage> eldest) {
+            return size() > MAX_TILES;     // Discards the least recently used tile once the cache is full
+        }
+    };
+
+    /**
+     * Constructor for objects of class MapTileCache.
+     * The tiles for the smallest zoom level are rendered straight away since they are always shown when the world starts.
+     *
+     * @param   map         the original map image
+     * @param   minZoom     the smallest zoom factor of the map
+     * @param   maxZoom     the largest zoom factor of the map
+     * @param   zoomStep    the amount the zoom factor changes by for each zoom step
+     */
+    public MapTileCache(GreenfootImage map, double minZoom, double maxZoom, double zoomStep) {
+        this.source = map.getAwtImage();
+        this.sourceWidth = map.getWidth();
+        this.sourceHeight = map.getHeight();
+        this.minZoom = minZoom;
+        this.zoomStep = zoomStep;
+        this.levelCount = (int) Math.round((maxZoom - minZoom) / zoomStep) + 1;
+
+        preloadLevel(0);
+    }
+
+    /**
+     * Returns the pyramid level closest to the given zoom factor.
+     *
+     * @param   zoomFactor  the zoom factor of the map
+     * @return              the index of the pyramid level, where 0 is the smallest zoom level
+     */
+    public int getLevel(double zoomFactor) {
+        int level = (int) Math.round((zoomFactor - minZoom) / zoomStep);
+        return Math.max(0, Math.min(levelCount - 1, level));
+    }
+
+    /**
+     * Returns the width of the whole map at a pyramid level.
+     *
+     * @param   level   the index of the pyramid level
+     * @return          the width of the scaled map in pixels
+     */
+    public int getLevelWidth(int level) {
+        return (int) (sourceWidth * getZoom(level));
+    }
+
+    /**
+     * Returns the height of the whole map at a pyramid level.
+     *
+     * @param   level   the index of the pyramid level
+     * @return          the height of the scaled map in pixels
+     */
+    public int getLevelHeight(int level) {
+        return (int) (sourceHeight * getZoom(level));
+    }
+
+    /**
+     * Draws the part of the scaled map that overlaps the target image.
+     * Only the tiles that are visible on the target image are drawn, and tiles that are not cached yet are rendered first.
+     *
+     * @param   target  the image for the map to be drawn on
+     * @param   level   the index of the pyramid level
+     * @param   mapX    the x coordinate of the top left corner of the scaled map on the target image
+     * @param   mapY    the y coordinate of the top left corner of the scaled map on the target image
+     */
+    public void drawMap(GreenfootImage target, int level, int mapX, int mapY) {
+        int levelWidth = getLevelWidth(level);
+        int levelHeight = getLevelHeight(level);
+
+        // Finds the range of tiles that overlap the target image
+        int firstCol = Math.max(0, -mapX / TILE_SIZE);
+        int firstRow = Math.max(0, -mapY / TILE_SIZE);
+        int lastCol = Math.min((levelWidth - 1) / TILE_SIZE, (target.getWidth() - 1 - mapX) / TILE_SIZE);
+        int lastRow = Math.min((levelHeight - 1) / TILE_SIZE, (target.getHeight() - 1 - mapY) / TILE_SIZE);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                target.drawImage(getTile(level, col, row), mapX + col * TILE_SIZE, mapY + row * TILE_SIZE);
+            }
+        }
+    }
+
+    /**
+     * Renders every tile of a pyramid level so that the level can be drawn without any scaling.
+     *
+     * @param   level   the index of the pyramid level
+     */
+    public void preloadLevel(int level) {
+        int cols = (getLevelWidth(level) + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (getLevelHeight(level) + TILE_SIZE - 1) / TILE_SIZE;
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                getTile(level, col, row);
+            }
+        }
+    }
+
+    /**
+     * Returns the zoom factor of a pyramid level.
+     *
+     * @param   level   the index of the pyramid level
+     * @return          the zoom factor used to scale the tiles of the level
+     */
+    private double getZoom(int level) {
+        return minZoom + level * zoomStep;
+    }
+
+    /**
+     * Returns a tile from the cache, rendering it first if it has not been cached yet.
+     *
+     * @param   level   the index of the pyramid level
+     * @param   col     the column of the tile in the level
+     * @param   row     the row of the tile in the level
+     * @return          the scaled tile image
+     */
+    private GreenfootImage getTile(int level, int col, int row) {
+        long key = ((long) level << 40) | ((long) col << 20) | row;     // Packs the tile position into a single key
+        GreenfootImage tile = tiles.get(key);
+
+        if (tile == null) {
+            tile = renderTile(level, col, row);
+            tiles.put(key, tile);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Scales the section of the original map covered by a tile into a new image.
+     * The whole level is scaled with the same transform so that neighbouring tiles line up without gaps.
+     *
+     * @param   level   the index of the pyramid level
+     * @param   col     the column of the tile in the level
+     * @param   row     the row of the tile in the level
+     * @return          a new image containing the scaled section of the map
+     */
+    private GreenfootImage renderTile(int level, int col, int row) {
+        int levelWidth = getLevelWidth(level);
+        int levelHeight = getLevelHeight(level);
+
+        // Tiles on the right and bottom edges may be smaller than TILE_SIZE
+        int tileWidth = Math.min(TILE_SIZE, levelWidth - col * TILE_SIZE);
+        int tileHeight = Math.min(TILE_SIZE, levelHeight - row * TILE_SIZE);
+        GreenfootImage tile = new GreenfootImage(tileWidth, tileHeight);
+
+        Graphics2D graphics = tile.getAwtImage().createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.translate(-col * TILE_SIZE, -row * TILE_SIZE);
+        graphics.scale(levelWidth / (double) sourceWidth, levelHeight / (double) sourceHeight);
+        graphics.drawImage(source, 0, 0, null);
+        graphics.dispose();
+
+        return tile;
+    }
+}
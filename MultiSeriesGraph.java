@@ -0,0 +1,401 @@
+import greenfoot.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The MultiSeriesGraph class displays several lines on one graph across the whole 5-day forecast, such as the temperature, humidity,
+ * pressure and chance of precipitation of a city, or the same metric for several cities. Series with the same unit share an axis. The
+ * first unit is labelled on the left of the graph and the second on the right, and the lines of any further units are scaled to fill the
+ * graph with their range given in the legend. The range of each axis is found from every series, including hidden ones, so showing or
+ * hiding a series never moves the others. The screen coordinates of each series are only worked out again when its data or its axis
+ * changes, and the grid, labels and axes are drawn onto a separate layer at the same time, so showing or hiding a series only draws the
+ * stored lines and the legend on top of that layer.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class MultiSeriesGraph extends Actor {
+    // Colors given to series in the order they are added, and the largest number of series listed in the legend
+    private static final Color[] SERIES_COLORS = {
+        Color.RED, Color.BLUE, new Color(0, 150, 0), Color.MAGENTA, Color.ORANGE, Color.CYAN, Color.PINK, Color.DARK_GRAY,
+        new Color(128, 0, 128), new Color(139, 69, 19)
+    };
+    private static final int LEGEND_COLUMNS = 3;
+    private static final int LEGEND_ROWS = 3;
+
+    // Colors and Fonts
+    private static final Color GRID_COLOR = Color.LIGHT_GRAY;
+    private static final Color DAY_COLOR = Color.GRAY;
+    private static final Color LABEL_COLOR = Color.BLACK;
+    private static final Color HIDDEN_COLOR = Color.LIGHT_GRAY;
+    private static final Font HEADER_FONT = new Font("Monospaced", true, false, 14);
+    private static final Font LABEL_FONT = new Font("Monospaced", false, false, 10);
+
+    // Dimensions of the graph and of the area the lines are drawn in
+    private final int width;
+    private final int plotLeft = 50, plotTop = 35;
+    private final int plotWidth, plotHeight;
+
+    // Series in the order they were added, by name
+    private final LinkedHashMap<String, GraphSeries> series = new LinkedHashMap<>();
+
+    // Axes by unit in the order their units first appeared, and the number of points spread across the graph
+    private final LinkedHashMap<String, Axis> axes = new LinkedHashMap<>();
+    private int pointCount;
+
+    // Text shown at the top of the graph and the times of the forecast used to label the days
+    private String title = "";
+    private ForecastColumns times;
+
+    // The image shown by the actor and the layer of grid lines, labels and axes
+    private final GreenfootImage graphImage;
+    private final GreenfootImage gridLayer;
+
+    /**
+     * The Axis class holds the range of values of every series with the same unit, and the side of the graph it is labelled on.
+     */
+    private static class Axis {
+        private final String unit;
+        private double min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+        private double step;
+        private int side;   // 0 for the left of the graph, 1 for the right and -1 for an axis that is not labelled
+
+        /**
+         * Constructor for objects of class Axis.
+         *
+         * @param   unit    the unit of the values measured against the axis
+         */
+        Axis(String unit) {
+            this.unit = unit;
+        }
+
+        /**
+         * Widens the range of the axis to include the values of a series.
+         *
+         * @param   seriesMin   the smallest value of the series
+         * @param   seriesMax   the largest value of the series
+         */
+        void include(double seriesMin, double seriesMax) {
+            min = Math.min(min, seriesMin);
+            max = Math.max(max, seriesMax);
+        }
+
+        /**
+         * Rounds the range of the axis out to its grid lines once every series has been included.
+         */
+        void round() {
+            if (min > max) {    // Only empty series were included
+                min = 0;
+                max = 0;
+            }
+            step = LineGraphDisplay.calculateStep(max - min);
+            min = Math.floor(min / step) * step;
+            max = Math.ceil(max / step) * step;
+            if (max <= min) {
+                max = min + step;   // Leaves room for a flat line
+            }
+        }
+
+        /**
+         * Turns a value on the axis into a label, with one decimal place only if the grid lines are less than 1 apart.
+         *
+         * @param   value   the value to be formatted
+         * @return          the label of the value
+         */
+        String format(double value) {
+            return step < 1 ? String.format("%.1f", value) : String.valueOf(Math.round(value));
+        }
+    }
+
+    /**
+     * Constructor for objects of class MultiSeriesGraph.
+     *
+     * @param   width   the width of the graph
+     * @param   height  the height of the graph
+     */
+    public MultiSeriesGraph(int width, int height) {
+        this.width = width;
+        this.plotWidth = width - 2 * plotLeft;
+        this.plotHeight = height - plotTop - 65;    // Leaves room below for the day labels and the legend
+        this.graphImage = new GreenfootImage(width, height);
+        this.gridLayer = new GreenfootImage(width, height);
+        setImage(graphImage);
+    }
+
+    /**
+     * Returns the color used for the series at a position, so that the same series can be given the same color every time.
+     *
+     * @param   i   the position of the series, such as the position of its metric or of its city
+     * @return      the Color of the series
+     */
+    public static Color getSeriesColor(int i) {
+        return SERIES_COLORS[Math.floorMod(i, SERIES_COLORS.length)];
+    }
+
+    /**
+     * Changes the text shown at the top of the graph.
+     *
+     * @param   title   the new title
+     */
+    public void setTitle(String title) {
+        this.title = title;
+        drawGraph();
+    }
+
+    /**
+     * Replaces every series on the graph and the forecast whose times label the days, working out the axes and drawing the graph once.
+     * A new series with the same name as an old one is shown or hidden in the same way as the old one. Series that were already on the
+     * graph are only projected again if their axis has changed.
+     *
+     * @param   newSeries   the GraphSeries objects to be shown, in the order of the legend
+     * @param   times       the ForecastColumns object whose timestamps are shown on the x-axis
+     */
+    public void setSeries(List<GraphSeries> newSeries, ForecastColumns times) {
+        LinkedHashMap<String, GraphSeries> oldSeries = new LinkedHashMap<>(series);
+        series.clear();
+        for (GraphSeries s : newSeries) {
+            GraphSeries old = oldSeries.get(s.getName());
+            if (old != null && old != s) {
+                s.setVisible(old.isVisible());
+            }
+            series.put(s.getName(), s);
+        }
+        this.times = times;
+        updateLayout();
+    }
+
+    /**
+     * Adds a series to the graph, replacing any series with the same name but keeping whether or not it is shown.
+     * The axes are worked out again, and the series whose axes have changed are projected again.
+     *
+     * @param   newSeries   the GraphSeries object to be added
+     */
+    public void addSeries(GraphSeries newSeries) {
+        GraphSeries oldSeries = series.put(newSeries.getName(), newSeries);
+        if (oldSeries != null) {
+            newSeries.setVisible(oldSeries.isVisible());
+        }
+        updateLayout();
+    }
+
+    /**
+     * Removes the series with a name from the graph.
+     *
+     * @param   name    the name of the series
+     */
+    public void removeSeries(String name) {
+        if (series.remove(name) != null) {
+            updateLayout();
+        }
+    }
+
+    /**
+     * Removes every series from the graph.
+     */
+    public void clearSeries() {
+        series.clear();
+        updateLayout();
+    }
+
+    /**
+     * Returns the series with a name.
+     *
+     * @param   name    the name of the series
+     * @return          the GraphSeries object, or null if the graph has no series with that name
+     */
+    public GraphSeries getSeries(String name) {
+        return series.get(name);
+    }
+
+    /**
+     * Returns every series on the graph.
+     *
+     * @return  a List of the GraphSeries objects in the order they were added
+     */
+    public List<GraphSeries> getSeries() {
+        return new ArrayList<>(series.values());
+    }
+
+    /**
+     * Shows a hidden series or hides a shown series. The other series are not projected or drawn onto the grid layer again.
+     *
+     * @param   name    the name of the series
+     * @return          true if the series is now shown, or false if it is now hidden or does not exist
+     */
+    public boolean toggleSeries(String name) {
+        GraphSeries toggled = series.get(name);
+        if (toggled == null) {
+            return false;
+        }
+        toggled.setVisible(!toggled.isVisible());
+        drawGraph();
+        return toggled.isVisible();
+    }
+
+    /**
+     * Works out the axes from every series, projects the series whose axes have changed and draws the grid layer and the graph again.
+     * This only happens when the data changes.
+     */
+    private void updateLayout() {
+        long start = PerformanceMonitor.start();
+
+        // Finds the range of every unit and the number of points across the graph
+        axes.clear();
+        pointCount = 0;
+        for (GraphSeries s : series.values()) {
+            axes.computeIfAbsent(s.getMetric().getUnit(), Axis::new).include(s.getMin(), s.getMax());
+            pointCount = Math.max(pointCount, s.getCount());
+        }
+        int axisCount = 0;
+        for (Axis axis : axes.values()) {
+            axis.round();
+            axis.side = axisCount < 2 ? axisCount : -1;     // Only two sides can be labelled
+            axisCount++;
+        }
+
+        // Only series whose axis has moved are projected again
+        for (GraphSeries s : series.values()) {
+            Axis axis = axes.get(s.getMetric().getUnit());
+            s.project(axis.min, axis.max, plotLeft, plotTop, plotWidth, plotHeight, pointCount);
+        }
+        PerformanceMonitor.record("MultiSeriesGraph.project", start);
+
+        drawGridLayer();
+        drawGraph();
+    }
+
+    /**
+     * Draws the grid lines, the labels of the labelled axes and the days of the forecast onto the grid layer.
+     */
+    private void drawGridLayer() {
+        gridLayer.clear();
+        gridLayer.setFont(LABEL_FONT);
+        int bottom = plotTop + plotHeight;
+
+        for (Axis axis : axes.values()) {
+            if (axis.side < 0) {
+                continue;
+            }
+            int lineCount = (int) Math.round((axis.max - axis.min) / axis.step);
+            for (int i = 0; i <= lineCount; i++) {
+                double value = axis.min + i * axis.step;
+                int yPos = bottom - (int) Math.round(i * axis.step * plotHeight / (axis.max - axis.min));
+                String label = axis.format(value);
+
+                if (axis.side == 0) {   // The left axis also draws the horizontal grid lines
+                    gridLayer.setColor(GRID_COLOR);
+                    gridLayer.drawLine(plotLeft, yPos, plotLeft + plotWidth, yPos);
+                    gridLayer.setColor(LABEL_COLOR);
+                    gridLayer.drawString(label, plotLeft - 4 - label.length() * 6, yPos + 4);
+                } else {    // The right axis only draws short marks next to its labels
+                    gridLayer.setColor(LABEL_COLOR);
+                    gridLayer.drawLine(plotLeft + plotWidth, yPos, plotLeft + plotWidth + 3, yPos);
+                    gridLayer.drawString(label, plotLeft + plotWidth + 5, yPos + 4);
+                }
+            }
+
+            // Draws the unit above the axis
+            String header = "(" + axis.unit + ")";
+            gridLayer.setColor(LABEL_COLOR);
+            gridLayer.drawString(header, axis.side == 0 ? 5 : width - 5 - header.length() * 6, plotTop - 12);
+        }
+
+        // Draws a vertical line and the date and time at the start of every day
+        if (times != null) {
+            for (int i = 0; i < pointCount && i < times.size(); i += ForecastAggregates.SEGMENTS_PER_DAY) {
+                int xPos = plotLeft + (int) Math.round(i * plotWidth / (double) Math.max(1, pointCount - 1));
+                gridLayer.setColor(DAY_COLOR);
+                gridLayer.drawLine(xPos, plotTop, xPos, bottom);
+
+                String timestamp = times.getTimestampString(i);     // Such as "2025-04-03 09:00:00"
+                String label = timestamp.substring(8, 10) + "/" + timestamp.substring(5, 7) + " " + timestamp.substring(11, 16);
+                gridLayer.setColor(LABEL_COLOR);
+                gridLayer.drawString(label, xPos - 2, bottom + 14);
+            }
+        }
+
+        // Draws the border of the area the lines are drawn in
+        gridLayer.setColor(DAY_COLOR);
+        gridLayer.drawRect(plotLeft, plotTop, plotWidth, plotHeight);
+    }
+
+    /**
+     * Draws the stored lines of the shown series, the legend and the title on top of a copy of the grid layer.
+     */
+    private void drawGraph() {
+        long start = PerformanceMonitor.start();
+        graphImage.clear();
+        graphImage.drawImage(gridLayer, 0, 0);
+
+        // Draws the lines from the stored screen coordinates, leaving a gap around missing readings
+        for (GraphSeries s : series.values()) {
+            if (s.isVisible()) {
+                graphImage.setColor(s.getColor());
+                for (int i = 1; i < s.getCount(); i++) {
+                    if (!s.hasValue(i - 1) || !s.hasValue(i)) {
+                        continue;
+                    }
+                    graphImage.drawLine(s.getX(i - 1), s.getY(i - 1), s.getX(i), s.getY(i));
+                }
+            }
+        }
+
+        drawLegend();
+
+        // Draws the title
+        graphImage.setColor(LABEL_COLOR);
+        graphImage.setFont(HEADER_FONT);
+        graphImage.drawString(title, 75, 12);
+
+        setImage(graphImage);
+        PerformanceMonitor.record("MultiSeriesGraph.drawGraph", start);
+    }
+
+    /**
+     * Draws the name and color of every series below the graph. Hidden series are drawn in grey with an empty box, and the range of
+     * series whose axis is not labelled is given after their name.
+     */
+    private void drawLegend() {
+        graphImage.setFont(LABEL_FONT);
+        int columnWidth = width / LEGEND_COLUMNS;
+        int top = plotTop + plotHeight + 26;
+        int maxEntries = LEGEND_COLUMNS * LEGEND_ROWS;
+
+        int i = 0;
+        for (GraphSeries s : series.values()) {
+            int x = 5 + (i % LEGEND_COLUMNS) * columnWidth;
+            int y = top + (i / LEGEND_COLUMNS) * 13;
+
+            if (i == maxEntries - 1 && series.size() > maxEntries) {   // Not every series fits in the legend
+                graphImage.setColor(LABEL_COLOR);
+                graphImage.drawString("+" + (series.size() - i) + " more", x, y + 8);
+                break;
+            }
+
+            String label = s.getName();
+            Axis axis = axes.get(s.getMetric().getUnit());
+            if (axis.side < 0) {
+                label += " (" + axis.format(axis.min) + "-" + axis.format(axis.max) + ")";
+            }
+
+            graphImage.setColor(s.isVisible() ? s.getColor() : HIDDEN_COLOR);
+            if (s.isVisible()) {
+                graphImage.fillRect(x, y, 12, 8);
+            } else {
+                graphImage.drawRect(x, y, 12, 8);
+            }
+            graphImage.setColor(s.isVisible() ? LABEL_COLOR : HIDDEN_COLOR);
+            graphImage.drawString(label, x + 16, y + 8);
+            i++;
+        }
+    }
+
+    /**
+     * Overrides the setLocation() method in the Actor class to stop the graph from being dragged when the program is paused.
+     */
+    @Override
+    public void setLocation(int x, int y) {
+        // Stops movement by not executing any code
+    }
+}
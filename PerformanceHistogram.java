@@ -0,0 +1,143 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The PerformanceHistogram class counts how often values such as the time taken by a method fall into each of a fixed set of ranges, so
+ * that percentiles can be estimated without storing every value. The ranges grow in size as the values grow, with eight ranges between
+ * each power of two, so every estimate is within about 12% of the real value whether the values are nanoseconds or seconds. Recording a
+ * value only increments a few counters and never creates an object, which means it can be called from the act() methods and from the
+ * background threads at the same time without locking and without slowing down the code being measured.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class PerformanceHistogram {
+    // Eight ranges for each power of two from 8 to 2^62, plus one range for each value below 8
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKET_COUNT = (63 - 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private volatile long last;
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param   value   the value to be recorded, such as a number of nanoseconds
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        counts.incrementAndGet(getBucket(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+        last = value;
+    }
+
+    /**
+     * Returns the number of values that have been recorded.
+     *
+     * @return  the number of values
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return  the mean value, or 0 if nothing has been recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : total.get() / (double) n;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return  the largest value, or 0 if nothing has been recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the most recently recorded value.
+     *
+     * @return  the last value, or 0 if nothing has been recorded
+     */
+    public long getLast() {
+        return last;
+    }
+
+    /**
+     * Estimates the value below which a given fraction of the recorded values fall.
+     *
+     * @param   fraction    the fraction of values, such as 0.99 for the 99th percentile
+     * @return              the middle of the range containing the percentile, or 0 if nothing has been recorded
+     */
+    public long getPercentile(double fraction) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                long lower = getBucketStart(bucket);
+                long upper = bucket + 1 < BUCKET_COUNT ? getBucketStart(bucket + 1) : lower;
+                return Math.min(max.get(), lower + (upper - lower) / 2);
+            }
+        }
+        return max.get();   // Values recorded while the counts were being read may not be included yet
+    }
+
+    /**
+     * Removes every recorded value.
+     */
+    public void reset() {
+        for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+            counts.set(bucket, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+        last = 0;
+    }
+
+    /**
+     * Returns the index of the range that contains a value.
+     *
+     * @param   value   a value that is not negative
+     * @return          the index of the range
+     */
+    private static int getBucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);              // Position of the highest set bit
+        int subBucket = (int) (value >>> (exponent - 3)) & (SUB_BUCKETS - 1);  // The next three bits below it
+        return (exponent - 2) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the smallest value in a range.
+     *
+     * @param   bucket  the index of the range
+     * @return          the smallest value that is counted in the range
+     */
+    private static long getBucketStart(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 2;
+        int subBucket = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket) << (exponent - 3);
+    }
+}
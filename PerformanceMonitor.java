@@ -0,0 +1,238 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PerformanceMonitor class measures how long the slow parts of the program take, such as drawing the map, fetching and parsing
+ * responses from the API and drawing the line graph, and how long each frame of the worlds takes. Greenfoot calls the act() method of the
+ * world before the act() methods of its actors, so the act() call of the world is recorded on its own as "World.act", and the whole frame
+ * is recorded as "World.frame" from the start of one act() call of the world to the start of the next. The whole frame also covers the
+ * act() calls of the actors, drawing the screen and any delay Greenfoot adds to keep to its speed setting, and pausing the scenario shows
+ * up as one long frame. Every measurement is recorded in a PerformanceHistogram under the name of the part being measured, so the typical
+ * and worst times can be compared. Where the JVM supports it, the number of bytes allocated by the act thread during each whole frame is
+ * recorded as well, since creating many short lived objects every frame causes pauses for garbage collection. The results can be shown on
+ * screen by the DebugOverlay, or written to the terminal or a file at a fixed interval.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public final class PerformanceMonitor {
+    // Times in nanoseconds and allocations in bytes, by the name of the part being measured
+    private static final ConcurrentHashMap<String, PerformanceHistogram> TIMINGS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, PerformanceHistogram> ALLOCATIONS = new ConcurrentHashMap<>();
+
+    // Counts the bytes allocated by a thread, or null if the JVM cannot count them
+    private static final com.sun.management.ThreadMXBean ALLOCATION_COUNTER = createAllocationCounter();
+
+    // Start of the frame being measured, which is only ever used by the act thread
+    private static String frameWorld;   // Null until the first frame, so a frame is never measured across a change of world
+    private static long frameStartNanos;
+    private static long frameStartBytes = -1;
+
+    // Writes the results at a fixed interval, or null if they are not being written
+    private static ScheduledExecutorService dumpExecutor;
+    private static final DateTimeFormatter DUMP_TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    /**
+     * Objects of this class are never created since every method is static.
+     */
+    private PerformanceMonitor() {
+    }
+
+    /**
+     * Returns the time at the start of a measurement, which is later passed to record().
+     *
+     * @return  the current value of the system timer in nanoseconds
+     */
+    public static long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time taken since the start of a measurement.
+     *
+     * @param   name        the name of the part being measured, such as "MapScreen.redraw"
+     * @param   startNanos  the value returned by start() at the beginning of the measurement
+     */
+    public static void record(String name, long startNanos) {
+        TIMINGS.computeIfAbsent(name, key -> new PerformanceHistogram()).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Marks the start of an act() call of a world, which is also the start of a frame. The previous frame is recorded if it belonged to
+     * the same world, including the act() calls of its actors. Must be called on the act thread at the very start of the act() call.
+     *
+     * @param   world   the name of the world whose frame is starting
+     */
+    public static void startFrame(String world) {
+        long allocatedBytes = getAllocatedBytes();
+        long now = System.nanoTime();
+
+        if (world.equals(frameWorld)) {
+            TIMINGS.computeIfAbsent(world + ".frame", key -> new PerformanceHistogram()).record(now - frameStartNanos);
+            if (allocatedBytes >= 0 && frameStartBytes >= 0) {
+                ALLOCATIONS.computeIfAbsent(world + ".frame", key -> new PerformanceHistogram()).record(allocatedBytes - frameStartBytes);
+            }
+        }
+
+        frameWorld = world;
+        frameStartBytes = allocatedBytes;
+        frameStartNanos = now;
+    }
+
+    /**
+     * Records the time taken by the act() call of a world since startFrame() was called, which does not include the act() calls of
+     * its actors. Must be called on the act thread at the end of the act() call.
+     *
+     * @param   world   the name of the world whose act() call is being measured
+     */
+    public static void endFrame(String world) {
+        record(world + ".act", frameStartNanos);
+    }
+
+    /**
+     * Returns whether or not the bytes allocated during each frame can be counted on this JVM.
+     *
+     * @return  true if allocations are being recorded
+     */
+    public static boolean isAllocationCountingSupported() {
+        return ALLOCATION_COUNTER != null;
+    }
+
+    /**
+     * Returns the histogram of times recorded for a part of the program.
+     *
+     * @param   name    the name of the part being measured
+     * @return          the PerformanceHistogram of times in nanoseconds, or null if nothing has been recorded for the name
+     */
+    public static PerformanceHistogram getTimings(String name) {
+        return TIMINGS.get(name);
+    }
+
+    /**
+     * Removes every recorded measurement.
+     */
+    public static void reset() {
+        TIMINGS.clear();
+        ALLOCATIONS.clear();
+    }
+
+    /**
+     * Creates a table of the recorded measurements, with one line for each part of the program sorted by name.
+     * Times are shown in milliseconds and allocations in kilobytes per frame.
+     *
+     * @return  a List of the lines of the table, starting with the heading
+     */
+    public static List<String> getReport() {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-28s %7s %8s %8s %8s %8s", "Time (ms)", "count", "last", "p50", "p99", "max"));
+        for (Map.Entry<String, PerformanceHistogram> entry : new TreeMap<>(TIMINGS).entrySet()) {
+            PerformanceHistogram histogram = entry.getValue();
+            lines.add(String.format("%-28s %7d %8.2f %8.2f %8.2f %8.2f", entry.getKey(), histogram.getCount(),
+                                    histogram.getLast() / 1e6, histogram.getPercentile(0.5) / 1e6,
+                                    histogram.getPercentile(0.99) / 1e6, histogram.getMax() / 1e6));
+        }
+
+        if (ALLOCATIONS.isEmpty()) {
+            lines.add(isAllocationCountingSupported() ? "No allocations recorded yet" : "Allocations cannot be counted on this JVM");
+            return lines;
+        }
+        lines.add(String.format("%-28s %7s %8s %8s %8s %8s", "Allocated (KB)", "count", "last", "p50", "p99", "max"));
+        for (Map.Entry<String, PerformanceHistogram> entry : new TreeMap<>(ALLOCATIONS).entrySet()) {
+            PerformanceHistogram histogram = entry.getValue();
+            lines.add(String.format("%-28s %7d %8.1f %8.1f %8.1f %8.1f", entry.getKey(), histogram.getCount(),
+                                    histogram.getLast() / 1024.0, histogram.getPercentile(0.5) / 1024.0,
+                                    histogram.getPercentile(0.99) / 1024.0, histogram.getMax() / 1024.0));
+        }
+        return lines;
+    }
+
+    /**
+     * Starts writing the report to the terminal or to a file at a fixed interval on a background thread.
+     * Any writing that has already been started is stopped first.
+     *
+     * @param   intervalMillis  the number of milliseconds between reports
+     * @param   file            the file the reports are added to, or null to print them to the terminal
+     */
+    public static synchronized void startDumping(long intervalMillis, Path file) {
+        stopDumping();
+        dumpExecutor = Executors.newSingleThreadScheduledExecutor(WeatherTaskExecutor.createThreadFactory("performance-dump"));
+        dumpExecutor.scheduleAtFixedRate(() -> dump(file), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops writing the report at a fixed interval.
+     */
+    public static synchronized void stopDumping() {
+        if (dumpExecutor != null) {
+            dumpExecutor.shutdownNow();
+            dumpExecutor = null;
+        }
+    }
+
+    /**
+     * Writes the report once, headed by the current time.
+     *
+     * @param   file    the file the report is added to, or null to print it to the terminal
+     */
+    private static void dump(Path file) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Performance report at " + LocalTime.now().format(DUMP_TIME_FORMAT));
+        lines.addAll(getReport());
+
+        if (file == null) {
+            System.out.println(String.join(System.lineSeparator(), lines));
+            return;
+        }
+
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.out.println("Error writing performance report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the total number of bytes allocated by the current thread so far.
+     *
+     * @return  the number of bytes, or -1 if the JVM cannot count them
+     */
+    private static long getAllocatedBytes() {
+        return ALLOCATION_COUNTER != null ? ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Finds the part of the JVM that can count the bytes allocated by each thread, and turns counting on if it is off.
+     *
+     * @return  the ThreadMXBean used to count allocations, or null if the JVM does not support counting them
+     */
+    private static com.sun.management.ThreadMXBean createAllocationCounter() {
+        try {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (threads instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+                if (counter.isThreadAllocatedMemorySupported()) {
+                    counter.setThreadAllocatedMemoryEnabled(true);
+                    return counter;
+                }
+            }
+        } catch (RuntimeException e) {      // Thrown if the JVM does not allow counting to be turned on
+            System.out.println("Error enabling allocation counting: " + e.getMessage());
+        }
+        return null;
+    }
+}
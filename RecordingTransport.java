@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * The RecordingTransport class sends every request through another transport, normally the WeatherHttpClient, and saves each response
+ * to a folder of fixtures before returning it, so that the same requests can later be answered by a ReplayTransport without the
+ * network. Responses with status 304 are not saved, since they only mean that a conditional request found nothing new and have no body
+ * to replay. The body of each response is read in full so it can be saved, and is then returned from memory.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class RecordingTransport extends WeatherTransport {
+    private final WeatherTransport delegate;
+    private final WeatherFixtureStore fixtures;
+
+    /**
+     * Constructor for objects of class RecordingTransport.
+     *
+     * @param   delegate    the WeatherTransport the requests are sent through
+     * @param   folder      the folder the fixtures are saved to
+     */
+    public RecordingTransport(WeatherTransport delegate, Path folder) {
+        this.delegate = delegate;
+        this.fixtures = new WeatherFixtureStore(folder);
+    }
+
+    /**
+     * Sends a request through the other transport and saves its response as a fixture.
+     * A response that cannot be saved is still returned, so recording never stops the program from working.
+     *
+     * @param   endpoint    the name of the endpoint, such as "weather" or "forecast"
+     * @param   parameters  the query parameters of the request
+     * @param   headers     the extra headers of the request
+     * @return              a WeatherResponse object holding the response in memory
+     */
+    @Override
+    public WeatherResponse get(String endpoint, Map<String, String> parameters, Map<String, String> headers) throws IOException {
+        try (WeatherResponse response = delegate.get(endpoint, parameters, headers)) {
+            byte[] body = response.getBody().readAllBytes();
+
+            if (response.getStatusCode() != 304) {     // Not Modified
+                try {
+                    fixtures.save(endpoint, parameters, response.getStatusCode(), response.getHeaders(), body);
+                } catch (IOException e) {
+                    System.out.println("Error recording weather response: " + e.getMessage());
+                }
+            }
+            return new WeatherResponse(response.getStatusCode(), response.getHeaders(), body);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The ReplayTransport class answers requests from a folder of fixtures saved by a RecordingTransport instead of sending them to the
+ * OpenWeatherMap API, so the program and the fetchers can be used, tested and timed without a network connection or an API key. To make
+ * the replayed responses behave more like the real API, each request can be delayed by a fixed time plus a random extra time, and a
+ * fraction of the requests can be made to fail with status 503. Requests without a fixture are answered with status 404, in the same
+ * way as the API answers a request for a city it does not know. Conditional requests are answered with status 304 when the ETag of the
+ * fixture matches, so the conditional requests of the fetchers can be tested as well.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class ReplayTransport extends WeatherTransport {
+    // Bodies of the responses made up by the transport, in the same form as the errors sent by the API
+    private static final byte[] NOT_FOUND_BODY = "{\"cod\":\"404\",\"message\":\"city not found\"}".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] UNAVAILABLE_BODY = "{\"cod\":\"503\",\"message\":\"injected failure\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final WeatherFixtureStore fixtures;
+
+    // Injected delay and failures
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private volatile double errorRate;
+
+    // Numbers of requests answered, used to check that a test sent the requests it expected
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicLong missingCount = new AtomicLong();
+
+    /**
+     * Constructor for objects of class ReplayTransport that answers every request straight away and never fails on purpose.
+     *
+     * @param   folder  the folder holding the fixtures
+     */
+    public ReplayTransport(Path folder) {
+        this(folder, 0, 0, 0);
+    }
+
+    /**
+     * Constructor for objects of class ReplayTransport.
+     *
+     * @param   folder          the folder holding the fixtures
+     * @param   latencyMillis   the number of milliseconds every request is delayed by
+     * @param   jitterMillis    the largest number of random extra milliseconds a request is delayed by
+     * @param   errorRate       the fraction of requests that fail with status 503, from 0 to 1
+     */
+    public ReplayTransport(Path folder, long latencyMillis, long jitterMillis, double errorRate) {
+        this.fixtures = new WeatherFixtureStore(folder);
+        setLatency(latencyMillis, jitterMillis);
+        setErrorRate(errorRate);
+    }
+
+    /**
+     * Changes the delay added to every request.
+     *
+     * @param   latencyMillis   the number of milliseconds every request is delayed by
+     * @param   jitterMillis    the largest number of random extra milliseconds a request is delayed by
+     */
+    public void setLatency(long latencyMillis, long jitterMillis) {
+        this.latencyMillis = Math.max(0, latencyMillis);
+        this.jitterMillis = Math.max(0, jitterMillis);
+    }
+
+    /**
+     * Changes the fraction of requests that fail on purpose.
+     *
+     * @param   errorRate   the fraction of requests that fail with status 503, from 0 to 1
+     */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = Math.max(0, Math.min(1, errorRate));
+    }
+
+    /**
+     * Answers a request from its fixture after the injected delay, or fails it on purpose.
+     *
+     * @param   endpoint    the name of the endpoint, such as "weather" or "forecast"
+     * @param   parameters  the query parameters of the request
+     * @param   headers     the extra headers of the request
+     * @return              a WeatherResponse object holding the saved response, or a made up response with status 304, 404 or 503
+     */
+    @Override
+    public WeatherResponse get(String endpoint, Map<String, String> parameters, Map<String, String> headers) throws IOException {
+        requestCount.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Waits as long as the API might take to respond
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();     // Keeps the interrupt so the calling thread can still stop
+                throw new IOException("Request interrupted", e);
+            }
+        }
+
+        // Fails some of the requests on purpose
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            failureCount.incrementAndGet();
+            return new WeatherResponse(503, Collections.emptyMap(), UNAVAILABLE_BODY);
+        }
+
+        WeatherResponse response = fixtures.load(endpoint, parameters);
+        if (response == null) {
+            missingCount.incrementAndGet();
+            return new WeatherResponse(404, Collections.emptyMap(), NOT_FOUND_BODY);
+        }
+
+        // Answers a conditional request for the same version of the response without a body
+        String eTag = response.getHeader("ETag");
+        if (eTag != null && eTag.equals(headers.get("If-None-Match"))) {
+            return new WeatherResponse(304, response.getHeaders(), new byte[0]);
+        }
+        return response;
+    }
+
+    /**
+     * Returns the number of requests that have been answered.
+     *
+     * @return  the number of requests
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Returns the number of requests that were failed on purpose.
+     *
+     * @return  the number of injected failures
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Returns the number of requests that had no fixture.
+     *
+     * @return  the number of requests answered with status 404
+     */
+    public long getMissingCount() {
+        return missingCount.get();
+    }
+}
@@ -0,0 +1,105 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The SingleFlight class makes sure that only one request for the same key is running at any time. When a request is made for a key
+ * that already has a request running, for example when the same city is clicked on the map while the GraphScreen world is also loading
+ * it, the second caller is given the result of the first request instead of starting another one. Each running request is stored as a
+ * CompletableFuture in a map until it finishes, after which the next request for that key starts a new one. This stops bursts of
+ * identical requests from using up the limit on calls to the OpenWeatherMap API and from parsing the same response several times.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class SingleFlight<K, V> {
+    // Requests that are currently running
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    // Number of requests that were given the result of a request that was already running
+    private final AtomicLong sharedCount = new AtomicLong();
+
+    /**
+     * Runs a request on an executor unless a request for the same key is already running.
+     *
+     * @param   key         the key identifying the request, such as the name of a city
+     * @param   loader      the task that makes the request
+     * @param   executor    the executor the task is run on if a new request is started
+     * @return              a CompletableFuture that is completed with the result of the running request
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> loader, Executor executor) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            sharedCount.incrementAndGet();
+            return running;
+        }
+
+        try {
+            executor.execute(() -> run(key, loader, future));
+        } catch (RuntimeException e) {      // The executor refused the task, so the request is finished straight away
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Runs a request on the calling thread unless a request for the same key is already running, in which case the calling thread
+     * waits for the result of that request instead.
+     *
+     * @param   key     the key identifying the request, such as the name of a city
+     * @param   loader  the task that makes the request
+     * @return          the result of the request
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            sharedCount.incrementAndGet();
+            return running.join();
+        }
+
+        run(key, loader, future);
+        return future.join();
+    }
+
+    /**
+     * Returns the number of requests that are currently running.
+     *
+     * @return  the number of keys with a running request
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Returns the number of requests that were given the result of a request that was already running instead of starting their own.
+     *
+     * @return  the number of shared requests
+     */
+    public long getSharedCount() {
+        return sharedCount.get();
+    }
+
+    /**
+     * Runs a request, completes its future with the result and removes it from the running requests.
+     * The request is removed before the future is completed so that callers woken by the result never see a finished request as running.
+     *
+     * @param   key     the key identifying the request
+     * @param   loader  the task that makes the request
+     * @param   future  the CompletableFuture shared by every caller of the request
+     */
+    private void run(K key, Supplier<V> loader, CompletableFuture<V> future) {
+        try {
+            V value = loader.get();
+            inFlight.remove(key, future);
+            future.complete(value);
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -1,11 +1,10 @@
 import greenfoot.*;
-import java.util.ArrayList;
 
 /**
  * The SummaryButton class creates a button that displays a string of summary information onto the terminal for the current line graph 
  * being displayed in the GraphScreen world. The summary information contains the day and the time range of the forecast. It also includes 
- * the minimum, maximum and average forecast temperatures of the day being summarised. The background colors of the buttons change when 
- * hovered and when clicked by the user due to inheritance from the Button class.
+ * the minimum, maximum and average forecast values of the weather metric on the graph for the day being summarised. The background 
+ * colors of the buttons change when hovered and when clicked by the user due to inheritance from the Button class.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
@@ -28,166 +27,59 @@ public class SummaryButton extends Button {
 
     /**
      * Calculates the summary values for the current data type of the graph and outputs the result onto the terminal.
-     * The values include the minimum and maximum temperature in the 24 hour interval, the average temperature during 
+     * The values include the minimum and maximum values in the 24 hour interval, the average value during 
      * that time and the time range of the data.
      */
     @Override
     protected void onClick() {
-        ArrayList<ThreeHourForecast> forecastList = graph.getWeatherData().getForecasts();
+        ForecastWeatherData weatherData = graph.getWeatherData();
+        if (weatherData == null) {  // Nothing to summarise until the forecast has been fetched
+            return;
+        }
+        ForecastColumns forecastList = weatherData.getForecastColumns();
+        ForecastAggregates aggregates = weatherData.getAggregates();
+        WeatherMetric metric = graphScreen.getGraphType();
         
         // Stores the name of the city and the day of the forecast
-        String cityName = graph.getWeatherData().getCityName();
+        String cityName = weatherData.getCityName();
         int dayIndex = graph.getDayIndex();
         
         // Calculates the time range of the data        
         String[] timeRange = getTimeRange(forecastList, dayIndex);
         
-        // Calculates minimum and maximum values
-        double min = calculateMin(forecastList, dayIndex);
-        double max = calculateMax(forecastList, dayIndex);
-        
-        // Calculates the time for the minimum and maximum
-        String minTime = getMinTime(forecastList, dayIndex, min);
-        String maxTime = getMaxTime(forecastList, dayIndex, max);
+        // Looks up the minimum and maximum values and their times, which were worked out when the forecast was created
+        double min = aggregates.getMin(metric, dayIndex);
+        double max = aggregates.getMax(metric, dayIndex);
+        String minTime = forecastList.getTimestampString(aggregates.getMinIndex(metric, dayIndex));
+        String maxTime = forecastList.getTimestampString(aggregates.getMaxIndex(metric, dayIndex));
         
-        // Calculates the average of the values
-        double average = calculateAverage(forecastList, dayIndex);
+        // Looks up the average of the values
+        double average = aggregates.getMean(metric, dayIndex);
         
         // Prints the summary information
         printTimeRange(cityName, dayIndex, timeRange[0], timeRange[1]);
-        printSummary(min, minTime, max, maxTime, average);
+        printSummary(metric, min, minTime, max, maxTime, average);
     }
     
     /**
      * Calculates and returns the start and end time of the data summary at a particular day.
      *
-     * @param   forecastList    an ArrayList containing 40 ThreeHourForecast objects
+     * @param   forecastList    a ForecastColumns object containing 40 forecasts
      * @param   dayIndex        the forecast day index
      * @return                  an array containing the start and end times as Strings
      */
-    private String[] getTimeRange(ArrayList<ThreeHourForecast> forecastList, int dayIndex) {
+    static String[] getTimeRange(ForecastColumns forecastList, int dayIndex) {
         // Finds the first forecast entry for the selected day
         int startIndex = dayIndex * 8;    
-        String startTime = forecastList.get(startIndex).getTimestampString();
+        String startTime = forecastList.getTimestampString(startIndex);
         
         // Finds the last forecast entry for the selected day
         int endIndex = (dayIndex + 1) * 8 - 1;
-        String endTime = forecastList.get(endIndex).getTimestampString();
+        String endTime = forecastList.getTimestampString(endIndex);
     
         return new String[]{startTime, endTime};
     }
     
-    /**
-     * Calculates and returns the minimum value at a particular day in the forecast.
-     * 
-     * @param   forecastList    an ArrayList containing 40 ThreeHourForecast objects
-     * @param   dayIndex        the forecast day index
-     * @return                  the minimum value in the given day
-     */
-    private double calculateMin(ArrayList<ThreeHourForecast> forecastList, int dayIndex) {
-        double min = Double.POSITIVE_INFINITY;
-        
-        // The result is calculated using 8 values (8 values per day)
-        for (int i = dayIndex * 8; i < (dayIndex + 1) * 8; i++) {
-            double value = graph.getValue(forecastList.get(i));
-            if (value < min) {
-                min = value;
-            }
-        }
-    
-        return min;
-    }
-    
-    /**
-     * Calculates and returns the maximum value at a particular day in the forecast.
-     * 
-     * @param   forecastList    an ArrayList containing 40 ThreeHourForecast objects
-     * @param   dayIndex        the forecast day index
-     * @return                  the maximmum value in the given day
-     */
-    private double calculateMax(ArrayList<ThreeHourForecast> forecastList, int dayIndex) {
-        double max = Double.NEGATIVE_INFINITY;
-        
-        // The result is calculated using 8 values (8 values per day)
-        for (int i = dayIndex * 8; i < (dayIndex + 1) * 8; i++) {
-            double value = graph.getValue(forecastList.get(i));
-            if (value > max) {
-                max = value;   
-            }
-        }
-    
-        return max;
-    }
-    
-    /**
-     * Calculates and returns the time of the minimum value at a particular day in the forecast.
-     * 
-     * @param   forecastList    an ArrayList containing 40 ThreeHourForecast objects
-     * @param   dayIndex        the forecast day index
-     * @param   min             the minimum value in the given day
-     * @return                  the time of the minimum value
-     */
-    private String getMinTime(ArrayList<ThreeHourForecast> forecastList, int dayIndex, double min) {
-        String minTime = "";
-    
-        // The result is calculated using 8 values (8 values per day)
-        for (int i = dayIndex * 8; i < (dayIndex + 1) * 8; i++) {
-            ThreeHourForecast forecast = forecastList.get(i);
-            double value = graph.getValue(forecast);
-    
-            if (value == min) {
-                minTime = forecast.getTimestampString();
-                break;  // Leaves the loop once found
-            }
-        }
-    
-        return minTime;
-    }
-    
-    
-    /**
-     * Calculates and returns the time of the maximum value at a particular day in the forecast.
-     * 
-     * @param   forecastList    an ArrayList containing 40 ThreeHourForecast objects
-     * @param   dayIndex        the forecast day index
-     * @param   min             the maximum value in the given day
-     * @return                  the time of the maximum value
-     */
-    private String getMaxTime(ArrayList<ThreeHourForecast> forecastList, int dayIndex, double max) {
-        String maxTime = "";
-    
-        // The result is calculated using 8 values (8 values per day)
-        for (int i = dayIndex * 8; i < (dayIndex + 1) * 8; i++) {
-            ThreeHourForecast forecast = forecastList.get(i);
-            double value = graph.getValue(forecast);
-    
-            if (value == max) {
-                maxTime = forecast.getTimestampString();
-                break;  // Leaves the loop once found
-            }
-        }
-    
-        return maxTime;
-    }
-    
-    /**
-     * Calculates and returns the average of the 8 values at a particular day in the forecast.
-     * 
-     * @param   forecastList    an ArrayList of the forecasts
-     * @param   dayIndex        the forecast day index
-     * @return                  the average value in the given day
-     */
-    private double calculateAverage(ArrayList<ThreeHourForecast> forecastList, int dayIndex) {
-        double total = 0.0;
-    
-        // The result is calculated using 8 values (8 values per day)
-        for (int i = dayIndex * 8; i < (dayIndex + 1) * 8; i++) {
-            total += graph.getValue(forecastList.get(i));
-        }
-    
-        return total / 8;
-    }
-    
     /**
      * Prints a String onto the terminal containing information about the name of the city, the forecast day and 
      * the start and end times of the data.
@@ -207,27 +99,29 @@ public class SummaryButton extends Button {
     }
     
     /**
-     * Prints a String onto the terminal containing a summary of the temperature data.
-     * The summary includes the the minimum and maximum temperatures and times, and the average temperature across the day.
+     * Prints a String onto the terminal containing a summary of the data of a weather metric.
+     * The summary includes the the minimum and maximum values and times, and the average value across the day, formatted with the unit
+     * of the metric.
      * 
-     * @param   minTemp     the minimum temperature in the 24-hour timespan
-     * @param   minTime     the time of the minimum temperature
-     * @param   maxtemp     the minimum temperature in the 24-hour timespan
-     * @param   maxTime     the time of the minimum temperature
-     * @param   average     the average temperature in the 24-hour timespan
+     * @param   metric      the WeatherMetric being summarised
+     * @param   min         the minimum value in the 24-hour timespan
+     * @param   minTime     the time of the minimum value
+     * @param   max         the maximum value in the 24-hour timespan
+     * @param   maxTime     the time of the maximum value
+     * @param   average     the average value in the 24-hour timespan
      */
-    private void printSummary(double minTemp, String minTime, double maxTemp, String maxTime, double average) {
+    private void printSummary(WeatherMetric metric, double min, String minTime, double max, String maxTime, double average) {
         System.out.printf(
             "======= Weather Summary =======\n" +
             "Weather Metric: %s\n" +
-            "Min Temperature: %.2f°C at %s\n" +
-            "Max Temperature: %.2f°C at %s\n" +
-            "Average Temperature: %.2f°C\n" +
+            "Min %s: %s at %s\n" +
+            "Max %s: %s at %s\n" +
+            "Average %s: %s\n" +
             "===============================\n",
-            graphScreen.getGraphType(),
-            minTemp, minTime,
-            maxTemp, maxTime,
-            average
+            metric.getName(),
+            metric.getName(), metric.format(min), minTime,
+            metric.getName(), metric.format(max), maxTime,
+            metric.getName(), metric.format(average)
         );
     }
 }
\ No newline at end of file
@@ -1,135 +1,91 @@
 /**
- * The ThreeHourForecast class stores forecast weather data in a 3-hour snapshot for the city in ForecastWeatherData. All the 3-hour segments 
- * are compiled into an ArrayList in a ForecastWeatherData object.The data held in ThreeHourForecast objects can be accessed via get methods 
- * for each field. The data in this class is obtained from the OpenWeatherMap API.
+ * The ThreeHourForecast class gives access to the forecast weather data in a 3-hour snapshot for the city in ForecastWeatherData. The data 
+ * itself is stored in the columns of a ForecastColumns object, and each ThreeHourForecast object only holds the position of its segment 
+ * in those columns, so these objects are cheap to create and are made whenever they are asked for. The data can be accessed via get 
+ * methods for each field. The constructor that takes every field is kept for code written before the columns were added, and stores the
+ * segment in a ForecastColumns object of its own. The data in this class is obtained from the OpenWeatherMap API.
  * 
  * @author  Mohammad Sameen Ahmed
  * @version 1.0 (03.04.2025)
  */
 public class ThreeHourForecast {
-    // Time of Data   
-    private long timestamp;
-    private String timestampString;
-    
-    // Main Data
-    private double temperature;
-    private double feelsLike;
-    private double tempMin;
-    private double tempMax;
-    private int pressure;
-    private int seaLevelPressure;
-    private int groundLevelPressure;
-    private int humidity;
-    private double tempKf;  // Internal parameter
-    
-    // Weather Conditions
-    private int weatherID;
-    private String weatherMain;
-    private String weatherDescription;
-    private String weatherIcon;
-    
-    // Clouds
-    private int cloudiness;
-    
-    // Wind
-    private double windSpeed;
-    private int windDirection;
-    private double windGust;
-    
-    // Visibility
-    private int visibility;
-    
-    // Probability of Precipitation
-    private double precipitationProb;
-    
-    // Rain
-    private double rainVolume;
-    
-    // Snow
-    private double snowVolume;
-    
-    // Part of Day
-    private String partOfDay;
+    // Columns holding the data and the position of this segment in them
+    private final ForecastColumns columns;
+    private final int index;
 
     /**
-     * Constructor for objects of class ForecastWeatherData.
-     * Every parameter stores current weather data from the OpenWeatherMap API.
+     * Constructor for objects of class ThreeHourForecast.
+     * 
+     * @param   columns     the ForecastColumns object holding the data
+     * @param   index       the position of this 3-hour segment in the columns
      */
+    public ThreeHourForecast(ForecastColumns columns, int index) {
+        this.columns = columns;
+        this.index = index;
+    }
+
+    /**
+     * Constructor for objects of class ThreeHourForecast holding a single segment in columns of its own.
+     * Every parameter stores forecast weather data from the OpenWeatherMap API.
+     * 
+     * @deprecated  Forecasts are stored in a ForecastColumns object, so segments should be added with ForecastColumns.add() and read
+     *              with ForecastWeatherData.getForecast() instead.
+     */
+    @Deprecated
     public ThreeHourForecast(
             long timestamp, String timestampString, double temperature, double feelsLike, double tempMin, double tempMax,
             int pressure, int seaLevelPressure, int groundLevelPressure, int humidity, double tempKf,
             int weatherID, String weatherMain, String weatherDescription, String weatherIcon, int cloudiness,
             double windSpeed, int windDirection, double windGust, int visibility, double precipitationProb,
             double rainVolume, double snowVolume, String partOfDay) {
-        // Time of Data
-        this.timestamp = timestamp;
-        this.timestampString = timestampString;
-        // Main Data
-        this.temperature = temperature;
-        this.feelsLike = feelsLike;
-        this.tempMin = tempMin;
-        this.tempMax = tempMax;
-        this.pressure = pressure;
-        this.seaLevelPressure = seaLevelPressure;
-        this.groundLevelPressure = groundLevelPressure;
-        this.humidity = humidity;
-        this.tempKf = tempKf;
-        // Weather Conditions
-        this.weatherID = weatherID;
-        this.weatherMain = weatherMain;
-        this.weatherDescription = weatherDescription;
-        this.weatherIcon = weatherIcon;
-        // Clouds
-        this.cloudiness = cloudiness;
-        // Wind
-        this.windSpeed = windSpeed;
-        this.windDirection = windDirection;
-        this.windGust = windGust;
-        // Visibility
-        this.visibility = visibility;
-        // Probability of Precipitation
-        this.precipitationProb = precipitationProb;
-        // Rain
-        this.rainVolume = rainVolume;
-        // Snow
-        this.snowVolume = snowVolume;
-        // Part of Day
-        this.partOfDay = partOfDay;
+        this(new ForecastColumns(1), 0);
+        columns.add(timestamp, timestampString, temperature, feelsLike, tempMin, tempMax, pressure, seaLevelPressure,
+                    groundLevelPressure, humidity, tempKf, weatherID, weatherMain, weatherDescription, weatherIcon, cloudiness,
+                    windSpeed, windDirection, windGust, visibility, precipitationProb, rainVolume, snowVolume, partOfDay);
+    }
+
+    /**
+     * Returns the position of this 3-hour segment in the forecast list.
+     * 
+     * @return  the index of the segment
+     */
+    public int getIndex() {
+        return index;
     }
 
     // Get methods for every field
     // Time of Data
-    public long getTimestamp() { return timestamp; }
-    public String getTimestampString() { return timestampString; }
+    public long getTimestamp() { return columns.getTimestamp(index); }
+    public String getTimestampString() { return columns.getTimestampString(index); }
     // Main Data
-    public double getTemperature() { return temperature; }
-    public double getFeelsLike() { return feelsLike; }
-    public double getTempMin() { return tempMin; }
-    public double getTempMax() { return tempMax; }
-    public int getPressure() { return pressure; }
-    public int getSeaLevelPressure() { return seaLevelPressure; }
-    public int getGroundLevelPressure() { return groundLevelPressure; }
-    public int getHumidity() { return humidity; }
-    public double getTempKf() { return tempKf; }
+    public double getTemperature() { return columns.getTemperature(index); }
+    public double getFeelsLike() { return columns.getFeelsLike(index); }
+    public double getTempMin() { return columns.getTempMin(index); }
+    public double getTempMax() { return columns.getTempMax(index); }
+    public int getPressure() { return columns.getPressure(index); }
+    public int getSeaLevelPressure() { return columns.getSeaLevelPressure(index); }
+    public int getGroundLevelPressure() { return columns.getGroundLevelPressure(index); }
+    public int getHumidity() { return columns.getHumidity(index); }
+    public double getTempKf() { return columns.getTempKf(index); }
     // Weather Conditions
-    public int getWeatherID() { return weatherID; }
-    public String getWeatherMain() { return weatherMain; }
-    public String getWeatherDescription() { return weatherDescription; }
-    public String getWeatherIcon() { return weatherIcon; }
+    public int getWeatherID() { return columns.getWeatherID(index); }
+    public String getWeatherMain() { return columns.getWeatherMain(index); }
+    public String getWeatherDescription() { return columns.getWeatherDescription(index); }
+    public String getWeatherIcon() { return columns.getWeatherIcon(index); }
     // Clouds
-    public int getCloudiness() { return cloudiness; }
+    public int getCloudiness() { return columns.getCloudiness(index); }
     // Wind
-    public double getWindSpeed() { return windSpeed; }
-    public int getWindDirection() { return windDirection; }
-    public double getWindGust() { return windGust; }
+    public double getWindSpeed() { return columns.getWindSpeed(index); }
+    public int getWindDirection() { return columns.getWindDirection(index); }
+    public double getWindGust() { return columns.getWindGust(index); }
     // Visibility
-    public int getVisibility() { return visibility; }
+    public int getVisibility() { return columns.getVisibility(index); }
     // Probability of Precipitation
-    public double getPrecipitationProb() { return precipitationProb; }
+    public double getPrecipitationProb() { return columns.getPrecipitationProb(index); }
     // Rain
-    public double getRainVolume() { return rainVolume; }
+    public double getRainVolume() { return columns.getRainVolume(index); }
     // Snow
-    public double getSnowVolume() { return snowVolume; }
+    public double getSnowVolume() { return columns.getSnowVolume(index); }
     // Part of Day
-    public String getPartOfDay() { return partOfDay; }
+    public String getPartOfDay() { return columns.getPartOfDay(index); }
 }
\ No newline at end of file
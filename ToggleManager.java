@@ -10,7 +10,7 @@ import java.util.Arrays;
  * @version 1.0 (03.04.2025)
  */
 public class ToggleManager {
-    private ArrayList<String> activeToggles = new ArrayList<>(Arrays.asList("Description", "Temperature")); // Dynamically updates
+    private ArrayList<String> activeToggles = new ArrayList<>(Arrays.asList("Description", WeatherMetric.TEMPERATURE.getName())); // Dynamically updates
     
     /**
      * Returns all the currently active toggle buttons.
@@ -0,0 +1,312 @@
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * The WeatherBenchmark class measures the speed of the parts of the program that run most often or on the most data: parsing forecast and
+ * current weather responses, finding the nearest city to a point, converting cities into positions on the map, and calculating the summary
+ * of a day of forecast data. It is run from
+ * the command line with its main() method rather than from Greenfoot, so that the measurements are not affected by the worlds being drawn.
+ * Each benchmark is run repeatedly for a warm-up period so the JVM has compiled it, and is then timed over several rounds, and the mean
+ * time per operation and its spread across the rounds are printed. The result of every operation is added to a sink so the JVM cannot
+ * skip work whose result is never used. Responses are generated in the same shape as the API's, or a recorded forecast response can be
+ * given as the first argument.
+ *
+ * Usage, with the JSON library on the classpath:
+ *     java WeatherBenchmark [forecast-response.json] [name filter]
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherBenchmark {
+    // Timing of each benchmark
+    private static final long WARMUP_MILLIS = 2000;
+    private static final int ROUNDS = 5;
+    private static final long ROUND_MILLIS = 1000;
+
+    // Numbers of cities used by the nearest city benchmarks
+    private static final int[] CITY_COUNTS = {75, 10_000, 1_000_000};
+    private static final int QUERY_COUNT = 1024;    // Query points are reused in a cycle so creating them is not timed
+
+    // Numbers of cities converted into positions on the map, which is done for every visible city each time the map moves
+    private static final int[] PROJECTION_CITY_COUNTS = {75, 10_000};
+
+    // Receives the result of every operation so it cannot be optimised away
+    private static volatile double sink;
+
+    /**
+     * A piece of work that is timed by the benchmark.
+     */
+    private interface Operation {
+        /**
+         * Performs the work once.
+         *
+         * @param   iteration   the number of times the operation has been performed so far, used to cycle through inputs
+         * @return              a value depending on the result of the work, which is added to the sink
+         */
+        double run(int iteration) throws Exception;
+    }
+
+    /**
+     * Runs every benchmark whose name contains the filter and prints the results.
+     *
+     * @param   args    an optional path to a recorded forecast response, followed by an optional filter for the benchmark names
+     */
+    public static void main(String[] args) throws Exception {
+        byte[] forecastJson = args.length > 0 && !args[0].isEmpty() ? Files.readAllBytes(Path.of(args[0])) : createForecastJson(new Random(42));
+        byte[] currentJson = createCurrentJson(new Random(42));
+        String filter = args.length > 1 ? args[1] : "";
+
+        System.out.printf("%-34s %14s %12s %14s%n", "Benchmark", "ns/op", "+/- ns", "ops/s");
+
+        // Parsing of forecast responses with both parsers
+        ForecastWeatherFetcher forecastFetcher = new ForecastWeatherFetcher();
+        for (ForecastWeatherFetcher.ParserType parserType : ForecastWeatherFetcher.ParserType.values()) {
+            run("forecast.parse." + parserType.name().toLowerCase(Locale.ROOT), filter, iteration -> {
+                forecastFetcher.setParserType(parserType);
+                return forecastFetcher.parseWeatherData(new ByteArrayInputStream(forecastJson)).getForecastColumns().size();
+            });
+        }
+
+        // Parsing of current weather responses
+        CurrentWeatherFetcher currentFetcher = new CurrentWeatherFetcher();
+        run("current.parse", filter, iteration -> currentFetcher.parseWeatherData(new ByteArrayInputStream(currentJson)).getTemperature());
+
+        // Distance between two points, which is used by every nearest city search
+        double[][] queries = createQueries(new Random(7));
+        run("geometry.haversine", filter, iteration -> {
+            double[] a = queries[iteration & (QUERY_COUNT - 1)];
+            double[] b = queries[(iteration + 1) & (QUERY_COUNT - 1)];
+            return CityIndex.haversine(a[0], a[1], b[0], b[1]);
+        });
+
+        // Finding the nearest city by checking every city, as the MapScreen used to, and with the k-d tree index
+        for (int cityCount : CITY_COUNTS) {
+            if (!isSelected("nearest.index." + cityCount, filter) && !isSelected("nearest.linear." + cityCount, filter)) {
+                continue;   // Creating a million cities takes a while, so they are only created if needed
+            }
+            List<City> cities = createCities(cityCount, new Random(cityCount));
+            CityIndex index = new CityIndex(cities);
+
+            run("nearest.index." + cityCount, filter, iteration -> {
+                double[] query = queries[iteration & (QUERY_COUNT - 1)];
+                return index.findNearest(query[0], query[1]).getLatitude();
+            });
+            if (cityCount <= 10_000) {  // Checking a million cities per query is too slow to be worth timing
+                run("nearest.linear." + cityCount, filter, iteration -> {
+                    double[] query = queries[iteration & (QUERY_COUNT - 1)];
+                    return findNearestLinear(cities, query[0], query[1]).getLatitude();
+                });
+            }
+        }
+
+        // Converting cities into positions on the screen in one pass, as the MapScreen does, and one coordinate at a time
+        MapProjection projection = new MapProjection(61.10, 49.00, -10.48, 1.77, 471, 788, 20);
+        projection.update(-471, -788, 471 * 3, 788 * 3);    // The map zoomed in three times around its centre
+        for (int cityCount : PROJECTION_CITY_COUNTS) {
+            List<City> cities = createCities(cityCount, new Random(cityCount));
+            double[] lats = new double[cityCount];
+            double[] lons = new double[cityCount];
+            for (int i = 0; i < cityCount; i++) {
+                lats[i] = cities.get(i).getLatitude();
+                lons[i] = cities.get(i).getLongitude();
+            }
+            int[] xs = new int[cityCount];
+            int[] ys = new int[cityCount];
+
+            run("map.project." + cityCount, filter, iteration -> {
+                projection.project(lats, lons, cityCount, xs, ys);
+                return xs[iteration % cityCount] + ys[iteration % cityCount];
+            });
+            run("map.toscreen." + cityCount, filter, iteration -> {
+                for (int i = 0; i < cityCount; i++) {
+                    xs[i] = (int) Math.round(projection.toScreenX(lons[i]));
+                    ys[i] = (int) Math.round(projection.toScreenY(lats[i]));
+                }
+                return xs[iteration % cityCount] + ys[iteration % cityCount];
+            });
+        }
+
+        // Building the summary of every day and metric of a forecast, and looking up a day as the summary button does
+        ForecastColumns forecasts = forecastFetcher.parseWeatherData(new ByteArrayInputStream(forecastJson)).getForecastColumns();
+        run("summary.build", filter, iteration -> new ForecastAggregates(forecasts).getDayCount());
+        ForecastAggregates aggregates = new ForecastAggregates(forecasts);
+        int dayCount = aggregates.getDayCount();
+        WeatherMetric metric = WeatherMetric.TEMPERATURE;
+        run("summary.day", filter, iteration -> {
+            int day = iteration % dayCount;
+            String[] timeRange = SummaryButton.getTimeRange(forecasts, day);
+            String minTime = forecasts.getTimestampString(aggregates.getMinIndex(metric, day));
+            String maxTime = forecasts.getTimestampString(aggregates.getMaxIndex(metric, day));
+            return aggregates.getMin(metric, day) + aggregates.getMax(metric, day) + aggregates.getMean(metric, day)
+                   + timeRange[0].length() + timeRange[1].length() + minTime.length() + maxTime.length();
+        });
+
+        System.out.println("(sink " + sink + ")");
+    }
+
+    /**
+     * Times an operation if its name contains the filter and prints the result.
+     * The operation is first run for the warm-up period, then timed over several rounds of the same length.
+     *
+     * @param   name        the name of the benchmark
+     * @param   filter      the text the name must contain for the benchmark to run
+     * @param   operation   the work being timed
+     */
+    private static void run(String name, String filter, Operation operation) throws Exception {
+        if (!isSelected(name, filter)) {
+            return;
+        }
+
+        // Runs the operation until the JVM has compiled it
+        int iteration = 0;
+        double total = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        while (System.nanoTime() < warmupEnd) {
+            total += operation.run(iteration++);
+        }
+
+        // Times the operation in rounds, checking the clock in batches so reading it does not dominate short operations
+        double[] nanosPerOperation = new double[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            long operations = 0;
+            long start = System.nanoTime();
+            long end = start + ROUND_MILLIS * 1_000_000L;
+            long now;
+            do {
+                for (int i = 0; i < 64; i++) {
+                    total += operation.run(iteration++);
+                }
+                operations += 64;
+                now = System.nanoTime();
+            } while (now < end);
+            nanosPerOperation[round] = (now - start) / (double) operations;
+        }
+        sink += total;
+
+        // Mean and standard deviation across the rounds
+        double mean = 0;
+        for (double value : nanosPerOperation) {
+            mean += value / ROUNDS;
+        }
+        double variance = 0;
+        for (double value : nanosPerOperation) {
+            variance += (value - mean) * (value - mean) / ROUNDS;
+        }
+        System.out.printf("%-34s %14.1f %12.1f %14.0f%n", name, mean, Math.sqrt(variance), 1e9 / mean);
+    }
+
+    /**
+     * Returns whether or not a benchmark should be run.
+     *
+     * @param   name    the name of the benchmark
+     * @param   filter  the text the name must contain, or an empty String to run every benchmark
+     * @return          true if the name contains the filter
+     */
+    private static boolean isSelected(String name, String filter) {
+        return name.contains(filter);
+    }
+
+    /**
+     * Finds the nearest city to a point by checking the distance to every city.
+     *
+     * @param   cities  the cities to be checked
+     * @param   lat     the latitude of the point
+     * @param   lon     the longitude of the point
+     * @return          the nearest City object
+     */
+    private static City findNearestLinear(List<City> cities, double lat, double lon) {
+        City nearest = null;
+        double minDistance = Double.MAX_VALUE;
+        for (City city : cities) {
+            double distance = CityIndex.haversine(lat, lon, city.getLatitude(), city.getLongitude());
+            if (distance < minDistance) {
+                minDistance = distance;
+                nearest = city;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Creates cities at random positions across the area covered by the map.
+     *
+     * @param   count   the number of cities
+     * @param   random  the source of random numbers
+     * @return          a List of City objects
+     */
+    private static List<City> createCities(int count, Random random) {
+        List<City> cities = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cities.add(new City("City " + i, 49.0 + random.nextDouble() * 12.1, -10.48 + random.nextDouble() * 12.25));
+        }
+        return cities;
+    }
+
+    /**
+     * Creates random points across the area covered by the map.
+     *
+     * @param   random  the source of random numbers
+     * @return          an array of latitude and longitude pairs
+     */
+    private static double[][] createQueries(Random random) {
+        double[][] queries = new double[QUERY_COUNT][];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries[i] = new double[]{49.0 + random.nextDouble() * 12.1, -10.48 + random.nextDouble() * 12.25};
+        }
+        return queries;
+    }
+
+    /**
+     * Creates a forecast response with 40 segments in the same shape as a response from the API.
+     *
+     * @param   random  the source of random numbers used for the weather values
+     * @return          the response as UTF-8 bytes
+     */
+    private static byte[] createForecastJson(Random random) {
+        StringBuilder json = new StringBuilder("{\"cod\":\"200\",\"message\":0,\"cnt\":40,\"list\":[");
+        long timestamp = 1743660000L;
+        for (int i = 0; i < 40; i++, timestamp += 3 * 60 * 60) {
+            if (i > 0) {
+                json.append(',');
+            }
+            double temperature = 4 + random.nextDouble() * 12;
+            json.append(String.format(Locale.ROOT,
+                "{\"dt\":%d,\"main\":{\"temp\":%.2f,\"feels_like\":%.2f,\"temp_min\":%.2f,\"temp_max\":%.2f,\"pressure\":%d," +
+                "\"sea_level\":%d,\"grnd_level\":%d,\"humidity\":%d,\"temp_kf\":0},\"weather\":[{\"id\":500,\"main\":\"Rain\"," +
+                "\"description\":\"light rain\",\"icon\":\"10d\"}],\"clouds\":{\"all\":%d},\"wind\":{\"speed\":%.2f,\"deg\":%d," +
+                "\"gust\":%.2f},\"visibility\":10000,\"pop\":%.2f,\"rain\":{\"3h\":%.2f},\"sys\":{\"pod\":\"d\"}," +
+                "\"dt_txt\":\"%s\"}",
+                timestamp, temperature, temperature - 2, temperature - 1, temperature + 1, 1000 + random.nextInt(30),
+                1000 + random.nextInt(30), 990 + random.nextInt(20), 40 + random.nextInt(60), random.nextInt(101),
+                random.nextDouble() * 10, random.nextInt(360), random.nextDouble() * 15, random.nextDouble(), random.nextDouble() * 2,
+                java.time.Instant.ofEpochSecond(timestamp).toString().replace('T', ' ').replace("Z", "")));
+        }
+        json.append("],\"city\":{\"id\":2655944,\"name\":\"Bath\",\"coord\":{\"lat\":51.3779,\"lon\":-2.3591},\"country\":\"GB\"," +
+                    "\"population\":94782,\"timezone\":3600,\"sunrise\":1743658000,\"sunset\":1743705000}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a current weather response in the same shape as a response from the API.
+     *
+     * @param   random  the source of random numbers used for the weather values
+     * @return          the response as UTF-8 bytes
+     */
+    private static byte[] createCurrentJson(Random random) {
+        double temperature = 4 + random.nextDouble() * 12;
+        return String.format(Locale.ROOT,
+            "{\"coord\":{\"lon\":-2.3591,\"lat\":51.3779},\"weather\":[{\"id\":803,\"main\":\"Clouds\",\"description\":\"broken clouds\"," +
+            "\"icon\":\"04d\"}],\"base\":\"stations\",\"main\":{\"temp\":%.2f,\"feels_like\":%.2f,\"temp_min\":%.2f,\"temp_max\":%.2f," +
+            "\"pressure\":1016,\"humidity\":%d,\"sea_level\":1016,\"grnd_level\":1005},\"visibility\":10000,\"wind\":{\"speed\":%.2f," +
+            "\"deg\":240,\"gust\":%.2f},\"clouds\":{\"all\":75},\"dt\":1743690000,\"sys\":{\"type\":2,\"id\":2019146,\"country\":\"GB\"," +
+            "\"sunrise\":1743658000,\"sunset\":1743705000},\"timezone\":3600,\"id\":2655944,\"name\":\"Bath\",\"cod\":200}",
+            temperature, temperature - 2, temperature - 1, temperature + 1, 40 + random.nextInt(60), random.nextDouble() * 10,
+            random.nextDouble() * 15).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The WeatherCache class stores recent responses from the OpenWeatherMap API in memory so that repeated requests for the same city do not
+ * need to contact the API again. Each response is stored with the time it was added and is treated as expired once it is older than the
+ * time to live of the cache. The cache also holds a limited number of entries, and the least recently used entry is removed when the cache
+ * is full. The number of hits and misses is counted so the effectiveness of the cache can be checked. The methods of this class can be
+ * called from several threads at once.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherCache<V> {
+    // Limits of the cache
+    private final int maxEntries;
+    private long timeToLiveMillis;
+
+    // Entries ordered from least recently used to most recently used
+    private final LinkedHashMap<String, CacheEntry<V>> entries;
+
+    // Statistics
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * Constructor for objects of class WeatherCache.
+     *
+     * @param   maxEntries          the maximum number of responses held in the cache
+     * @param   timeToLiveMillis    the number of milliseconds a response is kept before it expires
+     */
+    public WeatherCache(int maxEntries, long timeToLiveMillis) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry<V>> eldest) {
+                return size() > WeatherCache.this.maxEntries;   // Removes the least recently used response
+            }
+        };
+    }
+
+    /**
+     * Returns the response stored for a key if it has not expired.
+     * Expired responses are removed from the cache.
+     *
+     * @param   key     the key of the response, made from the endpoint and the city
+     * @return          the stored response, or null if there is no valid response for the key
+     */
+    public synchronized V get(String key) {
+        CacheEntry<V> entry = entries.get(key);
+
+        if (entry != null && System.nanoTime() - entry.storedAt > timeToLiveMillis * 1_000_000L) {
+            entries.remove(key);    // The response is too old to be used
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * Stores a response in the cache, replacing any response already stored for the key.
+     *
+     * @param   key     the key of the response, made from the endpoint and the city
+     * @param   value   the response to be stored
+     */
+    public synchronized void put(String key, V value) {
+        entries.put(key, new CacheEntry<>(value, System.nanoTime()));
+    }
+
+    /**
+     * Returns every response held in the cache, including expired responses that have not been removed yet.
+     * Reading the responses this way does not count as a hit or a miss and does not change which response is the least recently used,
+     * so classes that only look at what has already been fetched, such as the heatmap, do not affect the cache.
+     *
+     * @return  a List of the stored responses
+     */
+    public synchronized List<V> getValues() {
+        List<V> values = new ArrayList<>(entries.size());
+        for (CacheEntry<V> entry : entries.values()) {
+            values.add(entry.value);
+        }
+        return values;
+    }
+
+    /**
+     * Removes the response stored for a key.
+     *
+     * @param   key     the key of the response to be removed
+     */
+    public synchronized void invalidate(String key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes every response from the cache.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Sets the number of milliseconds a response is kept before it expires.
+     *
+     * @param   timeToLiveMillis    the new time to live in milliseconds
+     */
+    public synchronized void setTimeToLive(long timeToLiveMillis) {
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Returns the number of milliseconds a response is kept before it expires.
+     *
+     * @return  the time to live in milliseconds
+     */
+    public synchronized long getTimeToLive() {
+        return timeToLiveMillis;
+    }
+
+    /**
+     * Returns the number of responses currently stored, including any that have expired but have not been removed yet.
+     *
+     * @return  the number of entries in the cache
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the number of requests that were answered by the cache.
+     *
+     * @return  the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests that could not be answered by the cache.
+     *
+     * @return  the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the fraction of requests that were answered by the cache.
+     *
+     * @return  the hit rate between 0.0 and 1.0, or 0.0 if there have been no requests
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * The CacheEntry class holds a stored response and the time it was stored.
+     */
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long storedAt;    // The value of System.nanoTime() when the response was stored
+
+        private CacheEntry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,404 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * The WeatherDiskStore class saves the most recent CurrentWeatherData and ForecastWeatherData objects for each city onto the disk, so that
+ * the last known weather can be shown as soon as the program starts without waiting for the OpenWeatherMap API. Every response is written
+ * to its own compact binary file in the "weather-cache" folder, with one folder for each type of response. Files are first written to a
+ * temporary file and then moved into place so a half-written file is never read. The name of the most recently selected city is also
+ * saved so the MapScreen world can show it again when the program restarts.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherDiskStore {
+    // Identifies the files written by this class
+    private static final int MAGIC_NUMBER = 0x57534331;    // "WSC1"
+    private static final short FORMAT_VERSION = 1;
+
+    // Folders and file names
+    private static final String DEFAULT_DIRECTORY = "weather-cache";
+    private static final String CURRENT_FOLDER = "current";
+    private static final String FORECAST_FOLDER = "forecast";
+    private static final String SELECTED_CITY_FILE = "selected-city.txt";
+
+    private final Path directory;
+
+    /**
+     * Constructor for objects of class WeatherDiskStore using the default "weather-cache" folder.
+     */
+    public WeatherDiskStore() {
+        this(Paths.get(DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * Constructor for objects of class WeatherDiskStore.
+     *
+     * @param   directory   the folder the files are saved in
+     */
+    public WeatherDiskStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Saves current weather data for a city, replacing any data already saved for that city.
+     *
+     * @param   city    the name of the city
+     * @param   data    the CurrentWeatherData object to be saved
+     */
+    public void saveCurrentWeather(String city, CurrentWeatherData data) {
+        try {
+            Path temporaryFile = createTemporaryFile(CURRENT_FOLDER, city);
+            try (DataOutputStream out = openForWriting(temporaryFile)) {
+                writeCurrentWeather(out, data);
+            }
+            commit(temporaryFile, getFile(CURRENT_FOLDER, city));  // Only replaces the saved file once the whole response has been written
+        } catch (IOException e) {
+            System.out.println("Error saving weather data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the current weather data last saved for a city.
+     *
+     * @param   city    the name of the city
+     * @return          the saved CurrentWeatherData object, or null if nothing has been saved for the city
+     */
+    public CurrentWeatherData loadCurrentWeather(String city) {
+        try (DataInputStream in = openForReading(CURRENT_FOLDER, city)) {
+            return in == null ? null : readCurrentWeather(in);
+        } catch (IOException e) {
+            System.out.println("Error loading weather data: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves forecast weather data for a city, replacing any data already saved for that city.
+     *
+     * @param   city    the name of the city
+     * @param   data    the ForecastWeatherData object to be saved
+     */
+    public void saveForecast(String city, ForecastWeatherData data) {
+        try {
+            Path temporaryFile = createTemporaryFile(FORECAST_FOLDER, city);
+            try (DataOutputStream out = openForWriting(temporaryFile)) {
+                writeForecast(out, data);
+            }
+            commit(temporaryFile, getFile(FORECAST_FOLDER, city));  // Only replaces the saved file once the whole response has been written
+        } catch (IOException e) {
+            System.out.println("Error saving weather data: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the forecast weather data last saved for a city.
+     *
+     * @param   city    the name of the city
+     * @return          the saved ForecastWeatherData object, or null if nothing has been saved for the city
+     */
+    public ForecastWeatherData loadForecast(String city) {
+        try (DataInputStream in = openForReading(FORECAST_FOLDER, city)) {
+            return in == null ? null : readForecast(in);
+        } catch (IOException e) {
+            System.out.println("Error loading weather data: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Saves the name of the most recently selected city.
+     *
+     * @param   city    the name of the city
+     */
+    public void saveSelectedCity(String city) {
+        try {
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(SELECTED_CITY_FILE), city);
+        } catch (IOException e) {
+            System.out.println("Error saving selected city: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the name of the most recently selected city.
+     *
+     * @return  the name of the city, or null if no city has been saved
+     */
+    public String loadSelectedCity() {
+        Path file = directory.resolve(SELECTED_CITY_FILE);
+        try {
+            return Files.exists(file) ? Files.readString(file).trim() : null;
+        } catch (IOException e) {
+            System.out.println("Error loading selected city: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the path of the file used to store a response for a city.
+     * Characters that are not letters or digits are replaced so that every city name makes a valid file name.
+     *
+     * @param   folder  the folder for the type of response
+     * @param   city    the name of the city
+     * @return          the path of the file
+     */
+    private Path getFile(String folder, String city) {
+        String fileName = city.trim().toLowerCase().replaceAll("[^a-z0-9]+", "-");
+        return directory.resolve(folder).resolve(fileName + ".bin");
+    }
+
+    /**
+     * Creates a new temporary file that a response is written to before it is moved into place.
+     * Every call creates a different file so that two threads saving the same city do not write to the same file.
+     *
+     * @param   folder  the folder for the type of response
+     * @param   city    the name of the city
+     * @return          the path of the temporary file
+     */
+    private Path createTemporaryFile(String folder, String city) throws IOException {
+        Path file = getFile(folder, city);
+        Files.createDirectories(file.getParent());
+        return Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    }
+
+    /**
+     * Opens a temporary file for writing and writes the file header.
+     *
+     * @param   temporaryFile   the path of the temporary file
+     * @return                  a DataOutputStream for writing the response
+     */
+    private DataOutputStream openForWriting(Path temporaryFile) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)));
+        out.writeInt(MAGIC_NUMBER);
+        out.writeShort(FORMAT_VERSION);
+        out.writeLong(System.currentTimeMillis());  // The time the response was saved
+        return out;
+    }
+
+    /**
+     * Replaces the saved file of a response with a temporary file that has just been written.
+     *
+     * @param   temporaryFile   the path of the temporary file
+     * @param   file            the path of the saved file
+     */
+    private void commit(Path temporaryFile, Path file) throws IOException {
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Opens the saved file of a response for reading and checks the file header.
+     *
+     * @param   folder  the folder for the type of response
+     * @param   city    the name of the city
+     * @return          a DataInputStream positioned after the header, or null if the file does not exist
+     */
+    private DataInputStream openForReading(String folder, String city) throws IOException {
+        Path file = getFile(folder, city);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        if (in.readInt() != MAGIC_NUMBER || in.readShort() != FORMAT_VERSION) {
+            in.close();
+            throw new IOException("Unsupported file format in " + file);
+        }
+        in.readLong();  // The time the response was saved
+        return in;
+    }
+
+    /**
+     * Writes every field of a CurrentWeatherData object in the order of its constructor parameters.
+     *
+     * @param   out     the stream to write to
+     * @param   data    the CurrentWeatherData object to be written
+     */
+    private void writeCurrentWeather(DataOutputStream out, CurrentWeatherData data) throws IOException {
+        // City and Coordinates
+        out.writeInt(data.getCityID());
+        writeString(out, data.getCityName());
+        out.writeDouble(data.getLatitude());
+        out.writeDouble(data.getLongitude());
+        // Weather Conditions
+        out.writeInt(data.getWeatherID());
+        writeString(out, data.getWeatherMain());
+        writeString(out, data.getWeatherDescription());
+        writeString(out, data.getWeatherIcon());
+        // Main Data
+        out.writeDouble(data.getTemperature());
+        out.writeDouble(data.getFeelsLike());
+        out.writeDouble(data.getTempMin());
+        out.writeDouble(data.getTempMax());
+        out.writeInt(data.getPressure());
+        out.writeInt(data.getHumidity());
+        out.writeInt(data.getSeaLevelPressure());
+        out.writeInt(data.getGroundLevelPressure());
+        // Visibility, Wind, Clouds, Rain and Snow
+        out.writeInt(data.getVisibility());
+        out.writeDouble(data.getWindSpeed());
+        out.writeInt(data.getWindDirection());
+        out.writeDouble(data.getWindGust());
+        out.writeInt(data.getCloudiness());
+        out.writeDouble(data.getRainVolume());
+        out.writeDouble(data.getSnowVolume());
+        // Time, System and Timezone
+        out.writeLong(data.getTimestamp());
+        writeString(out, data.getCountry());
+        out.writeLong(data.getSunrise());
+        out.writeLong(data.getSunset());
+        out.writeInt(data.getTimezoneShift());
+        // Internal Parameters
+        writeString(out, data.getBase());
+        out.writeInt(data.getSystemType());
+        out.writeInt(data.getSystemID());
+        writeString(out, data.getMessage());
+        out.writeInt(data.getStatusCode());
+    }
+
+    /**
+     * Reads a CurrentWeatherData object written by writeCurrentWeather().
+     *
+     * @param   in  the stream to read from
+     * @return      the CurrentWeatherData object
+     */
+    private CurrentWeatherData readCurrentWeather(DataInputStream in) throws IOException {
+        return new CurrentWeatherData(
+                in.readInt(), readString(in), in.readDouble(), in.readDouble(),
+                in.readInt(), readString(in), readString(in), readString(in),
+                in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt(), in.readInt(), in.readInt(), in.readInt(),
+                in.readInt(), in.readDouble(), in.readInt(), in.readDouble(), in.readInt(), in.readDouble(), in.readDouble(),
+                in.readLong(), readString(in), in.readLong(), in.readLong(), in.readInt(),
+                readString(in), in.readInt(), in.readInt(), readString(in), in.readInt());
+    }
+
+    /**
+     * Writes every field of a ForecastWeatherData object, followed by every 3-hour segment in its forecast list.
+     *
+     * @param   out     the stream to write to
+     * @param   data    the ForecastWeatherData object to be written
+     */
+    private void writeForecast(DataOutputStream out, ForecastWeatherData data) throws IOException {
+        // City Information
+        out.writeInt(data.getCityID());
+        writeString(out, data.getCityName());
+        out.writeDouble(data.getLatitude());
+        out.writeDouble(data.getLongitude());
+        writeString(out, data.getCountry());
+        out.writeInt(data.getPopulation());
+        out.writeInt(data.getTimezoneShift());
+        out.writeLong(data.getSunrise());
+        out.writeLong(data.getSunset());
+        // Number of Forecasts and Internal Parameters
+        out.writeInt(data.getCount());
+        out.writeInt(data.getStatusCode());
+        out.writeInt(data.getMessage());
+
+        // Forecast List
+        ForecastColumns forecasts = data.getForecastColumns();
+        out.writeInt(forecasts.size());
+        for (int i = 0; i < forecasts.size(); i++) {
+            out.writeLong(forecasts.getTimestamp(i));
+            writeString(out, forecasts.getTimestampString(i));
+            out.writeDouble(forecasts.getTemperature(i));
+            out.writeDouble(forecasts.getFeelsLike(i));
+            out.writeDouble(forecasts.getTempMin(i));
+            out.writeDouble(forecasts.getTempMax(i));
+            out.writeInt(forecasts.getPressure(i));
+            out.writeInt(forecasts.getSeaLevelPressure(i));
+            out.writeInt(forecasts.getGroundLevelPressure(i));
+            out.writeInt(forecasts.getHumidity(i));
+            out.writeDouble(forecasts.getTempKf(i));
+            out.writeInt(forecasts.getWeatherID(i));
+            writeString(out, forecasts.getWeatherMain(i));
+            writeString(out, forecasts.getWeatherDescription(i));
+            writeString(out, forecasts.getWeatherIcon(i));
+            out.writeInt(forecasts.getCloudiness(i));
+            out.writeDouble(forecasts.getWindSpeed(i));
+            out.writeInt(forecasts.getWindDirection(i));
+            out.writeDouble(forecasts.getWindGust(i));
+            out.writeInt(forecasts.getVisibility(i));
+            out.writeDouble(forecasts.getPrecipitationProb(i));
+            out.writeDouble(forecasts.getRainVolume(i));
+            out.writeDouble(forecasts.getSnowVolume(i));
+            writeString(out, forecasts.getPartOfDay(i));
+        }
+    }
+
+    /**
+     * Reads a ForecastWeatherData object written by writeForecast().
+     *
+     * @param   in  the stream to read from
+     * @return      the ForecastWeatherData object
+     */
+    private ForecastWeatherData readForecast(DataInputStream in) throws IOException {
+        // City Information
+        int cityID = in.readInt();
+        String cityName = readString(in);
+        double latitude = in.readDouble();
+        double longitude = in.readDouble();
+        String country = readString(in);
+        int population = in.readInt();
+        int timezoneShift = in.readInt();
+        long sunrise = in.readLong();
+        long sunset = in.readLong();
+        // Number of Forecasts and Internal Parameters
+        int count = in.readInt();
+        int statusCode = in.readInt();
+        int message = in.readInt();
+
+        // Forecast List
+        int size = in.readInt();
+        ForecastColumns forecasts = new ForecastColumns(size);
+        for (int i = 0; i < size; i++) {
+            forecasts.add(
+                    in.readLong(), readString(in),
+                    in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(),
+                    in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readDouble(),
+                    in.readInt(), readString(in), readString(in), readString(in), in.readInt(),
+                    in.readDouble(), in.readInt(), in.readDouble(), in.readInt(), in.readDouble(),
+                    in.readDouble(), in.readDouble(), readString(in));
+        }
+
+        return new ForecastWeatherData(
+                cityID, cityName, latitude, longitude,
+                country, population, timezoneShift,
+                sunrise, sunset, forecasts,
+                count, statusCode, message);
+    }
+
+    /**
+     * Writes a String that may be null.
+     *
+     * @param   out     the stream to write to
+     * @param   value   the String to be written
+     */
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a String written by writeString().
+     *
+     * @param   in  the stream to read from
+     * @return      the String, or null if a null value was written
+     */
+    private String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
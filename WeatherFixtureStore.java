@@ -0,0 +1,175 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The WeatherFixtureStore class saves responses from the OpenWeatherMap API to a folder of fixture files and loads them again, so that
+ * requests can be answered without the network. Each fixture is named after the endpoint and the query parameters of its request, with
+ * the API key left out so that responses recorded with a real key can be replayed without one. A fixture is a text file laid out like an
+ * HTTP response: a status line, the headers, a blank line and the decompressed body, so it can be read and edited by hand, for example
+ * to create the response for a city that does not exist.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherFixtureStore {
+    // Query parameters that are not part of the name of a fixture
+    private static final String API_KEY_PARAMETER = "appid";
+
+    // Headers that describe how the response was sent rather than the response itself
+    private static final String[] TRANSFER_HEADERS = {"Content-Encoding", "Content-Length", "Transfer-Encoding", "Connection", ":status"};
+
+    private final Path folder;
+
+    /**
+     * Constructor for objects of class WeatherFixtureStore.
+     *
+     * @param   folder  the folder holding the fixture files, which is created when the first fixture is saved
+     */
+    public WeatherFixtureStore(Path folder) {
+        this.folder = folder;
+    }
+
+    /**
+     * Returns the folder holding the fixture files.
+     *
+     * @return  the Path of the folder
+     */
+    public Path getFolder() {
+        return folder;
+    }
+
+    /**
+     * Saves a response as the fixture for a request, replacing any fixture already saved for it.
+     *
+     * @param   endpoint    the name of the endpoint of the request
+     * @param   parameters  the query parameters of the request
+     * @param   statusCode  the HTTP status code of the response
+     * @param   headers     the headers of the response
+     * @param   body        the decompressed body of the response
+     */
+    public void save(String endpoint, Map<String, String> parameters, int statusCode, Map<String, String> headers, byte[] body)
+            throws IOException {
+        // Writes the status line and the headers that still apply to the decompressed body
+        StringBuilder head = new StringBuilder("HTTP ").append(statusCode).append('\n');
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!isTransferHeader(header.getKey())) {
+                head.append(header.getKey()).append(": ").append(header.getValue()).append('\n');
+            }
+        }
+        head.append('\n');
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(head.length() + body.length);
+        out.write(head.toString().getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+
+        // Only replaces the fixture once the whole response has been written
+        Path file = getFile(endpoint, parameters);
+        Files.createDirectories(folder);
+        Path temporaryFile = Files.createTempFile(folder, file.getFileName().toString(), ".tmp");
+        Files.write(temporaryFile, out.toByteArray());
+        try {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads the fixture saved for a request.
+     *
+     * @param   endpoint    the name of the endpoint of the request
+     * @param   parameters  the query parameters of the request
+     * @return              a WeatherResponse object holding the saved response, or null if no fixture has been saved for the request
+     */
+    public WeatherResponse load(String endpoint, Map<String, String> parameters) throws IOException {
+        Path file = getFile(endpoint, parameters);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        // Finds the blank line between the headers and the body
+        byte[] contents = Files.readAllBytes(file);
+        int bodyStart = -1;
+        for (int i = 0; i + 1 < contents.length; i++) {
+            if (contents[i] == '\n' && (contents[i + 1] == '\n' || (contents[i + 1] == '\r' && i + 2 < contents.length && contents[i + 2] == '\n'))) {
+                bodyStart = contents[i + 1] == '\n' ? i + 2 : i + 3;    // Allows for files edited with Windows line endings
+                break;
+            }
+        }
+        if (bodyStart < 0) {
+            throw new IOException("Fixture has no blank line after its headers: " + file);
+        }
+
+        // Reads the status line and the headers
+        String[] lines = new String(contents, 0, bodyStart, StandardCharsets.UTF_8).split("\r?\n");
+        if (!lines[0].startsWith("HTTP ")) {
+            throw new IOException("Fixture does not start with a status line: " + file);
+        }
+        int statusCode;
+        try {
+            statusCode = Integer.parseInt(lines[0].substring(5).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Fixture has an invalid status code: " + file);
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':', 1);   // Skips the colon at the start of HTTP/2 headers such as ":status"
+            if (colon > 0) {
+                headers.put(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+            }
+        }
+
+        byte[] body = new byte[contents.length - bodyStart];
+        System.arraycopy(contents, bodyStart, body, 0, body.length);
+        return new WeatherResponse(statusCode, headers, body);
+    }
+
+    /**
+     * Returns the fixture file of a request. The name contains the endpoint and the parameters in a form that is safe on any file
+     * system, followed by a hash of the exact request so that requests whose safe names are the same do not share a file.
+     *
+     * @param   endpoint    the name of the endpoint of the request
+     * @param   parameters  the query parameters of the request
+     * @return              the Path of the fixture file
+     */
+    public Path getFile(String endpoint, Map<String, String> parameters) {
+        // Sorts the parameters so the order they were added in does not matter
+        StringBuilder request = new StringBuilder(endpoint);
+        for (Map.Entry<String, String> parameter : new TreeMap<>(parameters).entrySet()) {
+            if (!parameter.getKey().equals(API_KEY_PARAMETER)) {
+                request.append('&').append(parameter.getKey()).append('=').append(parameter.getValue());
+            }
+        }
+
+        String key = request.toString();
+        String safeName = key.replaceAll("[^A-Za-z0-9.-]+", "_");
+        if (safeName.length() > 100) {
+            safeName = safeName.substring(0, 100);  // Keeps names of group requests for many cities within file system limits
+        }
+        return folder.resolve(safeName + "-" + String.format("%08x", key.hashCode()) + ".http");
+    }
+
+    /**
+     * Returns whether or not a header describes how the response was sent rather than the response itself.
+     *
+     * @param   name    the name of the header
+     * @return          true if the header should not be saved with the decompressed body
+     */
+    private static boolean isTransferHeader(String name) {
+        for (String transferHeader : TRANSFER_HEADERS) {
+            if (transferHeader.equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,115 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The WeatherHttpClient class sends every request made to the OpenWeatherMap API. A single HttpClient is shared by all requests so
+ * connections to the API are kept open and reused instead of a new connection being opened for every request, and HTTP/2 is used when
+ * the server supports it. Responses are requested in gzip form to reduce the amount of data sent, and are returned as WeatherResponse
+ * objects that decompress the body as it is read. Every request has a time limit for connecting and for receiving the response, so a
+ * slow or unreachable server cannot block a background thread forever. The base URL of the API can be changed so that the fetchers can
+ * be pointed at a local server for testing. This is the WeatherTransport used by the fetchers unless another one has been chosen.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherHttpClient extends WeatherTransport {
+    // Default settings for the OpenWeatherMap API
+    public static final String DEFAULT_BASE_URL = "https://api.openweathermap.org/data/2.5/";
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration requestTimeout;
+
+    /**
+     * Constructor for objects of class WeatherHttpClient using the default base URL and time limits.
+     */
+    public WeatherHttpClient() {
+        this(DEFAULT_BASE_URL, DEFAULT_CONNECT_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Constructor for objects of class WeatherHttpClient.
+     *
+     * @param   baseUrl             the URL that the name of each endpoint is added to, such as "http://localhost:8080/"
+     * @param   connectTimeout      the longest time to wait for a connection to the server
+     * @param   requestTimeout      the longest time to wait for the response to a request
+     */
+    public WeatherHttpClient(String baseUrl, Duration connectTimeout, Duration requestTimeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+        this.requestTimeout = requestTimeout;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)     // Falls back to HTTP/1.1 if the server does not support HTTP/2
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Returns the URL that the name of each endpoint is added to.
+     *
+     * @return  the base URL, ending with "/"
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Sends a GET request with extra headers to an endpoint of the API and waits for the response headers.
+     * Used for conditional requests, where headers such as "If-None-Match" let the server answer with status 304 if nothing has changed.
+     *
+     * @param   endpoint    the name of the endpoint, such as "weather" or "forecast"
+     * @param   parameters  the query parameters of the request, which are encoded by this method
+     * @param   headers     the extra headers of the request
+     * @return              a WeatherResponse object containing the status code, headers and body of the response
+     */
+    @Override
+    public WeatherResponse get(String endpoint, Map<String, String> parameters, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(buildUri(endpoint, parameters))
+                .timeout(requestTimeout)
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            builder.header(header.getKey(), header.getValue());
+        }
+        HttpRequest request = builder.build();
+
+        try {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            return new WeatherResponse(response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();     // Keeps the interrupt so the calling thread can still stop
+            throw new IOException("Request interrupted", e);
+        }
+    }
+
+    /**
+     * Builds the URI of a request from the base URL, the name of the endpoint and the query parameters.
+     *
+     * @param   endpoint    the name of the endpoint
+     * @param   parameters  the query parameters of the request
+     * @return              the URI of the request
+     */
+    private URI buildUri(String endpoint, Map<String, String> parameters) {
+        StringBuilder uri = new StringBuilder(baseUrl).append(endpoint);
+        char separator = '?';
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            uri.append(separator)
+               .append(URLEncoder.encode(parameter.getKey(), StandardCharsets.UTF_8))
+               .append('=')
+               .append(URLEncoder.encode(parameter.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+}
@@ -0,0 +1,217 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The WeatherMetric enum lists every numeric weather metric that the program can show, together with everything needed to read and
+ * display it: the name shown on buttons and in the dropdown, a short label for the y-axis of the graph, its unit, how to read it from the
+ * current weather of a city, how to find its column in a forecast, and how to format a value of it as text. The line graph, the summary,
+ * the current weather display and the heatmap all go through these metrics instead of comparing names, so a metric is added to every one
+ * of them by adding a constant here. Values are read as primitive doubles, so no objects are created when a metric is read. A metric can
+ * have a value that marks a missing reading, which is left out of summaries and graphs instead of being treated as a real value. The
+ * current weather can mark a missing reading with a different value and be formatted differently, since the API gives the rain and snow
+ * of the current weather per hour and leaves them out when none has fallen, while a forecast gives the volume of each 3 hours.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public enum WeatherMetric {
+    TEMPERATURE("Temperature", "Temp", "°C", CurrentWeatherData::getTemperature, ForecastColumns::getTemperatures,
+                value -> String.format("%.2f °C", value)),
+    FEELS_LIKE("Feels Like", "Feels", "°C", CurrentWeatherData::getFeelsLike, ForecastColumns::getFeelsLikes,
+               value -> String.format("%.2f °C", value)),
+    PRESSURE("Pressure", "Pres", "hPa", CurrentWeatherData::getPressure, ForecastColumns::getPressures,
+             value -> String.format("%.0f hPa", value)),
+    HUMIDITY("Humidity", "Humid", "%", CurrentWeatherData::getHumidity, ForecastColumns::getHumidities,
+             value -> String.format("%.0f%%", value)),
+    CLOUDINESS("Cloudiness", "Cloud", "%", CurrentWeatherData::getCloudiness, ForecastColumns::getCloudiness,
+               value -> String.format("%.0f%%", value)),
+    WIND_SPEED("Wind Speed", "Wind", "m/s", CurrentWeatherData::getWindSpeed, ForecastColumns::getWindSpeeds,
+               value -> String.format("%.2f m/s", value)),
+    WIND_GUST("Wind Gust", "Gust", "m/s", CurrentWeatherData::getWindGust, ForecastColumns::getWindGusts,
+              value -> String.format("%.2f m/s", value), -1),     // The parsers store -1 when the API leaves out the gust
+    PRECIPITATION("Precipitation", "PoP", "0-1", null, ForecastColumns::getPrecipitationProbs,     // Only forecasts have a chance
+                  value -> String.format("%.2f", value)),   // A fraction from 0 to 1, the same scale as the axis of the graph
+    RAIN("Rain Volume", "Rain", "mm", CurrentWeatherData::getRainVolume, ForecastColumns::getRainVolumes,
+         value -> String.format("%.2f mm", value), Double.NaN,
+         value -> String.format("%.2f mm/h", value), 0.0),    // The parsers store 0 when no rain has fallen in the last hour
+    SNOW("Snow Volume", "Snow", "mm", CurrentWeatherData::getSnowVolume, ForecastColumns::getSnowVolumes,
+         value -> String.format("%.2f mm", value), Double.NaN,
+         value -> String.format("%.2f mm/h", value), 0.0);
+
+    // Metrics by the name shown to the user
+    private static final Map<String, WeatherMetric> METRICS_BY_NAME = new HashMap<>();
+    static {
+        for (WeatherMetric metric : values()) {
+            METRICS_BY_NAME.put(metric.name, metric);
+        }
+    }
+
+    private final String name;
+    private final String shortName;
+    private final String unit;
+    private final ToDoubleFunction<CurrentWeatherData> currentValue;    // Null if the current weather does not include the metric
+    private final Function<ForecastColumns, double[]> forecastValues;
+    private final DoubleFunction<String> formatter;
+    private final double missingValue;  // NaN if every reading of the metric is a real value
+    private final DoubleFunction<String> currentFormatter;
+    private final double currentMissingValue;
+
+    /**
+     * Constructor for the constants of enum WeatherMetric.
+     *
+     * @param   name            the name shown to the user, such as "Wind Speed"
+     * @param   shortName       the name shown on the y-axis of the graph
+     * @param   unit            the unit of the values
+     * @param   currentValue    reads the metric from the current weather of a city, or null if the current weather does not include it
+     * @param   forecastValues  finds the column of the metric in a forecast
+     * @param   formatter       turns a value into text, including its unit
+     */
+    WeatherMetric(String name, String shortName, String unit, ToDoubleFunction<CurrentWeatherData> currentValue,
+                  Function<ForecastColumns, double[]> forecastValues, DoubleFunction<String> formatter) {
+        this(name, shortName, unit, currentValue, forecastValues, formatter, Double.NaN);
+    }
+
+    /**
+     * Constructor for the constants of enum WeatherMetric whose readings can be missing.
+     *
+     * @param   name            the name shown to the user, such as "Wind Speed"
+     * @param   shortName       the name shown on the y-axis of the graph
+     * @param   unit            the unit of the values
+     * @param   currentValue    reads the metric from the current weather of a city, or null if the current weather does not include it
+     * @param   forecastValues  finds the column of the metric in a forecast
+     * @param   formatter       turns a value into text, including its unit
+     * @param   missingValue    the value stored when the API leaves out the reading
+     */
+    WeatherMetric(String name, String shortName, String unit, ToDoubleFunction<CurrentWeatherData> currentValue,
+                  Function<ForecastColumns, double[]> forecastValues, DoubleFunction<String> formatter, double missingValue) {
+        this(name, shortName, unit, currentValue, forecastValues, formatter, missingValue, formatter, missingValue);
+    }
+
+    /**
+     * Constructor for the constants of enum WeatherMetric whose current weather is formatted or left out differently from forecasts.
+     *
+     * @param   name                    the name shown to the user, such as "Wind Speed"
+     * @param   shortName               the name shown on the y-axis of the graph
+     * @param   unit                    the unit of the values in a forecast
+     * @param   currentValue            reads the metric from the current weather of a city
+     * @param   forecastValues          finds the column of the metric in a forecast
+     * @param   formatter               turns a value in a forecast into text, including its unit
+     * @param   missingValue            the value stored when the API leaves out the reading from a forecast
+     * @param   currentFormatter        turns a value of the current weather into text, including its unit
+     * @param   currentMissingValue     the value stored when the API leaves out the reading from the current weather
+     */
+    WeatherMetric(String name, String shortName, String unit, ToDoubleFunction<CurrentWeatherData> currentValue,
+                  Function<ForecastColumns, double[]> forecastValues, DoubleFunction<String> formatter, double missingValue,
+                  DoubleFunction<String> currentFormatter, double currentMissingValue) {
+        this.name = name;
+        this.shortName = shortName;
+        this.unit = unit;
+        this.currentValue = currentValue;
+        this.forecastValues = forecastValues;
+        this.formatter = formatter;
+        this.missingValue = missingValue;
+        this.currentFormatter = currentFormatter;
+        this.currentMissingValue = currentMissingValue;
+    }
+
+    /**
+     * Returns the metric with a name shown to the user.
+     *
+     * @param   name    the name of the metric, such as "Temperature"
+     * @return          the WeatherMetric, or null if no metric has that name
+     */
+    public static WeatherMetric fromName(String name) {
+        return METRICS_BY_NAME.get(name);
+    }
+
+    /**
+     * Returns the name of the metric shown to the user.
+     *
+     * @return  the name, such as "Wind Speed"
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the unit of the values of the metric.
+     *
+     * @return  the unit, such as "m/s"
+     */
+    public String getUnit() {
+        return unit;
+    }
+
+    /**
+     * Returns the label of the y-axis of a graph of the metric.
+     *
+     * @return  the short name followed by the unit, such as "Temp (°C)"
+     */
+    public String getAxisLabel() {
+        return shortName + " (" + unit + ")";
+    }
+
+    /**
+     * Returns whether or not the current weather of a city includes the metric.
+     *
+     * @return  true if getCurrentValue() can be used
+     */
+    public boolean hasCurrentValue() {
+        return currentValue != null;
+    }
+
+    /**
+     * Reads the metric from the current weather of a city.
+     *
+     * @param   data    the CurrentWeatherData object of the city
+     * @return          the value of the metric, or NaN if the current weather does not include the metric
+     */
+    public double getCurrentValue(CurrentWeatherData data) {
+        return currentValue != null ? currentValue.applyAsDouble(data) : Double.NaN;
+    }
+
+    /**
+     * Returns the column of the metric in a forecast.
+     * The array is the one stored in the forecast data, so it must not be modified.
+     *
+     * @param   forecasts   the ForecastColumns object holding every segment of the forecast
+     * @return              an array containing the value of the metric in every segment
+     */
+    public double[] getForecastValues(ForecastColumns forecasts) {
+        return forecastValues.apply(forecasts);
+    }
+
+    /**
+     * Returns whether or not a value of the metric marks a missing reading rather than a real value.
+     *
+     * @param   value   the value to be checked
+     * @return          true if the value is NaN or the value stored when the API leaves out the reading
+     */
+    public boolean isMissing(double value) {
+        return Double.isNaN(value) || value == missingValue;
+    }
+
+    /**
+     * Turns a value of the metric into text.
+     *
+     * @param   value   the value to be formatted
+     * @return          the value with its unit, such as "12.50 °C", or "No data" if the reading is missing
+     */
+    public String format(double value) {
+        return isMissing(value) ? "No data" : formatter.apply(value);
+    }
+
+    /**
+     * Reads the metric from the current weather of a city and turns it into text.
+     *
+     * @param   data    the CurrentWeatherData object of the city
+     * @return          the value with its unit, such as "0.25 mm/h", or "No data" if the reading is missing
+     */
+    public String formatCurrent(CurrentWeatherData data) {
+        double value = getCurrentValue(data);
+        return Double.isNaN(value) || value == currentMissingValue ? "No data" : currentFormatter.apply(value);
+    }
+}
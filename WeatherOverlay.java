@@ -0,0 +1,510 @@
+import greenfoot.*;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The WeatherOverlay class draws a heatmap of the temperature, humidity or wind speed across the map of the MapScreen world. The value at
+ * each point of the map is estimated from the latest weather of every city that has been fetched, using inverse distance weighting so
+ * that nearby cities count for much more than distant ones. Each point only blends its few nearest cities, and each city fades out to
+ * nothing at the edge of the area it is blended in, so there are no sudden steps where the nearest cities change. The candidates for
+ * each small block of the heatmap are found once with a CityIndex, so the time taken to render does not grow with the number of
+ * cities. The weather saved on the disk
+ * by earlier runs of the program is read once, and after that the weather is taken from the cache of the fetcher in memory. The heatmap is rendered into a small image at a fraction of the resolution
+ * of the map on a background thread, and is only rendered again when new weather has been fetched or a different metric is chosen. The
+ * finished image is scaled to each zoom level in square tiles in the same way as the MapTileCache, so panning only copies the visible
+ * tiles onto the screen and never has to wait for the heatmap to be recalculated or scaled again. The sea is left uncovered by using
+ * the transparency of the map image as a mask.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherOverlay {
+    // Metrics the heatmap can show, in the order they are cycled through
+    private static final WeatherMetric[] METRICS = {WeatherMetric.TEMPERATURE, WeatherMetric.HUMIDITY, WeatherMetric.WIND_SPEED};
+
+    // Resolution and appearance of the heatmap
+    private static final int CELL_SIZE = 2;                 // Number of map pixels covered by each pixel of the heatmap
+    private static final int MAX_ALPHA = 140;               // Keeps the map visible underneath the heatmap
+    private static final long MAX_DATA_AGE_SECONDS = 3 * 60 * 60;   // Older saved weather is left out of the heatmap
+    private static final int NEAREST_CITY_COUNT = 8;        // Number of cities blended at each point
+    private static final int CANDIDATE_COUNT = 16;          // Cities found for each block, from which every point picks its nearest
+    private static final int BLOCK_SIZE = 8;                // Width of the square blocks of heatmap pixels that share their candidates
+    private static final Font LEGEND_FONT = new Font("Monospaced", false, false, 12);
+    
+    // Tile dimensions and the maximum number of scaled tiles held at once
+    private static final int TILE_SIZE = 256;
+    private static final int MAX_TILES = 64;
+
+    // Used to find the cities and their saved weather
+    private final CurrentWeatherFetcher fetcher;
+    private final List<City> cities;
+
+    // Latest weather of each city by its OpenWeatherMap ID, only used by the thread rendering the heatmap
+    private final Map<Integer, CurrentWeatherData> latestWeather = new HashMap<>();
+    private boolean isSavedWeatherLoaded = false;   // The disk is only read for the first heatmap
+
+    // Position of the map image in latitude and longitude
+    private final double topLat, bottomLat, leftLon, rightLon;
+    private final int mapShiftY;    // Number of pixels the cities are drawn below their position on the map image
+
+    // Size of the map image and the land mask taken from its transparency
+    private final int mapWidth, mapHeight;
+    private final int gridWidth, gridHeight;
+    private final int[] landAlpha;
+
+    // Index of the metric being shown, or -1 if the heatmap is hidden
+    private int metricIndex = -1;
+
+    // The finished heatmap and the details of the data it was rendered from
+    private BufferedImage heatmap;
+    private double heatmapMin, heatmapMax;
+    private int heatmapCityCount;
+
+    // Scaled tiles of the finished heatmap ordered from least recently used to most recently used
+    private final LinkedHashMap<Long, BufferedImage> tiles = new LinkedHashMap<>(MAX_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            return size() > MAX_TILES;     // Discards the least recently used tile once the cache is full
+        }
+    };
+
+    // The heatmap being rendered on a background thread, and what it is being rendered for
+    private CompletableFuture<Rendering> pending;
+    private int renderedMetricIndex = -1;
+    private long renderedUpdateCount = -1;
+
+    /**
+     * Constructor for objects of class WeatherOverlay.
+     * The heatmap is hidden until nextMetric() is called.
+     *
+     * @param   map         the map image that the heatmap is drawn over
+     * @param   topLat      the latitude of the top edge of the map image
+     * @param   bottomLat   the latitude of the bottom edge of the map image
+     * @param   leftLon     the longitude of the left edge of the map image
+     * @param   rightLon    the longitude of the right edge of the map image
+     * @param   mapShiftY   the number of pixels the cities are drawn below their position on the map image
+     * @param   fetcher     the CurrentWeatherFetcher holding the saved weather of the cities
+     * @param   cities      the cities whose weather is used to estimate the heatmap
+     */
+    public WeatherOverlay(GreenfootImage map, double topLat, double bottomLat, double leftLon, double rightLon, int mapShiftY,
+                          CurrentWeatherFetcher fetcher, List<City> cities) {
+        this.topLat = topLat;
+        this.bottomLat = bottomLat;
+        this.leftLon = leftLon;
+        this.rightLon = rightLon;
+        this.mapShiftY = mapShiftY;
+        this.fetcher = fetcher;
+        this.cities = cities;
+
+        // Samples the transparency of the map image once so the sea can be masked out of every heatmap
+        this.mapWidth = map.getWidth();
+        this.mapHeight = map.getHeight();
+        this.gridWidth = (mapWidth + CELL_SIZE - 1) / CELL_SIZE;
+        this.gridHeight = (mapHeight + CELL_SIZE - 1) / CELL_SIZE;
+        this.landAlpha = new int[gridWidth * gridHeight];
+
+        BufferedImage source = map.getAwtImage();
+        for (int row = 0; row < gridHeight; row++) {
+            for (int col = 0; col < gridWidth; col++) {
+                int x = Math.min(mapWidth - 1, col * CELL_SIZE + CELL_SIZE / 2);
+                int y = Math.min(mapHeight - 1, row * CELL_SIZE + CELL_SIZE / 2);
+                landAlpha[row * gridWidth + col] = source.getRGB(x, y) >>> 24;
+            }
+        }
+    }
+
+    /**
+     * Shows the next metric on the heatmap. The metrics are cycled through in the order temperature, humidity and wind speed, after
+     * which the heatmap is hidden again.
+     */
+    public void nextMetric() {
+        metricIndex = metricIndex + 1 < METRICS.length ? metricIndex + 1 : -1;
+        heatmap = null;     // The old heatmap shows the wrong metric, so nothing is drawn until the new one is ready
+        tiles.clear();
+        renderedMetricIndex = -1;
+    }
+
+    /**
+     * Returns whether or not the heatmap is being shown.
+     *
+     * @return  true if a metric has been chosen
+     */
+    public boolean isVisible() {
+        return metricIndex >= 0;
+    }
+
+    /**
+     * Returns the metric shown on the heatmap.
+     *
+     * @return  the WeatherMetric being shown, or null if the heatmap is hidden
+     */
+    public WeatherMetric getMetric() {
+        return isVisible() ? METRICS[metricIndex] : null;
+    }
+
+    /**
+     * Collects a heatmap that has finished rendering, and starts rendering a new one if the metric has changed or new weather has been
+     * fetched since the current heatmap was rendered. Only one heatmap is rendered at a time.
+     * Should be called on every act() call.
+     *
+     * @return  true if a new heatmap is ready and the map should be redrawn
+     */
+    public boolean update() {
+        boolean isChanged = false;
+
+        // Collects the finished heatmap if it is still for the chosen metric
+        if (pending != null && pending.isDone()) {
+            Rendering rendering = pending.getNow(null);
+            pending = null;
+            if (rendering != null && rendering.metricIndex == metricIndex) {
+                heatmap = rendering.image;
+                heatmapMin = rendering.min;
+                heatmapMax = rendering.max;
+                heatmapCityCount = rendering.cityCount;
+                tiles.clear();
+                isChanged = true;
+            }
+        }
+
+        // Starts rendering again if the heatmap is out of date
+        if (isVisible() && pending == null) {
+            long updateCount = fetcher.getUpdateCount();
+            if (metricIndex != renderedMetricIndex || updateCount != renderedUpdateCount) {
+                int metric = metricIndex;
+                renderedMetricIndex = metric;
+                renderedUpdateCount = updateCount;
+                pending = WeatherTaskExecutor.supplyAsync(() -> render(metric)).exceptionally(e -> {
+                    System.out.println("Error rendering weather overlay: " + e.getMessage());
+                    return null;
+                });
+            }
+        }
+
+        return isChanged;
+    }
+
+    /**
+     * Draws the heatmap onto an image so that it covers the scaled map. Only the tiles that are visible on the image are drawn, and tiles
+     * that are not cached yet are scaled first. Does nothing if the heatmap is hidden or has not finished rendering.
+     *
+     * @param   target  the image for the heatmap to be drawn on
+     * @param   mapX    the x coordinate of the top left corner of the scaled map on the target image
+     * @param   mapY    the y coordinate of the top left corner of the scaled map on the target image
+     * @param   width   the width of the scaled map
+     * @param   height  the height of the scaled map
+     */
+    public void draw(GreenfootImage target, int mapX, int mapY, int width, int height) {
+        if (!isVisible() || heatmap == null) {
+            return;
+        }
+
+        // Finds the range of tiles that overlap the target image
+        int firstCol = Math.max(0, -mapX / TILE_SIZE);
+        int firstRow = Math.max(0, -mapY / TILE_SIZE);
+        int lastCol = Math.min((width - 1) / TILE_SIZE, (target.getWidth() - 1 - mapX) / TILE_SIZE);
+        int lastRow = Math.min((height - 1) / TILE_SIZE, (target.getHeight() - 1 - mapY) / TILE_SIZE);
+
+        Graphics2D graphics = target.getAwtImage().createGraphics();
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                graphics.drawImage(getTile(width, height, col, row), mapX + col * TILE_SIZE, mapY + row * TILE_SIZE, null);
+            }
+        }
+        graphics.dispose();
+    }
+
+    /**
+     * Returns a scaled tile of the heatmap from the cache, scaling it first if it has not been cached yet.
+     *
+     * @param   width   the width of the scaled map
+     * @param   height  the height of the scaled map
+     * @param   col     the column of the tile
+     * @param   row     the row of the tile
+     * @return          the scaled tile image
+     */
+    private BufferedImage getTile(int width, int height, int col, int row) {
+        long key = ((long) width << 40) | ((long) col << 20) | row;     // The width of the scaled map identifies the zoom level
+        BufferedImage tile = tiles.get(key);
+
+        if (tile == null) {
+            // Tiles on the right and bottom edges may be smaller than TILE_SIZE
+            int tileWidth = Math.min(TILE_SIZE, width - col * TILE_SIZE);
+            int tileHeight = Math.min(TILE_SIZE, height - row * TILE_SIZE);
+            tile = new BufferedImage(tileWidth, tileHeight, BufferedImage.TYPE_INT_ARGB_PRE);   // Premultiplied tiles are quicker to draw
+
+            Graphics2D graphics = tile.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.translate(-col * TILE_SIZE, -row * TILE_SIZE);
+            graphics.scale(width * CELL_SIZE / (double) mapWidth, height * CELL_SIZE / (double) mapHeight);
+            graphics.drawImage(heatmap, 0, 0, null);
+            graphics.dispose();
+
+            tiles.put(key, tile);
+        }
+
+        return tile;
+    }
+
+    /**
+     * Draws a key showing the metric, the range of values and the colors used for them.
+     * Does nothing if the heatmap is hidden or has not finished rendering.
+     *
+     * @param   target  the image for the key to be drawn on
+     * @param   x       the x coordinate of the top left corner of the key
+     * @param   y       the y coordinate of the top left corner of the key
+     */
+    public void drawLegend(GreenfootImage target, int x, int y) {
+        if (!isVisible() || heatmap == null) {
+            return;
+        }
+
+        // Color scale from the lowest value to the highest value
+        int barWidth = 120;
+        for (int i = 0; i < barWidth; i++) {
+            int rgb = getColor(i / (double) (barWidth - 1));
+            target.setColor(new Color((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+            target.drawLine(x + i, y + 16, x + i, y + 24);
+        }
+
+        // Metric name and the values at each end of the scale
+        String unit = METRICS[metricIndex].getUnit();
+        target.setColor(Color.BLACK);
+        target.setFont(LEGEND_FONT);
+        target.drawString(METRICS[metricIndex].getName() + " (" + heatmapCityCount + " cities)", x, y + 12);
+        target.drawString(String.format("%.1f%s", heatmapMin, unit), x, y + 38);
+        target.drawString(String.format("%.1f%s", heatmapMax, unit), x + barWidth - 40, y + 38);
+    }
+
+    /**
+     * Renders the heatmap for a metric from the latest weather of every city. Runs on a background thread.
+     *
+     * @param   metric  the index of the metric to be rendered
+     * @return          a Rendering object holding the heatmap and the range of values, or null if no city has recent weather
+     */
+    private Rendering render(int metric) {
+        // Collects the recent weather of every city that has been fetched
+        updateLatestWeather();
+        List<CurrentWeatherData> samples = new ArrayList<>();
+        long oldestTimestamp = System.currentTimeMillis() / 1000 - MAX_DATA_AGE_SECONDS;
+        for (CurrentWeatherData data : latestWeather.values()) {
+            if (data.getTimestamp() >= oldestTimestamp) {
+                samples.add(data);
+            }
+        }
+        if (samples.isEmpty()) {
+            return null;
+        }
+
+        // Stores the samples in primitive arrays so the loop over every pixel does not follow references
+        int count = samples.size();
+        double lonScale = Math.cos(Math.toRadians((topLat + bottomLat) / 2));    // Makes a degree of longitude the same length as latitude
+        double[] sampleX = new double[count];
+        double[] sampleY = new double[count];
+        double[] values = new double[count];
+        double min = Double.MAX_VALUE, max = -Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            CurrentWeatherData data = samples.get(i);
+            sampleX[i] = data.getLongitude() * lonScale;
+            sampleY[i] = data.getLatitude();
+            values[i] = METRICS[metric].getCurrentValue(data);
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        double range = max - min > 0 ? max - min : 1;     // Stops a single city or equal values from dividing by zero
+
+        // Indexes the samples so that each block of pixels only has to look at the cities nearest to it
+        List<City> sampleCities = new ArrayList<>(count);
+        Map<City, Integer> sampleIndices = new HashMap<>();     // City does not override equals(), so each sample is its own key
+        for (int i = 0; i < count; i++) {
+            CurrentWeatherData data = samples.get(i);
+            City city = new City(data.getCityName(), data.getLatitude(), data.getLongitude());
+            sampleCities.add(city);
+            sampleIndices.put(city, i);
+        }
+        CityIndex index = new CityIndex(sampleCities);
+        int[] candidates = new int[Math.min(CANDIDATE_COUNT, count)];
+        double[] distances = new double[candidates.length];
+        double[] sortedDistances = new double[candidates.length];
+
+        // Estimates the value at the centre of every pixel of the heatmap, one block at a time
+        BufferedImage image = new BufferedImage(gridWidth, gridHeight, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = new int[gridWidth * gridHeight];
+        for (int blockRow = 0; blockRow < gridHeight; blockRow += BLOCK_SIZE) {
+            int endRow = Math.min(gridHeight, blockRow + BLOCK_SIZE);
+            for (int blockCol = 0; blockCol < gridWidth; blockCol += BLOCK_SIZE) {
+                int endCol = Math.min(gridWidth, blockCol + BLOCK_SIZE);
+
+                // Finds the cities nearest to the middle of the block
+                List<City> found = index.findNearest(getLatitude((blockRow + endRow) / 2), getLongitude((blockCol + endCol) / 2),
+                                                     candidates.length);
+                for (int i = 0; i < candidates.length; i++) {
+                    candidates[i] = sampleIndices.get(found.get(i));
+                }
+
+                for (int row = blockRow; row < endRow; row++) {
+                    double lat = getLatitude(row);
+                    for (int col = blockCol; col < endCol; col++) {
+                        int alpha = landAlpha[row * gridWidth + col] * MAX_ALPHA / 255;
+                        if (alpha == 0) {
+                            continue;   // The sea is left transparent
+                        }
+
+                        double value = interpolate(getLongitude(col) * lonScale, lat, sampleX, sampleY, values, candidates, distances,
+                                                   sortedDistances);
+                        pixels[row * gridWidth + col] = (alpha << 24) | getColor((value - min) / range);
+                    }
+                }
+            }
+        }
+        image.setRGB(0, 0, gridWidth, gridHeight, pixels, 0, gridWidth);
+
+        return new Rendering(metric, image, min, max, count);
+    }
+
+    /**
+     * Adds the newest weather of every city to the weather used by the heatmap. The weather saved on the disk is read the first time,
+     * and after that only the responses held in the cache of the fetcher are checked, so rendering never waits for the disk again.
+     */
+    private void updateLatestWeather() {
+        if (!isSavedWeatherLoaded) {
+            for (City city : cities) {
+                CurrentWeatherData saved = fetcher.getSavedWeatherData(city.getName());
+                if (saved != null) {
+                    addWeather(saved);
+                }
+            }
+            isSavedWeatherLoaded = true;
+        }
+
+        for (CurrentWeatherData data : fetcher.getCache().getValues()) {
+            addWeather(data);
+        }
+    }
+
+    /**
+     * Stores the weather of a city for the heatmap unless newer weather for the same city is already stored.
+     *
+     * @param   data    the CurrentWeatherData object of a city
+     */
+    private void addWeather(CurrentWeatherData data) {
+        latestWeather.merge(data.getCityID(), data, (old, now) -> now.getTimestamp() >= old.getTimestamp() ? now : old);
+    }
+
+    /**
+     * Returns the latitude at the centre of a row of the heatmap.
+     *
+     * @param   row     the row of the heatmap
+     * @return          the latitude of the row
+     */
+    private double getLatitude(int row) {
+        return topLat - ((row * CELL_SIZE + CELL_SIZE / 2.0 - mapShiftY) / mapHeight) * (topLat - bottomLat);
+    }
+
+    /**
+     * Returns the longitude at the centre of a column of the heatmap.
+     *
+     * @param   col     the column of the heatmap
+     * @return          the longitude of the column
+     */
+    private double getLongitude(int col) {
+        return leftLon + ((col * CELL_SIZE + CELL_SIZE / 2.0) / mapWidth) * (rightLon - leftLon);
+    }
+
+    /**
+     * Estimates the value at a point using inverse distance weighting of its nearest samples. The samples are blended within a radius
+     * that reaches the nearest sample that is not blended, and each sample is weighted by ((radius - distance) / (radius * distance))
+     * squared. The weight falls to zero at the radius, so a sample fades out smoothly as another one becomes nearer. If there are no more
+     * samples than are blended, the radius is unlimited and each sample is weighted by one over its squared distance.
+     *
+     * @param   x                   the scaled longitude of the point
+     * @param   y                   the latitude of the point
+     * @param   sampleX             the scaled longitudes of the samples
+     * @param   sampleY             the latitudes of the samples
+     * @param   values              the values of the samples
+     * @param   candidates          the positions of the samples near the point, which must include its nearest samples
+     * @param   distances           an array the size of candidates used to hold the distance to each candidate
+     * @param   sortedDistances     an array the size of candidates used to find the radius
+     * @return                      the weighted average of the values
+     */
+    private static double interpolate(double x, double y, double[] sampleX, double[] sampleY, double[] values, int[] candidates,
+                                      double[] distances, double[] sortedDistances) {
+        for (int i = 0; i < candidates.length; i++) {
+            double dx = sampleX[candidates[i]] - x;
+            double dy = sampleY[candidates[i]] - y;
+            double distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared < 1e-12) {
+                return values[candidates[i]];   // The point is on top of a city
+            }
+            distances[i] = Math.sqrt(distanceSquared);
+        }
+
+        // The radius is the distance to the nearest candidate that is not blended
+        double radius = Double.POSITIVE_INFINITY;
+        if (candidates.length > NEAREST_CITY_COUNT) {
+            System.arraycopy(distances, 0, sortedDistances, 0, distances.length);
+            Arrays.sort(sortedDistances);
+            radius = sortedDistances[NEAREST_CITY_COUNT];
+        }
+
+        double weightedSum = 0, totalWeight = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (distances[i] >= radius) {
+                continue;
+            }
+            double scaled = radius == Double.POSITIVE_INFINITY ? 1 / distances[i] : (radius - distances[i]) / (radius * distances[i]);
+            double weight = scaled * scaled;
+            weightedSum += weight * values[candidates[i]];
+            totalWeight += weight;
+        }
+        return totalWeight > 0 ? weightedSum / totalWeight : values[candidates[0]];     // Only zero if every sample is at the radius
+    }
+
+    /**
+     * Returns the color of a value on a scale from blue for the lowest value, through green and yellow, to red for the highest value.
+     *
+     * @param   fraction    the position of the value between the lowest and highest values, from 0 to 1
+     * @return              the color as a packed RGB int without an alpha value
+     */
+    private static int getColor(double fraction) {
+        fraction = Math.max(0, Math.min(1, fraction));
+        int red = (int) (255 * Math.max(0, Math.min(1, 2 * fraction - 0.5)));
+        int green = (int) (255 * Math.max(0, 1 - 2 * Math.abs(fraction - 0.5)));
+        int blue = (int) (255 * Math.max(0, Math.min(1, 1.5 - 2 * fraction)));
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    /**
+     * The Rendering class holds a finished heatmap together with the metric and range of values it was rendered from.
+     */
+    private static class Rendering {
+        private final int metricIndex;
+        private final BufferedImage image;
+        private final double min, max;
+        private final int cityCount;
+
+        /**
+         * Constructor for objects of class Rendering.
+         *
+         * @param   metricIndex     the index of the metric shown on the heatmap
+         * @param   image           the heatmap image
+         * @param   min             the lowest value of any city
+         * @param   max             the highest value of any city
+         * @param   cityCount       the number of cities the heatmap was estimated from
+         */
+        Rendering(int metricIndex, BufferedImage image, double min, double max, int cityCount) {
+            this.metricIndex = metricIndex;
+            this.image = image;
+            this.min = min;
+            this.max = max;
+            this.cityCount = cityCount;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The WeatherPrefetcher class fetches the current weather for every city on the map in the background when the program starts, so that
+ * the first click on any city can be answered from the cache of the CurrentWeatherFetcher. Cities whose OpenWeatherMap ID is known from
+ * an earlier run are fetched 20 at a time with the group endpoint, so only a handful of requests are needed, while cities that have never
+ * been fetched need a request each. A limited number of requests are sent at the same time and the start of each request is spaced out to
+ * stay within the rate limit of the OpenWeatherMap API. The space between requests is doubled whenever a request fails, since failures
+ * usually mean the API is refusing requests, and it returns to normal after a request succeeds. The saved IDs of the cities are read from
+ * the disk on a background thread before the requests are planned, so the world that starts the prefetch does not wait for the disk. When
+ * every city has been fetched, the total warm-up time, the number of requests and the time taken for each city are printed onto the
+ * terminal.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherPrefetcher {
+    private final CurrentWeatherFetcher fetcher;
+
+    // Limits on the requests sent to the API
+    private final int maxConcurrentRequests;
+    private final long minRequestIntervalMillis;
+    private static final long MAX_REQUEST_INTERVAL_MILLIS = 10_000;
+
+    // Spacing between the starts of requests
+    private long requestIntervalMillis;
+    private long nextRequestTime = 0;  // The value of System.currentTimeMillis() when the next request may start
+
+    /**
+     * Constructor for objects of class WeatherPrefetcher.
+     *
+     * @param   fetcher                     the CurrentWeatherFetcher whose cache will be filled
+     * @param   maxConcurrentRequests       the largest number of requests sent at the same time
+     * @param   minRequestIntervalMillis    the smallest number of milliseconds between the starts of two requests
+     */
+    public WeatherPrefetcher(CurrentWeatherFetcher fetcher, int maxConcurrentRequests, long minRequestIntervalMillis) {
+        this.fetcher = fetcher;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.minRequestIntervalMillis = minRequestIntervalMillis;
+        this.requestIntervalMillis = minRequestIntervalMillis;
+    }
+
+    /**
+     * Fetches the current weather for every city in the background, grouping the cities with a known ID into as few requests as possible.
+     * Each request counts once towards the rate limit however many cities it fetches. The report is printed onto the terminal once every
+     * request has finished.
+     *
+     * @param   cities  the cities to be fetched
+     * @return          a CompletableFuture that is completed when every city has been fetched
+     */
+    public CompletableFuture<Void> prefetch(List<City> cities) {
+        ExecutorService pool = Executors.newFixedThreadPool(maxConcurrentRequests, WeatherTaskExecutor.createThreadFactory("weather-prefetch"));
+        long startTime = System.nanoTime();
+
+        // Results for each city, read once every request has finished
+        long[] latencies = new long[cities.size()];
+        boolean[] successes = new boolean[cities.size()];
+
+        // Plans the requests on the pool, since finding the cities with a known ID reads their saved responses from the disk
+        return CompletableFuture.supplyAsync(() -> createBatches(cities), pool).thenCompose(batches -> {
+            List<CompletableFuture<Void>> requests = new ArrayList<>();
+            for (List<Integer> batch : batches) {
+                requests.add(CompletableFuture.runAsync(() -> {
+                    waitForRequestSlot();
+
+                    List<City> batchCities = new ArrayList<>();
+                    for (int index : batch) {
+                        batchCities.add(cities.get(index));
+                    }
+
+                    long requestStart = System.nanoTime();
+                    Map<City, CurrentWeatherData> results = fetcher.getWeatherData(batchCities);
+                    long latency = System.nanoTime() - requestStart;   // Every city in a group takes as long as the whole group
+                    for (int index : batch) {
+                        latencies[index] = latency;
+                        successes[index] = results.containsKey(cities.get(index));
+                    }
+
+                    recordResult(results.size() == batch.size());
+                }, pool));
+            }
+
+            return CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).whenComplete((result, error) ->
+                printReport(cities, latencies, successes, batches.size(), System.nanoTime() - startTime));
+        }).whenComplete((result, error) -> pool.shutdown());
+    }
+
+    /**
+     * Splits the cities into the requests used to fetch them. Cities with a known ID are split into groups, and every other city is
+     * fetched on its own.
+     *
+     * @param   cities  the cities to be fetched
+     * @return          the positions in the list of the cities fetched by each request
+     */
+    private List<List<Integer>> createBatches(List<City> cities) {
+        List<List<Integer>> batches = new ArrayList<>();
+        List<Integer> groupedCities = new ArrayList<>();
+        for (int i = 0; i < cities.size(); i++) {
+            if (fetcher.hasCityID(cities.get(i).getName())) {
+                groupedCities.add(i);
+            } else {
+                batches.add(List.of(i));
+            }
+        }
+        for (int i = 0; i < groupedCities.size(); i += CurrentWeatherFetcher.GROUP_SIZE) {
+            batches.add(groupedCities.subList(i, Math.min(i + CurrentWeatherFetcher.GROUP_SIZE, groupedCities.size())));
+        }
+        return batches;
+    }
+
+    /**
+     * Waits until the next request is allowed to start and reserves the following slot for the next request.
+     */
+    private void waitForRequestSlot() {
+        long waitMillis;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            long startTime = Math.max(now, nextRequestTime);
+            nextRequestTime = startTime + requestIntervalMillis;
+            waitMillis = startTime - now;
+        }
+
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Updates the spacing between requests depending on whether the last request succeeded.
+     * Failed requests double the spacing and successful requests reset it to the minimum.
+     *
+     * @param   success     a boolean value determining whether or not the request succeeded
+     */
+    private synchronized void recordResult(boolean success) {
+        if (success) {
+            requestIntervalMillis = minRequestIntervalMillis;
+        } else {
+            requestIntervalMillis = Math.min(MAX_REQUEST_INTERVAL_MILLIS, Math.max(1, requestIntervalMillis) * 2);
+        }
+    }
+
+    /**
+     * Prints the total warm-up time and the time taken to fetch each city onto the terminal.
+     *
+     * @param   cities          the cities that were fetched
+     * @param   latencies       the number of nanoseconds taken to fetch each city
+     * @param   successes       whether or not each city was fetched successfully
+     * @param   requestCount    the number of requests sent to the API, counting each group of cities once
+     * @param   totalTime       the number of nanoseconds taken to fetch every city
+     */
+    private void printReport(List<City> cities, long[] latencies, boolean[] successes, int requestCount, long totalTime) {
+        StringBuilder report = new StringBuilder("\n======= Weather Prefetch =======\n");
+        int successCount = 0;
+
+        for (int i = 0; i < cities.size(); i++) {
+            report.append(String.format("%-25s %8.1f ms%s\n", cities.get(i).getName(), latencies[i] / 1e6, successes[i] ? "" : "  (failed)"));
+            if (successes[i]) {
+                successCount++;
+            }
+        }
+
+        report.append(String.format("Cities fetched: %d of %d in %d requests\n", successCount, cities.size(), requestCount));
+        report.append(String.format("Total warm-up time: %.1f ms\n", totalTime / 1e6));
+        report.append("================================");
+        System.out.println(report);
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * The WeatherRefreshScheduler class fetches the current weather for the selected city again and again at a fixed interval, so that the
+ * CurrentWeatherDisplay stays up to date without the user clicking on the map. The requests are sent on a background thread of their
+ * own and use conditional requests through CurrentWeatherFetcher.refreshWeatherData(), so the API can answer that nothing has changed
+ * without sending the weather again. The most recent result is held until the display collects it on its next act() call, since
+ * Greenfoot objects should only be changed on the act thread. The interval is the time between the end of one request and the start
+ * of the next, so a slow response never causes requests to pile up.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherRefreshScheduler {
+    // Time between refreshes used by the program, since the API updates its data about every 10 minutes
+    public static final long DEFAULT_INTERVAL_MILLIS = 10 * 60 * 1000L;
+
+    private final CurrentWeatherFetcher fetcher;
+    private final Supplier<City> selectedCity;     // Asked for the city to refresh before every request
+    private long intervalMillis;
+
+    // Runs the requests, or null while the scheduler is stopped
+    private ScheduledExecutorService executor;
+
+    // The most recent result that has not been collected yet
+    private final AtomicReference<Refresh> latestRefresh = new AtomicReference<>();
+
+    /**
+     * Constructor for objects of class WeatherRefreshScheduler.
+     * The scheduler does not send any requests until start() is called.
+     *
+     * @param   fetcher         the CurrentWeatherFetcher used to send the requests
+     * @param   selectedCity    returns the city to be refreshed, or null if no city is selected
+     * @param   intervalMillis  the number of milliseconds between the end of one request and the start of the next
+     */
+    public WeatherRefreshScheduler(CurrentWeatherFetcher fetcher, Supplier<City> selectedCity, long intervalMillis) {
+        this.fetcher = fetcher;
+        this.selectedCity = selectedCity;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Starts refreshing the selected city on a background thread.
+     * The first request is sent after one interval, since the city was fetched when it was selected.
+     * Does nothing if the scheduler is already running.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(WeatherTaskExecutor.createThreadFactory("weather-refresh"));
+        executor.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops refreshing the selected city. A request that is already being sent is abandoned.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Returns whether or not the scheduler is refreshing the selected city.
+     *
+     * @return  true if the scheduler has been started and not stopped
+     */
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Changes the time between requests. A running scheduler is restarted so the new interval is used straight away.
+     *
+     * @param   intervalMillis  the number of milliseconds between the end of one request and the start of the next
+     */
+    public synchronized void setInterval(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+        if (executor != null) {
+            stop();
+            start();
+        }
+    }
+
+    /**
+     * Returns the time between requests.
+     *
+     * @return  the number of milliseconds between the end of one request and the start of the next
+     */
+    public synchronized long getInterval() {
+        return intervalMillis;
+    }
+
+    /**
+     * Collects the result of the most recent refresh if it is for the given city.
+     * Each result is only returned once, and results for a city that is no longer selected are thrown away.
+     *
+     * @param   city    the city currently shown on the display
+     * @return          the refreshed CurrentWeatherData object, or null if there is no new result for the city
+     */
+    public CurrentWeatherData collectRefresh(City city) {
+        Refresh refresh = latestRefresh.getAndSet(null);
+        return refresh != null && refresh.city == city ? refresh.data : null;
+    }
+
+    /**
+     * Fetches the weather for the selected city and stores the result so it can be collected by the display.
+     * Failed requests are ignored since the next request is never far away.
+     */
+    private void refresh() {
+        City city = selectedCity.get();
+        if (city == null) {
+            return;
+        }
+
+        CurrentWeatherData data = fetcher.refreshWeatherData(city.getName());
+        if (data != null) {
+            latestRefresh.set(new Refresh(city, data));
+        }
+    }
+
+    /**
+     * The Refresh class holds the result of one refresh together with the city it was fetched for.
+     */
+    private static class Refresh {
+        private final City city;
+        private final CurrentWeatherData data;
+
+        /**
+         * Constructor for objects of class Refresh.
+         *
+         * @param   city    the city that was refreshed
+         * @param   data    the CurrentWeatherData object fetched for the city
+         */
+        Refresh(City city, CurrentWeatherData data) {
+            this.city = city;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The WeatherResponse class holds a response from the OpenWeatherMap API returned by a WeatherTransport. The status code and headers
+ * are available straight away, and the body is read from a stream as it arrives, so that the fetchers can parse it without holding the
+ * whole response in memory. Bodies sent in gzip form are decompressed as they are read. The gzip stream is only opened when the body
+ * is first read, and an empty body is read as empty, so a response without a body such as a 304 never fails to be created. Closing the response reads and throws away any
+ * part of the body that has not been read, which allows the connection to be reused for the next request, and then closes the stream.
+ * Responses can also be created from a body that is already in memory, which is how recorded responses are replayed.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public class WeatherResponse implements AutoCloseable {
+    // Largest amount of unread body that is read when closing, so a huge response cannot delay closing
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    private final int statusCode;
+    private final Map<String, String> headers;      // The first value of each header, looked up in any case
+    private final InputStream rawBody;
+    private final boolean isCompressed;
+    private InputStream body;   // Created the first time the body is read
+
+    /**
+     * Constructor for objects of class WeatherResponse.
+     *
+     * @param   response    the response received by the HttpClient
+     */
+    public WeatherResponse(HttpResponse<InputStream> response) {
+        this.statusCode = response.statusCode();
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            if (!header.getValue().isEmpty()) {
+                headers.put(header.getKey(), header.getValue().get(0));
+            }
+        }
+        this.rawBody = response.body();
+        this.isCompressed = headers.getOrDefault("Content-Encoding", "").equalsIgnoreCase("gzip");
+    }
+
+    /**
+     * Constructor for objects of class WeatherResponse whose body is already in memory and is not compressed.
+     *
+     * @param   statusCode  the HTTP status code of the response
+     * @param   headers     the headers of the response
+     * @param   body        the body of the response
+     */
+    public WeatherResponse(int statusCode, Map<String, String> headers, byte[] body) {
+        this.statusCode = statusCode;
+        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers.putAll(headers);
+        this.rawBody = new ByteArrayInputStream(body);
+        this.isCompressed = false;
+    }
+
+    /**
+     * Returns the HTTP status code of the response.
+     *
+     * @return  the status code, such as 200 for success
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Returns whether or not the request succeeded.
+     *
+     * @return  a boolean value determining whether or not the status code is between 200 and 299
+     */
+    public boolean isSuccessful() {
+        return statusCode >= 200 && statusCode < 300;
+    }
+
+    /**
+     * Returns the first value of a header of the response.
+     *
+     * @param   name    the name of the header, in any case
+     * @return          the value of the header, or null if the response does not have the header
+     */
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    /**
+     * Returns the first value of every header of the response.
+     *
+     * @return  an unmodifiable Map from the name of each header to its value
+     */
+    public Map<String, String> getHeaders() {
+        return Collections.unmodifiableMap(headers);
+    }
+
+    /**
+     * Returns the stream containing the body of the response, which has already been decompressed.
+     *
+     * @return  the InputStream of the body
+     * @throws  IOException if the body is compressed and its gzip header cannot be read
+     */
+    public InputStream getBody() throws IOException {
+        if (body == null) {
+            body = isCompressed ? openCompressedBody() : rawBody;
+        }
+        return body;
+    }
+
+    /**
+     * Opens the gzip stream that decompresses the body. The first byte is read ahead, since an empty body has no gzip header and
+     * GZIPInputStream would fail on it.
+     *
+     * @return  the InputStream of the decompressed body, or an empty stream if the body is empty
+     */
+    private InputStream openCompressedBody() throws IOException {
+        PushbackInputStream in = new PushbackInputStream(rawBody);
+        int firstByte = in.read();
+        if (firstByte == -1) {
+            return in;  // Empty, such as the body of a 304 response or an error without a message
+        }
+        in.unread(firstByte);
+        return new GZIPInputStream(in);
+    }
+
+    /**
+     * Reads any part of the body that has not been read yet so the connection can be reused, and closes the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try (InputStream raw = rawBody) {
+            byte[] buffer = new byte[8192];
+            int drained = 0;
+            int read;
+            while (drained < MAX_DRAIN_BYTES && (read = raw.read(buffer)) != -1) {
+                drained += read;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The WeatherTaskExecutor class runs slow tasks such as requests to the OpenWeatherMap API on background threads, so that the act() methods
+ * of the worlds and actors never have to wait for the network. Tasks are given to a small shared pool of threads and their results are
+ * returned as CompletableFuture objects, which can be checked on a later act() call. The threads are daemon threads so they never stop
+ * the program from closing, and they are removed when they have been idle for a while.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public final class WeatherTaskExecutor {
+    // Pool size and the time idle threads are kept for
+    private static final int THREAD_COUNT = 4;
+    private static final long IDLE_SECONDS = 30;
+
+    private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+
+    /**
+     * Objects of this class are never created since every method is static.
+     */
+    private WeatherTaskExecutor() {
+    }
+
+    /**
+     * Runs a task on a background thread.
+     *
+     * @param   task    the task to be run
+     * @return          a CompletableFuture that is completed with the result of the task
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Runs a task that has no result on a background thread, such as saving a file.
+     *
+     * @param   task    the task to be run
+     * @return          a CompletableFuture that is completed when the task has finished
+     */
+    public static CompletableFuture<Void> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, EXECUTOR);
+    }
+
+    /**
+     * Returns the executor used to run the background tasks.
+     *
+     * @return  the shared Executor object
+     */
+    public static Executor getExecutor() {
+        return EXECUTOR;
+    }
+
+    /**
+     * Returns a ThreadFactory that creates numbered daemon threads.
+     * Used by any class that needs its own pool of background threads.
+     *
+     * @param   name    the name given to the threads, followed by the number of each thread
+     * @return          a ThreadFactory for daemon threads
+     */
+    public static ThreadFactory createThreadFactory(String name) {
+        AtomicInteger threadNumber = new AtomicInteger(1);     // Numbers the threads so they can be recognised when debugging
+        return task -> {
+            Thread thread = new Thread(task, name + "-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);     // Stops the thread from keeping the program open
+            return thread;
+        };
+    }
+
+    /**
+     * Creates the thread pool used to run the background tasks.
+     *
+     * @return  a ThreadPoolExecutor with daemon threads that time out when idle
+     */
+    private static ThreadPoolExecutor createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                THREAD_COUNT, THREAD_COUNT, IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                createThreadFactory("weather-task"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
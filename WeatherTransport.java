@@ -0,0 +1,112 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The WeatherTransport class is the base of every class that the fetchers send their requests through. The WeatherHttpClient sends them
+ * to the OpenWeatherMap API, the RecordingTransport also saves each response it receives to a folder of fixtures, and the ReplayTransport
+ * answers requests from those fixtures without using the network at all, after an optional delay and with an optional rate of failures.
+ * This allows the whole program to be used, tested and timed on a computer that cannot reach the API. The transport shared by every
+ * fetcher is chosen the first time it is needed from the "weather.transport" system property or the WEATHER_TRANSPORT environment
+ * variable, which can be "live", "record" or "replay", and the other settings are read in the same way.
+ *
+ * @author  Weather Application Contributors
+ * @version 1.1 (16.10.2026)
+ */
+public abstract class WeatherTransport {
+    // Folder used for the fixtures when no other folder is set
+    private static final String DEFAULT_FIXTURE_FOLDER = "weather-fixtures";
+
+    // The transport used by every fetcher unless another one is given to it
+    private static WeatherTransport shared;
+
+    /**
+     * Sends a GET request with extra headers to an endpoint of the API and returns the response.
+     * The body of the response is read from the returned WeatherResponse, which must be closed once it has been read.
+     *
+     * @param   endpoint    the name of the endpoint, such as "weather" or "forecast"
+     * @param   parameters  the query parameters of the request
+     * @param   headers     the extra headers of the request, such as "If-None-Match"
+     * @return              a WeatherResponse object containing the status code, headers and body of the response
+     */
+    public abstract WeatherResponse get(String endpoint, Map<String, String> parameters, Map<String, String> headers) throws IOException;
+
+    /**
+     * Sends a GET request to an endpoint of the API and returns the response.
+     *
+     * @param   endpoint    the name of the endpoint, such as "weather" or "forecast"
+     * @param   parameters  the query parameters of the request
+     * @return              a WeatherResponse object containing the status code, headers and body of the response
+     */
+    public WeatherResponse get(String endpoint, Map<String, String> parameters) throws IOException {
+        return get(endpoint, parameters, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the transport shared by every fetcher, creating it from the settings the first time it is needed.
+     *
+     * @return  the shared WeatherTransport object
+     */
+    public static synchronized WeatherTransport getShared() {
+        if (shared == null) {
+            shared = createFromSettings();
+        }
+        return shared;
+    }
+
+    /**
+     * Replaces the transport shared by every fetcher created afterwards, for example with a ReplayTransport in a test.
+     *
+     * @param   transport   the WeatherTransport object to be shared
+     */
+    public static synchronized void setShared(WeatherTransport transport) {
+        shared = transport;
+    }
+
+    /**
+     * Creates the transport chosen by the settings.
+     * The settings are "weather.transport" (live, record or replay), "weather.fixtures" (the folder of fixtures),
+     * "weather.replay.latency" and "weather.replay.jitter" (milliseconds) and "weather.replay.errorRate" (from 0 to 1).
+     *
+     * @return  a new WeatherTransport object, which sends requests to the API if no transport has been chosen
+     */
+    private static WeatherTransport createFromSettings() {
+        String mode = getSetting("weather.transport", "live");
+        Path fixtureFolder = Path.of(getSetting("weather.fixtures", DEFAULT_FIXTURE_FOLDER));
+
+        try {
+            switch (mode.toLowerCase()) {
+                case "record":
+                    return new RecordingTransport(new WeatherHttpClient(), fixtureFolder);
+                case "replay":
+                    return new ReplayTransport(fixtureFolder,
+                                               Long.parseLong(getSetting("weather.replay.latency", "0")),
+                                               Long.parseLong(getSetting("weather.replay.jitter", "0")),
+                                               Double.parseDouble(getSetting("weather.replay.errorRate", "0")));
+                case "live":
+                    break;
+                default:
+                    System.out.println("Error choosing weather transport: unknown mode " + mode);
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Error reading replay settings: " + e.getMessage());
+        }
+        return new WeatherHttpClient();
+    }
+
+    /**
+     * Returns a setting from a system property, or from the environment variable with the same name in capitals and underscores.
+     *
+     * @param   name            the name of the system property, such as "weather.transport"
+     * @param   defaultValue    the value returned if the setting has not been set
+     * @return                  the value of the setting
+     */
+    private static String getSetting(String name, String defaultValue) {
+        String value = System.getProperty(name);
+        if (value == null) {
+            value = System.getenv(name.toUpperCase().replace('.', '_'));
+        }
+        return value != null && !value.isBlank() ? value.trim() : defaultValue;
+    }
+}